@@ -0,0 +1,88 @@
+package com.pallux.sandsim.benchmarks;
+
+import org.bukkit.Chunk;
+import org.bukkit.ChunkSnapshot;
+import org.bukkit.Material;
+import org.bukkit.World;
+import org.bukkit.block.Block;
+
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.Proxy;
+import java.util.UUID;
+
+/**
+ * Proxy-backed stand-ins for the few Bukkit interfaces the benchmarked code
+ * touches. Only the methods listed in each handler answer; anything else
+ * returns a zero value, so a stub never needs a running server.
+ */
+final class BukkitStubs {
+
+    private BukkitStubs() {}
+
+    /**
+     * A fully loaded flat world: every block at or below {@code surfaceY} is
+     * {@code fill}, everything above is air.
+     */
+    static World flatWorld(Material fill, int surfaceY) {
+        UUID uid = UUID.randomUUID();
+        World[] self = new World[1];
+        self[0] = stub(World.class, (proxy, method, args) -> switch (method.getName()) {
+            case "getUID"        -> uid;
+            case "getName"       -> "bench";
+            case "getMinHeight"  -> -64;
+            case "getMaxHeight"  -> 320;
+            case "isChunkLoaded" -> true;
+            case "getType"       -> (int) args[1] <= surfaceY ? fill : Material.AIR;
+            case "getChunkAt"    -> chunk(self[0], fill, surfaceY);
+            default              -> zero(method.getReturnType());
+        });
+        return self[0];
+    }
+
+    static Block block(World world, int x, int y, int z) {
+        return stub(Block.class, (proxy, method, args) -> switch (method.getName()) {
+            case "getWorld" -> world;
+            case "getX"     -> x;
+            case "getY"     -> y;
+            case "getZ"     -> z;
+            case "getType"  -> world.getType(x, y, z);
+            default         -> zero(method.getReturnType());
+        });
+    }
+
+    private static Chunk chunk(World world, Material fill, int surfaceY) {
+        ChunkSnapshot snapshot = stub(ChunkSnapshot.class, (proxy, method, args) ->
+                "getBlockType".equals(method.getName())
+                        ? ((int) args[1] <= surfaceY ? fill : Material.AIR)
+                        : zero(method.getReturnType()));
+        return stub(Chunk.class, (proxy, method, args) -> switch (method.getName()) {
+            case "getWorld"         -> world;
+            case "getChunkSnapshot" -> snapshot;
+            default                 -> zero(method.getReturnType());
+        });
+    }
+
+    @SuppressWarnings("unchecked")
+    private static <T> T stub(Class<T> type, InvocationHandler handler) {
+        InvocationHandler withIdentity = (proxy, method, args) -> switch (method.getName()) {
+            case "equals"   -> args != null && args.length == 1 ? proxy == args[0] : handler.invoke(proxy, method, args);
+            case "hashCode" -> args == null ? System.identityHashCode(proxy) : handler.invoke(proxy, method, args);
+            case "toString" -> args == null ? type.getSimpleName() + "Stub" : handler.invoke(proxy, method, args);
+            default         -> handler.invoke(proxy, method, args);
+        };
+        return (T) Proxy.newProxyInstance(BukkitStubs.class.getClassLoader(), new Class<?>[]{type}, withIdentity);
+    }
+
+    private static Object zero(Class<?> type) {
+        if (type == boolean.class) return false;
+        if (type == int.class)     return 0;
+        if (type == long.class)    return 0L;
+        if (type == double.class)  return 0.0;
+        if (type == float.class)   return 0.0f;
+        if (type == short.class)   return (short) 0;
+        if (type == byte.class)    return (byte) 0;
+        if (type == char.class)    return '\0';
+        if (type == String.class)  return "stub";
+        return null;
+    }
+}
@@ -0,0 +1,55 @@
+package com.pallux.sandsim.benchmarks;
+
+import com.pallux.sandsim.utils.ColorUtils;
+import com.pallux.sandsim.utils.MessageTemplate;
+import net.kyori.adventure.text.Component;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * {@link ColorUtils#toComponent} on typical message shapes, next to the
+ * compiled {@link MessageTemplate} path the action bar uses.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ColorUtilsBenchmark {
+
+    @Param({
+            "&7You mined &e%amount% &7sand",
+            "&#FFD700&l[SandSim]&r &#AAAAAAYou mined &#FFFF55%amount% &#AAAAAAsand",
+            "plain text without any colors"
+    })
+    public String message;
+
+    private MessageTemplate template;
+
+    @Setup
+    public void setUp() {
+        template = MessageTemplate.compile(message);
+    }
+
+    @Benchmark
+    public Component toComponent() {
+        return ColorUtils.toComponent(message.replace("%amount%", "1.25K"));
+    }
+
+    @Benchmark
+    public Component compiledTemplate() {
+        return template.renderComponent("%amount%", "1.25K");
+    }
+}
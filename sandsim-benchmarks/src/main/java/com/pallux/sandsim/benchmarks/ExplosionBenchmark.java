@@ -0,0 +1,63 @@
+package com.pallux.sandsim.benchmarks;
+
+import com.pallux.sandsim.manager.BlockRegenEngine;
+import com.pallux.sandsim.manager.SandExplosionExecutor;
+import org.bukkit.Material;
+import org.bukkit.World;
+import org.bukkit.block.Block;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * A Sand Explosion ({@code breakSandInRadius}) at each supported radius over
+ * a flat sand world: sphere walk, type lookups (direct or via chunk
+ * snapshots), classification and regen scheduling. The regen engine is
+ * replaced per invocation so every run schedules a full sphere.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ExplosionBenchmark {
+
+    @Param({"1", "2", "3", "4", "5", "6", "7", "8", "9", "10"})
+    public int radius;
+
+    private World world;
+    private Block center;
+    private SandExplosionExecutor executor;
+
+    @Setup(Level.Trial)
+    public void setUpWorld() {
+        // Surface at y=64 with the center on it: roughly half the sphere is sand
+        world  = BukkitStubs.flatWorld(Material.SAND, 64);
+        center = BukkitStubs.block(world, 8, 64, 8);
+    }
+
+    @Setup(Level.Invocation)
+    public void setUpEngine() {
+        // Engine is never started, so it needs no plugin
+        executor = new SandExplosionExecutor(
+                type -> type == Material.SAND ? SandExplosionExecutor.NORMAL : -1,
+                new BlockRegenEngine(null));
+    }
+
+    @Benchmark
+    public int[] explode() {
+        return executor.explode(center, radius, Material.SANDSTONE, 100L);
+    }
+}
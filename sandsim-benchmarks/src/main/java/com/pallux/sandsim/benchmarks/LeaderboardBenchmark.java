@@ -0,0 +1,80 @@
+package com.pallux.sandsim.benchmarks;
+
+import com.pallux.sandsim.utils.RankIndex;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.util.SplittableRandom;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * The leaderboard work over synthetic player populations.
+ * {@code LeaderboardManager.updateLeaderboards} reads the top 10 of four
+ * {@link RankIndex}es; {@code updatePlayer} re-ranks one changed player in
+ * each; {@code getRank} serves rank placeholders. Player names are resolved
+ * through Bukkit there and are left out here.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(value = 1, jvmArgsAppend = "-Xmx4g")
+public class LeaderboardBenchmark {
+
+    private static final int BOARDS   = 4;
+    private static final int TOP_SIZE = 10;
+
+    @Param({"10000", "100000", "1000000"})
+    public int playerCount;
+
+    private RankIndex[] indexes;
+    private UUID[] players;
+    private SplittableRandom random;
+
+    @Setup
+    public void setUp() {
+        random  = new SplittableRandom(7);
+        players = new UUID[playerCount];
+        indexes = new RankIndex[BOARDS];
+        for (int b = 0; b < BOARDS; b++) indexes[b] = new RankIndex();
+        for (int i = 0; i < playerCount; i++) {
+            players[i] = new UUID(random.nextLong(), random.nextLong());
+            for (RankIndex index : indexes) index.update(players[i], randomBalance());
+        }
+    }
+
+    @Benchmark
+    public void updateLeaderboards(Blackhole bh) {
+        for (RankIndex index : indexes) bh.consume(index.range(0, TOP_SIZE));
+    }
+
+    @Benchmark
+    public void updatePlayer() {
+        UUID player = players[random.nextInt(playerCount)];
+        for (RankIndex index : indexes) index.update(player, randomBalance());
+    }
+
+    @Benchmark
+    public int getRank() {
+        return indexes[0].getRank(players[random.nextInt(playerCount)]);
+    }
+
+    /** Log-uniform balances, so every suffix band is populated. */
+    private BigDecimal randomBalance() {
+        return BigDecimal.valueOf(Math.pow(10, random.nextDouble() * 15)).setScale(2, RoundingMode.DOWN);
+    }
+}
@@ -0,0 +1,96 @@
+package com.pallux.sandsim.benchmarks;
+
+import com.pallux.sandsim.data.MultiplierSnapshot;
+import com.pallux.sandsim.data.PlayerData;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.util.SplittableRandom;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * The reward math of {@code BlockBreakListener.processSandMining} for one
+ * block: snapshot lookups, jackpot and gem rolls, and the lock-free credits.
+ * {@link #minedBlockWithCommit} adds the per-tick commit amortised over a
+ * typical 4 blocks per tick.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class MiningBenchmark {
+
+    private static final double JACKPOT_MULTIPLIER = 5.0;
+
+    /** Red sand's default multiplier, as a stand-in for the block type lookup. */
+    @Param({"1.0", "2.0"})
+    public double sandTypeMultiplier;
+
+    @Param({"false", "true"})
+    public boolean jackpotActive;
+
+    private PlayerData data;
+    private MultiplierSnapshot mult;
+    private SplittableRandom random;
+    private int blocks;
+    private int jackpotRolls;
+
+    @Setup
+    public void setUp() {
+        data   = new PlayerData(UUID.randomUUID());
+        random = new SplittableRandom(42);
+        mult   = new MultiplierSnapshot(0, 0L,
+                12.5, 1.5,
+                8.0, 3.0, 1.2,
+                2L,
+                5.0, 3,
+                1.0, 1.0,
+                10.0, 5_000L);
+        if (jackpotActive) {
+            data.activateSandJackpot(Long.MAX_VALUE / 2);
+            data.activateGemJackpot(Long.MAX_VALUE / 2);
+        }
+    }
+
+    @Benchmark
+    public double minedBlock() {
+        return mine();
+    }
+
+    @Benchmark
+    public void minedBlockWithCommit(Blackhole bh) {
+        bh.consume(mine());
+        if ((++blocks & 3) == 0) bh.consume(data.commitPending());
+    }
+
+    private double mine() {
+        double overall = mult.getSand() * sandTypeMultiplier;
+        // Roll like the listener, but never activate so the jackpot parameter holds
+        if (!data.isSandJackpotActive() && random.nextDouble() * 100.0 < mult.getSandJackpotChance()) {
+            jackpotRolls++;
+        }
+        double sand = data.isSandJackpotActive() ? overall * JACKPOT_MULTIPLIER : overall;
+        data.creditSand(sand);
+        data.creditXp(mult.getXpPerBlock());
+
+        if (random.nextDouble() * 100.0 < mult.getGemChance()) {
+            double gems = mult.getGems() * (data.isGemJackpotActive() ? JACKPOT_MULTIPLIER : 1.0);
+            data.creditGems(gems);
+            sand += gems;
+        }
+        return sand;
+    }
+}
@@ -0,0 +1,49 @@
+package com.pallux.sandsim.benchmarks;
+
+import com.pallux.sandsim.utils.NumberFormatter;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.math.BigDecimal;
+import java.util.concurrent.TimeUnit;
+
+/** {@link NumberFormatter#format} across each suffix band. */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class NumberFormatterBenchmark {
+
+    @Param({"512", "12345.678", "9876543.21", "4200000000", "1.5E15", "7.77E20", "3.3E40", "2.5E70"})
+    public String value;
+
+    private double asDouble;
+    private BigDecimal asBigDecimal;
+
+    @Setup
+    public void setUp() {
+        asBigDecimal = new BigDecimal(value);
+        asDouble     = asBigDecimal.doubleValue();
+    }
+
+    @Benchmark
+    public String formatDouble() {
+        return NumberFormatter.format(asDouble);
+    }
+
+    @Benchmark
+    public String formatBigDecimal() {
+        return NumberFormatter.format(asBigDecimal);
+    }
+}
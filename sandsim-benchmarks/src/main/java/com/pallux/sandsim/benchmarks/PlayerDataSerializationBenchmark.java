@@ -0,0 +1,60 @@
+package com.pallux.sandsim.benchmarks;
+
+import com.pallux.sandsim.data.PlayerData;
+import com.pallux.sandsim.data.PlayerData.UpgradeType;
+import com.pallux.sandsim.data.SkillType;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.math.BigDecimal;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+/** {@link PlayerData#serialize()} and {@link PlayerData#deserialize} for a mid-game record. */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class PlayerDataSerializationBenchmark {
+
+    private PlayerData data;
+    private Map<String, Object> serialized;
+
+    @Setup
+    public void setUp() {
+        data = new PlayerData(UUID.randomUUID());
+        data.setSand(new BigDecimal("123456789.125"));
+        data.setGems(new BigDecimal("4321"));
+        data.setSandbucks(new BigDecimal("98765.5"));
+        data.setRebirths(17);
+        data.setLevel(140);
+        data.setXp(512);
+        for (UpgradeType type : UpgradeType.values()) data.setUpgradeLevel(type, 7);
+        data.setFactoryUnlocked(true);
+        data.setSkillPointsEarned(28);
+        SkillType[] skills = SkillType.values();
+        for (int i = 0; i < skills.length; i += 2) data.purchaseSkill(skills[i], 1);
+        serialized = data.serialize();
+    }
+
+    @Benchmark
+    public Map<String, Object> serialize() {
+        return data.serialize();
+    }
+
+    @Benchmark
+    public PlayerData deserialize() {
+        return PlayerData.deserialize(serialized);
+    }
+}
@@ -26,6 +26,13 @@ public class SandSimPlugin extends JavaPlugin {
     private EventManager eventManager;
     private AugmentManager augmentManager;
     private SkillManager skillManager;
+    private MultiplierManager multiplierManager;
+    private FeedbackManager feedbackManager;
+    private EarningsManager earningsManager;
+    private PerfManager perfManager;
+    private GuiManager guiManager;
+    /** Null unless PlaceholderAPI is installed. */
+    private SandSimExpansion placeholderExpansion;
 
     @Override
     public void onEnable() {
@@ -36,6 +43,8 @@ public class SandSimPlugin extends JavaPlugin {
         this.configManager = new ConfigManager(this);
         configManager.loadConfigs();
 
+        // Timers are read by the other managers, so this comes first
+        this.perfManager        = new PerfManager(this);
         this.dataManager        = new DataManager(this);
         this.messageManager     = new MessageManager(this);
         this.shovelManager      = new ShovelManager(this);
@@ -47,6 +56,10 @@ public class SandSimPlugin extends JavaPlugin {
         this.sandBlockManager   = new SandBlockManager(this);
         this.augmentManager     = new AugmentManager(this);
         this.skillManager       = new SkillManager(this);
+        this.multiplierManager  = new MultiplierManager(this);
+        this.feedbackManager    = new FeedbackManager(this);
+        this.earningsManager    = new EarningsManager(this);
+        this.guiManager         = new GuiManager(this);
 
         // EventManager must also be after configs
         this.eventManager = new EventManager(this);
@@ -57,7 +70,8 @@ public class SandSimPlugin extends JavaPlugin {
         registerCommands();
 
         if (Bukkit.getPluginManager().getPlugin("PlaceholderAPI") != null) {
-            new SandSimExpansion(this).register();
+            placeholderExpansion = new SandSimExpansion(this);
+            placeholderExpansion.register();
             getLogger().info("PlaceholderAPI hooked successfully!");
         }
 
@@ -68,11 +82,32 @@ public class SandSimPlugin extends JavaPlugin {
 
     @Override
     public void onDisable() {
+        if (earningsManager != null) {
+            earningsManager.shutdown();
+        }
+        if (feedbackManager != null) {
+            feedbackManager.shutdown();
+        }
+        if (sandBlockManager != null) {
+            sandBlockManager.shutdown();
+        }
+        if (augmentManager != null) {
+            augmentManager.shutdown();
+        }
+        if (factoryManager != null) {
+            factoryManager.settleAll();
+        }
         if (eventManager != null) {
             eventManager.shutdown();
         }
+        if (leaderboardManager != null) {
+            leaderboardManager.shutdown();
+        }
         if (dataManager != null) {
-            dataManager.saveAllData();
+            dataManager.shutdown();
+        }
+        if (perfManager != null) {
+            perfManager.shutdown();
         }
         Bukkit.getScheduler().cancelTasks(this);
         getLogger().info(ColorUtils.colorize("&c[SandSim] Plugin disabled successfully!"));
@@ -80,6 +115,7 @@ public class SandSimPlugin extends JavaPlugin {
 
     private void registerListeners() {
         getServer().getPluginManager().registerEvents(new BlockBreakListener(this), this);
+        getServer().getPluginManager().registerEvents(new PlayerPreLoginListener(this), this);
         getServer().getPluginManager().registerEvents(new PlayerJoinListener(this), this);
         getServer().getPluginManager().registerEvents(new PlayerQuitListener(this), this);
         getServer().getPluginManager().registerEvents(new InventoryClickListener(this), this);
@@ -92,7 +128,9 @@ public class SandSimPlugin extends JavaPlugin {
         getCommand("menu").setExecutor(new MenuCommand(this));
         getCommand("rebirth").setExecutor(new RebirthCommand(this));
         getCommand("factory").setExecutor(new FactoryCommand(this));
-        getCommand("upgrades").setExecutor(new UpgradesCommand(this));
+        UpgradesCommand upgradesCommand = new UpgradesCommand(this);
+        getCommand("upgrades").setExecutor(upgradesCommand);
+        getCommand("upgrades").setTabCompleter(upgradesCommand);
         getCommand("sandbucks").setExecutor(new SandbucksCommand(this));
         getCommand("sand").setExecutor(new SandCommand(this));
         getCommand("gems").setExecutor(new GemsCommand(this));
@@ -108,43 +146,42 @@ public class SandSimPlugin extends JavaPlugin {
     }
 
     private void startAsyncTasks() {
-        // Factory production (every second)
+        // Fold mining earnings into balances (every tick, main thread)
+        earningsManager.start();
+
+        // Factory production — settles only the factories that are due (every second)
         Bukkit.getScheduler().runTaskTimerAsynchronously(this, () ->
                 factoryManager.processFactoryProduction(), 20L, 20L);
 
-        // Leaderboard update (every 5 minutes)
+        // Leaderboard — re-index changed players (every 5 seconds),
+        // persist the index snapshot (every 5 minutes)
         Bukkit.getScheduler().runTaskTimerAsynchronously(this, () ->
-                leaderboardManager.updateLeaderboards(), 100L, 6000L);
+                leaderboardManager.refresh(), 100L, 100L);
+        Bukkit.getScheduler().runTaskTimerAsynchronously(this, () ->
+                leaderboardManager.saveSnapshot(), 6000L, 6000L);
 
-        // Auto-save (every 10 minutes)
+        // Auto-save — writes only changed players, spread across auto-save-interval
         Bukkit.getScheduler().runTaskTimerAsynchronously(this, () ->
-                dataManager.saveAllData(), 12000L, 12000L);
-
-        // Augment research tick — check every 5 seconds for completed research
-        Bukkit.getScheduler().runTaskTimer(this, () -> {
-            for (org.bukkit.entity.Player p : Bukkit.getOnlinePlayers()) {
-                com.pallux.sandsim.data.PlayerData data = dataManager.getPlayerData(p);
-                int prevUnlocked    = data.getAugmentUnlockedTier();
-                int prevResearching = data.getAugmentResearchingTier();
-                augmentManager.tickResearch(data);
-                if (data.getAugmentUnlockedTier() > prevUnlocked && prevResearching > 0) {
-                    com.pallux.sandsim.data.AugmentDefinition def =
-                            augmentManager.getAugment(data.getAugmentUnlockedTier());
-                    if (def != null) {
-                        messageManager.sendMessage(p, "messages.augment-research-complete",
-                                "%augment%", def.getDisplayName());
-                        p.playSound(p.getLocation(),
-                                org.bukkit.Sound.UI_TOAST_CHALLENGE_COMPLETE, 1.0f, 1.0f);
-                    }
-                }
-            }
-        }, 100L, 100L);
+                dataManager.flushDirty(), DataManager.AUTOSAVE_PERIOD_TICKS, DataManager.AUTOSAVE_PERIOD_TICKS);
+
+        // Augment research — completes queued research the tick it is due
+        augmentManager.start();
     }
 
     public void reload() {
         configManager.loadConfigs();
+        messageManager.reload();
+        upgradeManager.loadConfig();
+        factoryManager.loadConfig();
         eventManager.loadConfig();
         augmentManager.loadConfig();
+        skillManager.loadConfig();
+        feedbackManager.loadConfig();
+        perfManager.loadConfig();
+        guiManager.reload();
+        if (placeholderExpansion != null) placeholderExpansion.loadConfig();
+        multiplierManager.invalidateAll();
+        factoryManager.rescheduleAll();
         getLogger().info("Plugin reloaded successfully!");
     }
 
@@ -163,4 +200,9 @@ public class SandSimPlugin extends JavaPlugin {
     public EventManager getEventManager()                  { return eventManager; }
     public AugmentManager getAugmentManager()              { return augmentManager; }
     public SkillManager getSkillManager()                  { return skillManager; }
+    public MultiplierManager getMultiplierManager()        { return multiplierManager; }
+    public FeedbackManager getFeedbackManager()            { return feedbackManager; }
+    public EarningsManager getEarningsManager()            { return earningsManager; }
+    public PerfManager getPerfManager()                    { return perfManager; }
+    public GuiManager getGuiManager()                      { return guiManager; }
 }
\ No newline at end of file
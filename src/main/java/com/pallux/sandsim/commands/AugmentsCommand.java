@@ -25,7 +25,7 @@ public class AugmentsCommand implements CommandExecutor {
             plugin.getMessageManager().sendMessage(player, "messages.no-permission");
             return true;
         }
-        new AugmentsGUI(plugin).open(player);
+        plugin.getGuiManager().open(player, AugmentsGUI.class, AugmentsGUI::new);
         return true;
     }
 }
\ No newline at end of file
@@ -15,7 +15,7 @@ public class FactoryCommand implements CommandExecutor {
     public boolean onCommand(CommandSender sender, Command command, String label, String[] args) {
         if (!(sender instanceof Player player)) { sender.sendMessage("Players only!"); return true; }
         if (!player.hasPermission("sandsim.player")) { plugin.getMessageManager().sendMessage(player, "messages.no-permission"); return true; }
-        new FactoryGUI(plugin).open(player);
+        plugin.getGuiManager().open(player, FactoryGUI.class, FactoryGUI::new);
         return true;
     }
 }
@@ -2,13 +2,20 @@ package com.pallux.sandsim.commands;
 
 import com.pallux.sandsim.SandSimPlugin;
 import com.pallux.sandsim.gui.LeaderboardGUI;
+import com.pallux.sandsim.manager.LeaderboardManager;
+import com.pallux.sandsim.manager.LeaderboardManager.LeaderboardEntry;
 import com.pallux.sandsim.manager.LeaderboardManager.LeaderboardType;
+import com.pallux.sandsim.utils.NumberFormatter;
 import org.bukkit.command.Command;
 import org.bukkit.command.CommandExecutor;
 import org.bukkit.command.CommandSender;
 import org.bukkit.entity.Player;
 
+import java.util.List;
+
 public class LeaderboardCommand implements CommandExecutor {
+    private static final int PAGE_SIZE = 20;
+
     private final SandSimPlugin plugin;
     public LeaderboardCommand(SandSimPlugin plugin) { this.plugin = plugin; }
 
@@ -21,7 +28,38 @@ public class LeaderboardCommand implements CommandExecutor {
             try { type = LeaderboardType.valueOf(args[0].toUpperCase()); }
             catch (IllegalArgumentException e) { plugin.getMessageManager().sendMessage(player, "messages.invalid-leaderboard-type"); return true; }
         }
-        new LeaderboardGUI(plugin, type).open(player);
+        if (args.length > 1) {
+            int page;
+            try { page = Integer.parseInt(args[1]); }
+            catch (NumberFormatException e) { plugin.getMessageManager().sendMessage(player, "messages.invalid-page"); return true; }
+            sendPage(player, type, Math.max(1, page));
+            return true;
+        }
+        plugin.getGuiManager().get(player, LeaderboardGUI.class, LeaderboardGUI::new).open(player, type);
         return true;
     }
+
+    /** Prints ranks ((page-1)*20+1)..(page*20) and the player's own rank. */
+    private void sendPage(Player player, LeaderboardType type, int page) {
+        LeaderboardManager lb = plugin.getLeaderboardManager();
+        int from = (page - 1) * PAGE_SIZE + 1;
+        List<LeaderboardEntry> entries = lb.getRange(type, from, PAGE_SIZE);
+        if (entries.isEmpty()) { plugin.getMessageManager().sendMessage(player, "messages.leaderboard-page-empty"); return; }
+
+        plugin.getMessageManager().sendMessage(player, "messages.leaderboard-page-header",
+                "%type%", type.name(), "%from%", String.valueOf(from),
+                "%to%", String.valueOf(from + entries.size() - 1), "%total%", String.valueOf(lb.getRankedCount(type)));
+        for (LeaderboardEntry entry : entries) {
+            plugin.getMessageManager().sendMessage(player, "messages.leaderboard-page-entry",
+                    "%rank%", String.valueOf(entry.getRank()), "%player%", entry.getPlayerName(),
+                    "%value%", NumberFormatter.format(entry.getValue()));
+        }
+
+        int rank = lb.getPlayerRank(player.getUniqueId(), type);
+        if (rank > 0) {
+            plugin.getMessageManager().sendMessage(player, "messages.leaderboard-your-rank",
+                    "%rank%", String.valueOf(rank),
+                    "%percentile%", String.format("%.1f%%", lb.getPercentile(player.getUniqueId(), type)));
+        }
+    }
 }
@@ -15,7 +15,7 @@ public class MenuCommand implements CommandExecutor {
     public boolean onCommand(CommandSender sender, Command command, String label, String[] args) {
         if (!(sender instanceof Player player)) { sender.sendMessage("Players only!"); return true; }
         if (!player.hasPermission("sandsim.player")) { plugin.getMessageManager().sendMessage(player, "messages.no-permission"); return true; }
-        new MenuGUI(plugin).open(player);
+        plugin.getGuiManager().open(player, MenuGUI.class, MenuGUI::new);
         return true;
     }
 }
@@ -1,9 +1,13 @@
 package com.pallux.sandsim.commands;
 
 import com.pallux.sandsim.SandSimPlugin;
+import com.pallux.sandsim.data.DataManager;
 import com.pallux.sandsim.data.PlayerData;
 import com.pallux.sandsim.data.PlayerData.UpgradeType;
+import com.pallux.sandsim.data.storage.PlayerDataStore;
+import com.pallux.sandsim.data.storage.StorageMigrator;
 import com.pallux.sandsim.gui.AdminGUI;
+import com.pallux.sandsim.manager.PerfManager;
 import com.pallux.sandsim.utils.ColorUtils;
 import org.bukkit.Bukkit;
 import org.bukkit.OfflinePlayer;
@@ -14,10 +18,13 @@ import org.bukkit.command.TabCompleter;
 import org.bukkit.entity.Player;
 import org.bukkit.potion.PotionEffectType;
 
+import java.io.File;
 import java.math.BigDecimal;
 import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.function.Consumer;
 import java.util.stream.Collectors;
 
 public class SandSimCommand implements CommandExecutor, TabCompleter {
@@ -32,7 +39,7 @@ public class SandSimCommand implements CommandExecutor, TabCompleter {
     public boolean onCommand(CommandSender sender, Command command, String label, String[] args) {
         if (args.length == 0) {
             if (sender instanceof Player player && player.hasPermission("sandsim.admin")) {
-                new AdminGUI(plugin).open(player);
+                plugin.getGuiManager().open(player, AdminGUI.class, AdminGUI::new);
                 return true;
             }
             sendHelpMessage(sender);
@@ -50,6 +57,8 @@ public class SandSimCommand implements CommandExecutor, TabCompleter {
             case "help"                -> { return handleHelp(sender); }
             case "admin"               -> { return handleAdmin(sender); }
             case "upgrades"            -> { return handleUpgrades(sender, args); }
+            case "migrate"             -> { return handleMigrate(sender, args); }
+            case "perf"                -> { return handlePerf(sender, args); }
             default -> { plugin.getMessageManager().sendMessage(sender, "messages.unknown-subcommand"); return true; }
         }
     }
@@ -73,16 +82,18 @@ public class SandSimCommand implements CommandExecutor, TabCompleter {
         try { amount = new BigDecimal(args[3]); }
         catch (NumberFormatException e) { plugin.getMessageManager().sendMessage(sender, "messages.invalid-amount"); return true; }
 
-        PlayerData data = plugin.getDataManager().getPlayerData(target.getUniqueId());
-        switch (currencyType) {
-            case "sand"      -> data.addSand(amount);
-            case "gems"      -> data.addGems(amount);
-            case "sandbucks" -> data.addSandbucks(amount);
-            case "rebirths"  -> data.addRebirths(amount.longValue());
-            default -> { plugin.getMessageManager().sendMessage(sender, "messages.invalid-currency"); return true; }
-        }
-        plugin.getDataManager().savePlayerData(target.getUniqueId());
-        plugin.getMessageManager().sendMessage(sender, "messages.gave-currency", "%amount%", amount.toPlainString(), "%currency%", currencyType, "%player%", target.getName());
+        if (!isCurrency(currencyType)) { plugin.getMessageManager().sendMessage(sender, "messages.invalid-currency"); return true; }
+
+        withPlayerData(sender, target, data -> {
+            switch (currencyType) {
+                case "sand"      -> data.addSand(amount);
+                case "gems"      -> data.addGems(amount);
+                case "sandbucks" -> data.addSandbucks(amount);
+                case "rebirths"  -> data.addRebirths(amount.longValue());
+            }
+            plugin.getDataManager().savePlayerData(target.getUniqueId());
+            plugin.getMessageManager().sendMessage(sender, "messages.gave-currency", "%amount%", amount.toPlainString(), "%currency%", currencyType, "%player%", target.getName());
+        });
         return true;
     }
 
@@ -98,16 +109,18 @@ public class SandSimCommand implements CommandExecutor, TabCompleter {
         try { amount = new BigDecimal(args[3]); }
         catch (NumberFormatException e) { plugin.getMessageManager().sendMessage(sender, "messages.invalid-amount"); return true; }
 
-        PlayerData data = plugin.getDataManager().getPlayerData(target.getUniqueId());
-        switch (currencyType) {
-            case "sand"      -> data.removeSand(amount);
-            case "gems"      -> data.removeGems(amount);
-            case "sandbucks" -> data.removeSandbucks(amount);
-            case "rebirths"  -> data.setRebirths(Math.max(0L, data.getRebirths() - amount.longValue()));
-            default -> { plugin.getMessageManager().sendMessage(sender, "messages.invalid-currency"); return true; }
-        }
-        plugin.getDataManager().savePlayerData(target.getUniqueId());
-        plugin.getMessageManager().sendMessage(sender, "messages.took-currency", "%amount%", amount.toPlainString(), "%currency%", currencyType, "%player%", target.getName());
+        if (!isCurrency(currencyType)) { plugin.getMessageManager().sendMessage(sender, "messages.invalid-currency"); return true; }
+
+        withPlayerData(sender, target, data -> {
+            switch (currencyType) {
+                case "sand"      -> data.removeSand(amount);
+                case "gems"      -> data.removeGems(amount);
+                case "sandbucks" -> data.removeSandbucks(amount);
+                case "rebirths"  -> data.setRebirths(Math.max(0L, data.getRebirths() - amount.longValue()));
+            }
+            plugin.getDataManager().savePlayerData(target.getUniqueId());
+            plugin.getMessageManager().sendMessage(sender, "messages.took-currency", "%amount%", amount.toPlainString(), "%currency%", currencyType, "%player%", target.getName());
+        });
         return true;
     }
 
@@ -123,16 +136,18 @@ public class SandSimCommand implements CommandExecutor, TabCompleter {
         try { amount = new BigDecimal(args[3]); }
         catch (NumberFormatException e) { plugin.getMessageManager().sendMessage(sender, "messages.invalid-amount"); return true; }
 
-        PlayerData data = plugin.getDataManager().getPlayerData(target.getUniqueId());
-        switch (currencyType) {
-            case "sand"      -> data.setSand(amount);
-            case "gems"      -> data.setGems(amount);
-            case "sandbucks" -> data.setSandbucks(amount);
-            case "rebirths"  -> data.setRebirths(amount.longValue());
-            default -> { plugin.getMessageManager().sendMessage(sender, "messages.invalid-currency"); return true; }
-        }
-        plugin.getDataManager().savePlayerData(target.getUniqueId());
-        plugin.getMessageManager().sendMessage(sender, "messages.set-currency", "%currency%", currencyType, "%amount%", amount.toPlainString(), "%player%", target.getName());
+        if (!isCurrency(currencyType)) { plugin.getMessageManager().sendMessage(sender, "messages.invalid-currency"); return true; }
+
+        withPlayerData(sender, target, data -> {
+            switch (currencyType) {
+                case "sand"      -> data.setSand(amount);
+                case "gems"      -> data.setGems(amount);
+                case "sandbucks" -> data.setSandbucks(amount);
+                case "rebirths"  -> data.setRebirths(amount.longValue());
+            }
+            plugin.getDataManager().savePlayerData(target.getUniqueId());
+            plugin.getMessageManager().sendMessage(sender, "messages.set-currency", "%currency%", currencyType, "%amount%", amount.toPlainString(), "%player%", target.getName());
+        });
         return true;
     }
 
@@ -144,16 +159,18 @@ public class SandSimCommand implements CommandExecutor, TabCompleter {
         OfflinePlayer target = Bukkit.getOfflinePlayer(args[2]);
         if (!target.hasPlayedBefore() && !target.isOnline()) { plugin.getMessageManager().sendMessage(sender, "messages.player-never-played"); return true; }
 
-        PlayerData data = plugin.getDataManager().getPlayerData(target.getUniqueId());
-        switch (currencyType) {
-            case "sand"      -> data.setSand(BigDecimal.ZERO);
-            case "gems"      -> data.setGems(BigDecimal.ZERO);
-            case "sandbucks" -> data.setSandbucks(BigDecimal.ZERO);
-            case "rebirths"  -> data.setRebirths(0L);
-            default -> { plugin.getMessageManager().sendMessage(sender, "messages.invalid-currency"); return true; }
-        }
-        plugin.getDataManager().savePlayerData(target.getUniqueId());
-        plugin.getMessageManager().sendMessage(sender, "messages.reset-currency", "%currency%", currencyType, "%player%", target.getName());
+        if (!isCurrency(currencyType)) { plugin.getMessageManager().sendMessage(sender, "messages.invalid-currency"); return true; }
+
+        withPlayerData(sender, target, data -> {
+            switch (currencyType) {
+                case "sand"      -> data.setSand(BigDecimal.ZERO);
+                case "gems"      -> data.setGems(BigDecimal.ZERO);
+                case "sandbucks" -> data.setSandbucks(BigDecimal.ZERO);
+                case "rebirths"  -> data.setRebirths(0L);
+            }
+            plugin.getDataManager().savePlayerData(target.getUniqueId());
+            plugin.getMessageManager().sendMessage(sender, "messages.reset-currency", "%currency%", currencyType, "%player%", target.getName());
+        });
         return true;
     }
 
@@ -162,13 +179,14 @@ public class SandSimCommand implements CommandExecutor, TabCompleter {
         if (args.length < 2) { plugin.getMessageManager().sendMessage(sender, "messages.usage-reset-all"); return true; }
         OfflinePlayer target = Bukkit.getOfflinePlayer(args[1]);
         if (!target.hasPlayedBefore() && !target.isOnline()) { plugin.getMessageManager().sendMessage(sender, "messages.player-never-played"); return true; }
-        PlayerData data = plugin.getDataManager().getPlayerData(target.getUniqueId());
-        data.setSand(BigDecimal.ZERO);
-        data.setGems(BigDecimal.ZERO);
-        data.setSandbucks(BigDecimal.ZERO);
-        data.setRebirths(0L);
-        plugin.getDataManager().savePlayerData(target.getUniqueId());
-        plugin.getMessageManager().sendMessage(sender, "messages.reset-all-currencies", "%player%", target.getName());
+        withPlayerData(sender, target, data -> {
+            data.setSand(BigDecimal.ZERO);
+            data.setGems(BigDecimal.ZERO);
+            data.setSandbucks(BigDecimal.ZERO);
+            data.setRebirths(0L);
+            plugin.getDataManager().savePlayerData(target.getUniqueId());
+            plugin.getMessageManager().sendMessage(sender, "messages.reset-all-currencies", "%player%", target.getName());
+        });
         return true;
     }
 
@@ -177,20 +195,21 @@ public class SandSimCommand implements CommandExecutor, TabCompleter {
         if (args.length < 2) { plugin.getMessageManager().sendMessage(sender, "messages.usage-restart"); return true; }
         OfflinePlayer target = Bukkit.getOfflinePlayer(args[1]);
         if (!target.hasPlayedBefore() && !target.isOnline()) { plugin.getMessageManager().sendMessage(sender, "messages.player-never-played"); return true; }
-        PlayerData data = plugin.getDataManager().getPlayerData(target.getUniqueId());
-        data.resetAll();
-        // If the target is online, remove the Speed effect
-        Player onlineTarget = target.getPlayer();
-        if (onlineTarget != null) {
-            onlineTarget.removePotionEffect(PotionEffectType.SPEED);
-        }
-        plugin.getDataManager().savePlayerData(target.getUniqueId());
-        plugin.getMessageManager().sendMessage(sender, "messages.restart-player", "%player%", target.getName());
+        withPlayerData(sender, target, data -> {
+            data.resetAll();
+            // If the target is online, remove the Speed effect
+            Player onlineTarget = target.getPlayer();
+            if (onlineTarget != null) {
+                onlineTarget.removePotionEffect(PotionEffectType.SPEED);
+            }
+            plugin.getDataManager().savePlayerData(target.getUniqueId());
+            plugin.getMessageManager().sendMessage(sender, "messages.restart-player", "%player%", target.getName());
+        });
         return true;
     }
 
     private boolean handleHelp(CommandSender sender) {
-        if (sender instanceof Player player && player.hasPermission("sandsim.admin")) new AdminGUI(plugin).open(player);
+        if (sender instanceof Player player && player.hasPermission("sandsim.admin")) plugin.getGuiManager().open(player, AdminGUI.class, AdminGUI::new);
         else sendHelpMessage(sender);
         return true;
     }
@@ -198,7 +217,7 @@ public class SandSimCommand implements CommandExecutor, TabCompleter {
     private boolean handleAdmin(CommandSender sender) {
         if (!(sender instanceof Player player)) { sender.sendMessage("Players only!"); return true; }
         if (!player.hasPermission("sandsim.admin")) { plugin.getMessageManager().sendMessage(player, "messages.no-permission"); return true; }
-        new AdminGUI(plugin).open(player);
+        plugin.getGuiManager().open(player, AdminGUI.class, AdminGUI::new);
         return true;
     }
 
@@ -218,27 +237,133 @@ public class SandSimCommand implements CommandExecutor, TabCompleter {
         try { upgradeType = UpgradeType.valueOf(upgradeTypeName); }
         catch (IllegalArgumentException e) { plugin.getMessageManager().sendMessage(sender, "messages.invalid-upgrade"); return true; }
 
-        PlayerData data = plugin.getDataManager().getPlayerData(target.getUniqueId());
-        data.setUpgradeLevel(upgradeType, amount);
+        withPlayerData(sender, target, data -> {
+            data.setUpgradeLevel(upgradeType, amount);
+
+            // If admin sets speed upgrade, sync effect for online players
+            if (upgradeType == UpgradeType.SPEED) {
+                Player onlineTarget = target.getPlayer();
+                if (onlineTarget != null) {
+                    if (amount >= 1) {
+                        onlineTarget.addPotionEffect(new org.bukkit.potion.PotionEffect(
+                                PotionEffectType.SPEED, Integer.MAX_VALUE, 0, false, false, false));
+                    } else {
+                        onlineTarget.removePotionEffect(PotionEffectType.SPEED);
+                    }
+                }
+            }
 
-        // If admin sets speed upgrade, sync effect for online players
-        if (upgradeType == UpgradeType.SPEED) {
-            Player onlineTarget = target.getPlayer();
-            if (onlineTarget != null) {
-                if (amount >= 1) {
-                    onlineTarget.addPotionEffect(new org.bukkit.potion.PotionEffect(
-                            PotionEffectType.SPEED, Integer.MAX_VALUE, 0, false, false, false));
-                } else {
-                    onlineTarget.removePotionEffect(PotionEffectType.SPEED);
+            plugin.getDataManager().savePlayerData(target.getUniqueId());
+            plugin.getMessageManager().sendMessage(sender, "messages.set-upgrade", "%upgrade%", upgradeType.name(), "%level%", String.valueOf(amount), "%player%", target.getName());
+        });
+        return true;
+    }
+
+    private boolean handleMigrate(CommandSender sender, String[] args) {
+        if (!sender.hasPermission("sandsim.admin")) { plugin.getMessageManager().sendMessage(sender, "messages.no-permission"); return true; }
+        if (args.length < 3) { plugin.getMessageManager().sendMessage(sender, "messages.usage-migrate"); return true; }
+
+        String from = args[1].toLowerCase();
+        String to   = args[2].toLowerCase();
+        if (!isStorageType(from) || !isStorageType(to) || from.equals(to)) {
+            plugin.getMessageManager().sendMessage(sender, "messages.invalid-storage-type");
+            return true;
+        }
+
+        DataManager dataManager = plugin.getDataManager();
+        plugin.getMessageManager().sendMessage(sender, "messages.migrate-started", "%from%", from, "%to%", to);
+        Bukkit.getScheduler().runTaskAsynchronously(plugin, () -> {
+            // Flush live records first so the source holds the latest state
+            dataManager.saveAllData();
+            PlayerDataStore active = dataManager.getStore();
+            PlayerDataStore source = null;
+            PlayerDataStore target = null;
+            try {
+                source = from.equals(active.getName()) ? active : dataManager.createStore(from);
+                target = to.equals(active.getName())   ? active : dataManager.createStore(to);
+                StorageMigrator.Result result = StorageMigrator.migrate(source, target, plugin.getLogger());
+                String count  = String.valueOf(result.copied);
+                String failed = String.valueOf(result.failed);
+                Bukkit.getScheduler().runTask(plugin, () -> {
+                    if (result.failed > 0) {
+                        plugin.getMessageManager().sendMessage(sender, "messages.migrate-partial",
+                                "%count%", count, "%failed%", failed, "%from%", from, "%to%", to);
+                    } else {
+                        plugin.getMessageManager().sendMessage(sender, "messages.migrate-complete",
+                                "%count%", count, "%from%", from, "%to%", to);
+                    }
+                });
+            } catch (RuntimeException e) {
+                plugin.getLogger().severe("Storage migration from " + from + " to " + to + " failed: " + e.getMessage());
+                Bukkit.getScheduler().runTask(plugin, () -> plugin.getMessageManager().sendMessage(sender, "messages.migrate-failed"));
+            } finally {
+                if (source != null && source != active) source.close();
+                if (target != null && target != active) target.close();
+            }
+        });
+        return true;
+    }
+
+    private boolean handlePerf(CommandSender sender, String[] args) {
+        if (!sender.hasPermission("sandsim.admin")) { plugin.getMessageManager().sendMessage(sender, "messages.no-permission"); return true; }
+        PerfManager perf = plugin.getPerfManager();
+
+        if (args.length >= 2) {
+            switch (args[1].toLowerCase()) {
+                case "reset" -> {
+                    perf.reset();
+                    plugin.getMessageManager().sendMessage(sender, "messages.perf-reset");
                 }
+                case "dump" -> Bukkit.getScheduler().runTaskAsynchronously(plugin, () -> {
+                    File file = perf.dump();
+                    Bukkit.getScheduler().runTask(plugin, () ->
+                            plugin.getMessageManager().sendMessage(sender, "messages.perf-dumped", "%file%", file.getPath()));
+                });
+                default -> plugin.getMessageManager().sendMessage(sender, "messages.usage-perf");
             }
+            return true;
         }
 
-        plugin.getDataManager().savePlayerData(target.getUniqueId());
-        plugin.getMessageManager().sendMessage(sender, "messages.set-upgrade", "%upgrade%", upgradeType.name(), "%level%", String.valueOf(amount), "%player%", target.getName());
+        if (!perf.isEnabled()) { plugin.getMessageManager().sendMessage(sender, "messages.perf-disabled"); return true; }
+        plugin.getMessageManager().sendMessage(sender, "messages.perf-header", "%seconds%", String.valueOf((long) perf.getWindowSeconds()));
+        List<String> lines = perf.report();
+        if (lines.isEmpty()) { plugin.getMessageManager().sendMessage(sender, "messages.perf-empty"); return true; }
+        for (String line : lines) sender.sendMessage(ColorUtils.colorize(line));
         return true;
     }
 
+    private boolean isStorageType(String type) {
+        return type.equals("yaml") || type.equals("sqlite");
+    }
+
+    private boolean isCurrency(String type) {
+        return switch (type) {
+            case "sand", "gems", "sandbucks", "rebirths" -> true;
+            default -> false;
+        };
+    }
+
+    /**
+     * Resolves the target's data without reading storage on the main thread and
+     * runs {@code action} on the main thread once it is available. Cached
+     * (e.g. online) players are handled immediately.
+     */
+    private void withPlayerData(CommandSender sender, OfflinePlayer target, Consumer<PlayerData> action) {
+        CompletableFuture<PlayerData> future = plugin.getDataManager().getPlayerDataAsync(target.getUniqueId());
+        if (future.isDone() && !future.isCompletedExceptionally() && Bukkit.isPrimaryThread()) {
+            action.accept(future.join());
+            return;
+        }
+        future.whenComplete((data, error) -> Bukkit.getScheduler().runTask(plugin, () -> {
+            if (error == null) {
+                action.accept(data);
+                return;
+            }
+            plugin.getLogger().severe("Could not load player data for " + target.getUniqueId() + ": " + error.getMessage());
+            plugin.getMessageManager().sendMessage(sender, "messages.player-data-load-failed", "%player%", String.valueOf(target.getName()));
+        }));
+    }
+
     private void sendHelpMessage(CommandSender sender) {
         sender.sendMessage(ColorUtils.colorize(plugin.getMessageManager().getMessage("messages.admin-help-header")));
         String p = plugin.getMessageManager().getPrefix();
@@ -250,6 +375,8 @@ public class SandSimCommand implements CommandExecutor, TabCompleter {
         sender.sendMessage(ColorUtils.colorize(p + "&e/sandsim resetallcurrencies <player> &7- Reset all currencies"));
         sender.sendMessage(ColorUtils.colorize(p + "&e/sandsim restart <player> &7- Complete player reset"));
         sender.sendMessage(ColorUtils.colorize(p + "&e/sandsim upgrades set <upgrade> <player> <level> &7- Set upgrade level"));
+        sender.sendMessage(ColorUtils.colorize(p + "&e/sandsim migrate <yaml|sqlite> <yaml|sqlite> &7- Copy player data between storage backends"));
+        sender.sendMessage(ColorUtils.colorize(p + "&e/sandsim perf [reset|dump] &7- Show timings, reset them or write perf.prom"));
         sender.sendMessage(ColorUtils.colorize(p + "&e/sandsim admin &7- Open admin GUI"));
     }
 
@@ -259,16 +386,20 @@ public class SandSimCommand implements CommandExecutor, TabCompleter {
         if (!sender.hasPermission("sandsim.admin")) return completions;
 
         if (args.length == 1) {
-            completions.addAll(Arrays.asList("reload","give","take","set","reset","resetallcurrencies","restart","help","admin","upgrades"));
+            completions.addAll(Arrays.asList("reload","give","take","set","reset","resetallcurrencies","restart","help","admin","upgrades","migrate","perf"));
         } else if (args.length == 2) {
             if (args[0].equalsIgnoreCase("give")||args[0].equalsIgnoreCase("take")||args[0].equalsIgnoreCase("set")||args[0].equalsIgnoreCase("reset"))
                 completions.addAll(Arrays.asList("sand","gems","sandbucks","rebirths"));
             else if (args[0].equalsIgnoreCase("upgrades")) completions.add("set");
+            else if (args[0].equalsIgnoreCase("migrate")) completions.addAll(Arrays.asList("yaml","sqlite"));
+            else if (args[0].equalsIgnoreCase("perf")) completions.addAll(Arrays.asList("reset","dump"));
             else if (args[0].equalsIgnoreCase("resetallcurrencies")||args[0].equalsIgnoreCase("restart"))
                 return Bukkit.getOnlinePlayers().stream().map(Player::getName).filter(s->s.toLowerCase().startsWith(args[1].toLowerCase())).collect(Collectors.toList());
         } else if (args.length == 3) {
             if (args[0].equalsIgnoreCase("upgrades")&&args[1].equalsIgnoreCase("set")) {
                 for (UpgradeType t : UpgradeType.values()) completions.add(t.name().toLowerCase().replace("_","-"));
+            } else if (args[0].equalsIgnoreCase("migrate")) {
+                completions.addAll(Arrays.asList("yaml","sqlite"));
             } else {
                 return Bukkit.getOnlinePlayers().stream().map(Player::getName).filter(s->s.toLowerCase().startsWith(args[2].toLowerCase())).collect(Collectors.toList());
             }
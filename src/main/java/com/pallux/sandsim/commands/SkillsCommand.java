@@ -25,7 +25,7 @@ public class SkillsCommand implements CommandExecutor {
             plugin.getMessageManager().sendMessage(player, "messages.no-permission");
             return true;
         }
-        new SkillTreeGUI(plugin).open(player);
+        plugin.getGuiManager().open(player, SkillTreeGUI.class, SkillTreeGUI::new);
         return true;
     }
 }
\ No newline at end of file
@@ -1,13 +1,24 @@
 package com.pallux.sandsim.commands;
 
 import com.pallux.sandsim.SandSimPlugin;
+import com.pallux.sandsim.data.PlayerData;
+import com.pallux.sandsim.data.PlayerData.UpgradeType;
 import com.pallux.sandsim.gui.UpgradesGUI;
+import com.pallux.sandsim.manager.UpgradeManager.Currency;
+import org.bukkit.Sound;
 import org.bukkit.command.Command;
 import org.bukkit.command.CommandExecutor;
 import org.bukkit.command.CommandSender;
+import org.bukkit.command.TabCompleter;
 import org.bukkit.entity.Player;
+import org.bukkit.potion.PotionEffect;
+import org.bukkit.potion.PotionEffectType;
 
-public class UpgradesCommand implements CommandExecutor {
+import java.util.ArrayList;
+import java.util.List;
+import java.util.stream.Collectors;
+
+public class UpgradesCommand implements CommandExecutor, TabCompleter {
     private final SandSimPlugin plugin;
     public UpgradesCommand(SandSimPlugin plugin) { this.plugin = plugin; }
 
@@ -15,7 +26,65 @@ public class UpgradesCommand implements CommandExecutor {
     public boolean onCommand(CommandSender sender, Command command, String label, String[] args) {
         if (!(sender instanceof Player player)) { sender.sendMessage("Players only!"); return true; }
         if (!player.hasPermission("sandsim.player")) { plugin.getMessageManager().sendMessage(player, "messages.no-permission"); return true; }
-        new UpgradesGUI(plugin).open(player);
+        if (args.length == 0) {
+            plugin.getGuiManager().open(player, UpgradesGUI.class, UpgradesGUI::new);
+            return true;
+        }
+        if (args.length < 2 || !args[0].equalsIgnoreCase("max")) { plugin.getMessageManager().sendMessage(player, "messages.usage-upgrades-max"); return true; }
+
+        UpgradeType type;
+        try { type = UpgradeType.valueOf(args[1].toUpperCase().replace("-", "_")); }
+        catch (IllegalArgumentException e) { plugin.getMessageManager().sendMessage(player, "messages.invalid-upgrade"); return true; }
+
+        handleMax(player, type);
         return true;
     }
+
+    /** Buys every level of {@code type} the player can afford. */
+    private void handleMax(Player player, UpgradeType type) {
+        PlayerData data = plugin.getDataManager().getPlayerData(player);
+        if (data.getUpgradeLevel(type) >= plugin.getUpgradeManager().getMaxLevel(type)) {
+            plugin.getMessageManager().sendMessage(player, "messages.upgrade-maxed");
+            return;
+        }
+
+        boolean factory = type == UpgradeType.FACTORY_PRODUCTION_SPEED || type == UpgradeType.FACTORY_PRODUCTION_AMOUNT;
+        int levels = factory
+                ? plugin.getFactoryManager().purchaseFactoryUpgrades(data, type, Integer.MAX_VALUE)
+                : plugin.getUpgradeManager().purchaseUpgrades(data, type, Integer.MAX_VALUE);
+        if (levels == 0) {
+            player.playSound(player.getLocation(), Sound.ENTITY_VILLAGER_NO, 1.0f, 1.0f);
+            if (factory && !data.isFactoryUnlocked()) {
+                plugin.getMessageManager().sendMessage(player, "messages.factory-locked");
+            } else if (plugin.getUpgradeManager().getUpgradeCurrency(type) == Currency.SANDBUCKS) {
+                plugin.getMessageManager().sendMessage(player, "messages.cannot-afford-upgrade-sandbucks");
+            } else {
+                plugin.getMessageManager().sendMessage(player, "messages.cannot-afford-upgrade");
+            }
+            return;
+        }
+
+        player.playSound(player.getLocation(), Sound.ENTITY_PLAYER_LEVELUP, 1.0f, 1.0f);
+        if (levels == 1) plugin.getMessageManager().sendMessage(player, "messages.upgrade-purchased");
+        else plugin.getMessageManager().sendMessage(player, "messages.upgrades-purchased", "%levels%", String.valueOf(levels));
+        if (type == UpgradeType.EFFICIENCY) plugin.getShovelManager().refreshShovel(player);
+        if (type == UpgradeType.SPEED) {
+            player.addPotionEffect(new PotionEffect(PotionEffectType.SPEED, Integer.MAX_VALUE,
+                    data.getUpgradeLevel(UpgradeType.SPEED) - 1, false, false, false));
+        }
+    }
+
+    @Override
+    public List<String> onTabComplete(CommandSender sender, Command command, String alias, String[] args) {
+        List<String> completions = new ArrayList<>();
+        if (!sender.hasPermission("sandsim.player")) return completions;
+
+        if (args.length == 1) {
+            completions.add("max");
+        } else if (args.length == 2 && args[0].equalsIgnoreCase("max")) {
+            for (UpgradeType t : UpgradeType.values()) completions.add(t.name().toLowerCase().replace("_", "-"));
+        }
+
+        return completions.stream().filter(s -> s.toLowerCase().startsWith(args[args.length - 1].toLowerCase())).collect(Collectors.toList());
+    }
 }
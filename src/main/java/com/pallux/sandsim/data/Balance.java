@@ -0,0 +1,138 @@
+package com.pallux.sandsim.data;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+
+/**
+ * Mutable currency amount stored as a fixed-point {@code long} with
+ * {@link #SCALE} decimal places, so adding per-block rewards allocates nothing.
+ * If a value no longer fits in a {@code long}, the balance switches to a
+ * {@link BigDecimal} for good; large balances stay exact, just slower.
+ *
+ * <p>Values never go below zero. While in fixed-point mode, amounts are
+ * rounded to {@link #SCALE} decimals as they are added or set.
+ * {@link #toString()} gives the plain decimal string used in player files,
+ * and {@link #set(BigDecimal)} reads it back unchanged.
+ *
+ * Not thread-safe; guarded by the owning {@link PlayerData}.
+ */
+public final class Balance {
+
+    /** Decimal places kept in fixed-point mode. */
+    public static final int SCALE = 6;
+
+    private static final double ONE      = 1_000_000d;           // 10^SCALE
+    /** Largest double amount that still converts to units without overflow. */
+    private static final double MAX_FAST = Long.MAX_VALUE / ONE;
+
+    /** Value × 10^SCALE while {@link #big} is null. */
+    private long units;
+    /** Exact value once the balance outgrew {@link #units}; null until then. */
+    private BigDecimal big;
+    /** Cached {@link #toBigDecimal()} result; cleared by every mutation. */
+    private BigDecimal cached = BigDecimal.ZERO;
+
+    public Balance() {}
+
+    public Balance(BigDecimal value) {
+        set(value);
+    }
+
+    // ── Mutation ─────────────────────────────────────────────────────────────
+
+    public void add(double amount) {
+        if (big == null && Math.abs(amount) < MAX_FAST) {
+            long delta = Math.round(amount * ONE);
+            long sum = units + delta;
+            // Overflow iff both operands share a sign that the result lacks
+            if (((units ^ sum) & (delta ^ sum)) >= 0) {
+                units = Math.max(0L, sum);
+                cached = null;
+                return;
+            }
+        }
+        if (Double.isNaN(amount) || Double.isInfinite(amount)) return;
+        add(BigDecimal.valueOf(amount));
+    }
+
+    public void add(BigDecimal amount) {
+        if (big == null) {
+            BigDecimal scaled = amount.setScale(SCALE, RoundingMode.HALF_UP);
+            if (fitsFast(scaled)) {
+                long delta = scaled.unscaledValue().longValue();
+                long sum = units + delta;
+                if (((units ^ sum) & (delta ^ sum)) >= 0) {
+                    units = Math.max(0L, sum);
+                    cached = null;
+                    return;
+                }
+            }
+            big = BigDecimal.valueOf(units, SCALE);
+        }
+        big = big.add(amount);
+        if (big.signum() < 0) big = BigDecimal.ZERO;
+        cached = null;
+    }
+
+    /** Subtracts {@code amount}, clamping at zero. */
+    public void subtract(BigDecimal amount) {
+        add(amount.negate());
+    }
+
+    public void set(BigDecimal value) {
+        BigDecimal scaled = value.setScale(SCALE, RoundingMode.HALF_UP);
+        if (value.signum() < 0) {
+            units = 0L;
+            big = null;
+        } else if (fitsFast(scaled)) {
+            units = scaled.unscaledValue().longValue();
+            big = null;
+        } else {
+            big = value;
+        }
+        cached = null;
+    }
+
+    // ── Queries ──────────────────────────────────────────────────────────────
+
+    public BigDecimal toBigDecimal() {
+        BigDecimal value = cached;
+        if (value == null) {
+            value = big != null ? big : trim(BigDecimal.valueOf(units, SCALE));
+            cached = value;
+        }
+        return value;
+    }
+
+    /** Approximate value, for display and ranking; no allocation in fixed-point mode. */
+    public double toDouble() {
+        return big != null ? big.doubleValue() : units / ONE;
+    }
+
+    public int compareTo(BigDecimal other) {
+        return toBigDecimal().compareTo(other);
+    }
+
+    public int signum() {
+        return big != null ? big.signum() : Long.signum(units);
+    }
+
+    /** Plain decimal string, e.g. {@code "1234.5"}; readable by {@code new BigDecimal(String)}. */
+    @Override
+    public String toString() {
+        return trim(toBigDecimal()).toPlainString();
+    }
+
+    // ── Helpers ──────────────────────────────────────────────────────────────
+
+    private static boolean fitsFast(BigDecimal scaled) {
+        return scaled.unscaledValue().bitLength() < 63;
+    }
+
+    /** Drops trailing zeros but never switches to exponent notation. */
+    private static BigDecimal trim(BigDecimal value) {
+        if (value.signum() == 0) return BigDecimal.ZERO;
+        BigDecimal stripped = value.stripTrailingZeros();
+        return stripped.scale() < 0 ? stripped.setScale(0) : stripped;
+    }
+}
@@ -1,58 +1,211 @@
 package com.pallux.sandsim.data;
 
 import com.pallux.sandsim.SandSimPlugin;
+import com.pallux.sandsim.data.storage.PlayerDataStore;
+import com.pallux.sandsim.data.storage.SqlPlayerDataStore;
+import com.pallux.sandsim.data.storage.StorageException;
+import com.pallux.sandsim.data.storage.YamlPlayerDataStore;
+import com.pallux.sandsim.manager.PerfManager;
+import com.pallux.sandsim.utils.ColorUtils;
 import org.bukkit.Bukkit;
 import org.bukkit.configuration.file.FileConfiguration;
-import org.bukkit.configuration.file.YamlConfiguration;
 import org.bukkit.entity.Player;
 
-import java.io.File;
-import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Iterator;
+import java.util.LinkedHashSet;
+import java.util.List;
 import java.util.Map;
+import java.util.Set;
 import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
 import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executor;
 
+/**
+ * Owns the in-memory {@link PlayerData} cache and hands persistence to the
+ * configured {@link PlayerDataStore} ({@code storage.type} in config.yml).
+ *
+ * Loading pipeline:
+ *  - {@code AsyncPlayerPreLoginEvent} prefetches the record off the main thread
+ *    into {@link #stagedData}.
+ *  - The first main-thread lookup after join promotes the staged record into
+ *    the live cache, so {@link #getPlayerData(UUID)} is a pure map read.
+ *  - Offline players are loaded through {@link #getPlayerDataAsync(UUID)},
+ *    which never reads storage on the caller's thread.
+ */
 public class DataManager {
 
+    /** Ticks between autosave steps; see {@link #flushDirty()}. */
+    public static final long AUTOSAVE_PERIOD_TICKS = 100L;
+
     private final SandSimPlugin plugin;
     private final Map<UUID, PlayerData> playerDataMap;
-    private final File dataFolder;
+    /** Records prefetched during pre-login, waiting for the join to claim them. */
+    private final Map<UUID, PlayerData> stagedData;
+    /** In-flight disk loads, so concurrent requests for one player share a single parse. */
+    private final Map<UUID, CompletableFuture<PlayerData>> pendingLoads;
+    /**
+     * Records of players who quit, until their async quit save has landed. A
+     * rejoin in the meantime reuses the record instead of reading a stale file.
+     */
+    private final Map<UUID, PlayerData> savingData = new ConcurrentHashMap<>();
+    /** Last {@link #getPlayerDataAsync} access per record, for evicting offline players. */
+    private final Map<UUID, Long> offlineAccess = new ConcurrentHashMap<>();
+    /** Dirty players whose autosave slice came up but did not fit in a batch. */
+    private final Set<UUID> flushBacklog = new LinkedHashSet<>();
+    private int flushCursor = 0;
+    /** Runs disk loads and quit saves on Bukkit's async worker pool. */
+    private final Executor asyncExecutor;
+    private final PlayerDataStore store;
 
     public DataManager(SandSimPlugin plugin) {
         this.plugin = plugin;
         this.playerDataMap = new ConcurrentHashMap<>();
-        this.dataFolder = new File(plugin.getDataFolder(), "playerdata");
-        if (!dataFolder.exists()) dataFolder.mkdirs();
+        this.stagedData    = new ConcurrentHashMap<>();
+        this.pendingLoads  = new ConcurrentHashMap<>();
+        this.asyncExecutor = task -> Bukkit.getScheduler().runTaskAsynchronously(plugin, task);
+        this.store = createStore(plugin.getConfigManager().getMainConfig().getString("storage.type", "yaml"));
+        plugin.getLogger().info("Using " + store.getName() + " player data storage.");
     }
 
+    // ── Lookups ───────────────────────────────────────────────────────────────
+
+    /**
+     * Returns the live record for a player. For online players this is a map
+     * read (the record was prefetched at pre-login). Only players that were not
+     * prefetched — e.g. already online during a plugin reload — fall back to a
+     * synchronous load, which throws a {@link StorageException} if the stored
+     * record cannot be read.
+     */
     public PlayerData getPlayerData(UUID uuid) {
-        return playerDataMap.computeIfAbsent(uuid, k -> {
-            PlayerData data = loadPlayerData(uuid);
-            return data != null ? data : new PlayerData(uuid);
-        });
+        PlayerData data = playerDataMap.get(uuid);
+        if (data != null) return data;
+
+        PlayerData staged = stagedData.remove(uuid);
+        if (staged != null) return adopt(staged);
+
+        CompletableFuture<PlayerData> pending = pendingLoads.get(uuid);
+        if (pending != null) return adopt(pending.join());
+
+        return playerDataMap.computeIfAbsent(uuid, this::loadOrCreate);
     }
 
     public PlayerData getPlayerData(Player player) {
         return getPlayerData(player.getUniqueId());
     }
 
-    public void savePlayerData(UUID uuid) {
+    /** Returns the cached record, or {@code null} without touching the disk. */
+    public PlayerData getPlayerDataIfLoaded(UUID uuid) {
         PlayerData data = playerDataMap.get(uuid);
-        if (data == null) return;
+        return data != null ? data : stagedData.get(uuid);
+    }
+
+    /**
+     * Non-blocking lookup for players that may be offline. Completes
+     * immediately when the record is cached; otherwise the record is read from
+     * storage on an async worker and the result is added to the cache. Records
+     * of players who stay offline are evicted again once saved and idle.
+     */
+    public CompletableFuture<PlayerData> getPlayerDataAsync(UUID uuid) {
+        offlineAccess.put(uuid, System.currentTimeMillis());
+        PlayerData cached = playerDataMap.get(uuid);
+        if (cached != null) return CompletableFuture.completedFuture(cached);
 
-        File playerFile = new File(dataFolder, uuid.toString() + ".yml");
-        FileConfiguration config = new YamlConfiguration();
+        PlayerData staged = stagedData.remove(uuid);
+        if (staged != null) return CompletableFuture.completedFuture(adopt(staged));
+
+        return load(uuid, asyncExecutor).thenApply(this::adopt);
+    }
 
-        Map<String, Object> serialized = data.serialize();
-        for (Map.Entry<String, Object> entry : serialized.entrySet()) {
-            config.set(entry.getKey(), entry.getValue());
+    // ── Pre-login staging ─────────────────────────────────────────────────────
+
+    /**
+     * Loads a player's record on the calling (pre-login) thread and stages it
+     * for the upcoming join. A record that is still cached (a reconnect, or an
+     * admin lookup) is staged as is, so an idle eviction between pre-login and
+     * join cannot drop it. Throws if the stored record cannot be read; the
+     * login must then be denied.
+     */
+    public void prefetchPlayerData(UUID uuid) {
+        PlayerData cached = playerDataMap.get(uuid);
+        if (cached != null) {
+            stagedData.putIfAbsent(uuid, cached);
+            offlineAccess.computeIfPresent(uuid, (k, last) -> System.currentTimeMillis());
+            return;
         }
+        if (stagedData.containsKey(uuid)) return;
+        PlayerData data = load(uuid, Runnable::run).join();
+        if (!playerDataMap.containsKey(uuid)) stagedData.putIfAbsent(uuid, data);
+    }
+
+    /** Drops a staged record whose login was denied after the prefetch. */
+    public void discardStagedData(UUID uuid) {
+        stagedData.remove(uuid);
+    }
+
+    private PlayerData adopt(PlayerData data) {
+        PlayerData existing = playerDataMap.putIfAbsent(data.getUuid(), data);
+        return existing != null ? existing : data;
+    }
+
+    /**
+     * Starts (or joins) a disk load for the given player. Concurrent callers
+     * receive the same future, so a file is never parsed twice at once.
+     */
+    private CompletableFuture<PlayerData> load(UUID uuid, Executor executor) {
+        CompletableFuture<PlayerData> created  = new CompletableFuture<>();
+        CompletableFuture<PlayerData> existing = pendingLoads.putIfAbsent(uuid, created);
+        if (existing != null) return existing;
+
+        executor.execute(() -> {
+            try {
+                created.complete(loadOrCreate(uuid));
+            } catch (Throwable t) {
+                created.completeExceptionally(t);
+            } finally {
+                pendingLoads.remove(uuid, created);
+            }
+        });
+        return created;
+    }
 
-        try {
-            config.save(playerFile);
-        } catch (IOException e) {
-            plugin.getLogger().severe("Could not save player data for " + uuid + ": " + e.getMessage());
+    /**
+     * Only a store reporting no record creates a new one; a read failure
+     * propagates, so a blank record can never be saved over the real one.
+     */
+    private PlayerData loadOrCreate(UUID uuid) {
+        PlayerData saving = savingData.get(uuid);
+        if (saving != null) return saving;
+        PlayerData data = loadPlayerData(uuid);
+        // Offline production is settled on join only; admin and offline loads must not pay it out
+        if (data != null) return data;
+        // New players start dirty so their first autosave creates the record
+        PlayerData created = new PlayerData(uuid);
+        created.markDirty();
+        return created;
+    }
+
+    // ── Persistence ───────────────────────────────────────────────────────────
+
+    /**
+     * Creates the backend named in config ({@code yaml} or {@code sqlite}).
+     * Unknown names fall back to YAML.
+     */
+    public PlayerDataStore createStore(String type) {
+        if ("sqlite".equalsIgnoreCase(type)) return new SqlPlayerDataStore(plugin);
+        if (!"yaml".equalsIgnoreCase(type)) {
+            plugin.getLogger().warning("Unknown storage type '" + type + "', falling back to yaml.");
         }
+        return new YamlPlayerDataStore(plugin);
+    }
+
+    /** Writes the player's record if it changed since it was last saved. */
+    public void savePlayerData(UUID uuid) {
+        PlayerData data = playerDataMap.get(uuid);
+        if (data == null || !data.isDirty()) return;
+        write(List.of(data));
     }
 
     public void savePlayerData(Player player) {
@@ -60,50 +213,179 @@ public class DataManager {
     }
 
     public PlayerData loadPlayerData(UUID uuid) {
-        File playerFile = new File(dataFolder, uuid.toString() + ".yml");
-        if (!playerFile.exists()) return null;
-
-        FileConfiguration config = YamlConfiguration.loadConfiguration(playerFile);
-        Map<String, Object> data = new ConcurrentHashMap<>();
-        for (String key : config.getKeys(false)) {
-            data.put(key, config.get(key));
-        }
-        return PlayerData.deserialize(data);
+        return store.load(uuid);
     }
 
+    /**
+     * Drops a quitting player's record from the cache. The final save runs on
+     * an async worker, so the main thread never waits on file or database I/O.
+     */
     public void unloadPlayerData(UUID uuid) {
-        savePlayerData(uuid);
+        PlayerData data = playerDataMap.get(uuid);
+        if (data != null) {
+            plugin.getFactoryManager().settle(data);
+            data.commitPending();
+            plugin.getLeaderboardManager().updatePlayer(data);
+            if (data.isDirty()) saveOnQuit(data);
+        }
         playerDataMap.remove(uuid);
+        offlineAccess.remove(uuid);
+        if (data != null) {
+            plugin.getFactoryManager().untrack(data);
+            plugin.getAugmentManager().untrack(data);
+        }
+        stagedData.remove(uuid);
+    }
+
+    /**
+     * Writes {@code data} off the main thread. It stays in {@link #savingData}
+     * until it is clean; a failed write is retried by the autosave.
+     */
+    private void saveOnQuit(PlayerData data) {
+        UUID uuid = data.getUuid();
+        savingData.put(uuid, data);
+        Runnable task = () -> {
+            write(List.of(data));
+            if (!data.isDirty()) savingData.remove(uuid, data);
+        };
+        // Async tasks cannot be scheduled while the plugin is disabling
+        if (plugin.isEnabled()) asyncExecutor.execute(task);
+        else task.run();
     }
 
     public void unloadPlayerData(Player player) {
         unloadPlayerData(player.getUniqueId());
     }
 
+    /**
+     * Writes every dirty cached record, including quit saves that have not
+     * landed yet, in one batch. Used on shutdown and before migration.
+     */
     public void saveAllData() {
-        for (UUID uuid : playerDataMap.keySet()) savePlayerData(uuid);
+        List<PlayerData> dirty = new ArrayList<>();
+        for (PlayerData data : playerDataMap.values()) {
+            if (data.isDirty()) dirty.add(data);
+        }
+        for (PlayerData data : savingData.values()) {
+            if (data.isDirty() && playerDataMap.get(data.getUuid()) != data) dirty.add(data);
+        }
+        write(dirty);
     }
 
     public void loadAllData() {
         for (Player player : Bukkit.getOnlinePlayers()) {
-            getPlayerData(player.getUniqueId());
+            PlayerData data;
+            try {
+                data = getPlayerData(player.getUniqueId());
+            } catch (RuntimeException e) {
+                plugin.getLogger().severe("Could not load player data for " + player.getName() + ": " + e.getMessage());
+                player.kick(ColorUtils.toComponent(plugin.getMessageManager().getMessage("messages.data-load-failed-kick")));
+                continue;
+            }
+            plugin.getFactoryManager().track(data);
+            plugin.getAugmentManager().track(data);
         }
     }
 
-    public Map<UUID, PlayerData> getAllPlayerData() {
-        Map<UUID, PlayerData> allData = new ConcurrentHashMap<>();
-        File[] files = dataFolder.listFiles((dir, name) -> name.endsWith(".yml"));
-        if (files != null) {
-            for (File file : files) {
-                String fileName = file.getName().replace(".yml", "");
-                try {
-                    UUID uuid = UUID.fromString(fileName);
-                    PlayerData data = playerDataMap.get(uuid);
-                    if (data == null) data = loadPlayerData(uuid);
-                    if (data != null) allData.put(uuid, data);
-                } catch (IllegalArgumentException ignored) {}
+    // ── Write-behind autosave ─────────────────────────────────────────────────
+
+    /**
+     * One autosave step, run every {@link #AUTOSAVE_PERIOD_TICKS}. Players are
+     * split into {@code auto-save-interval / AUTOSAVE_PERIOD_TICKS} slices by
+     * UUID hash and one slice is visited per step, so every dirty record is
+     * written at least once per interval without a burst at the end of it.
+     * At most {@code auto-save.max-batch-size} records are written per step;
+     * the rest carry over to the next step.
+     */
+    public synchronized void flushDirty() {
+        FileConfiguration cfg = plugin.getConfigManager().getMainConfig();
+        int slices   = (int) Math.max(1L, cfg.getLong("auto-save-interval", 12000L) / AUTOSAVE_PERIOD_TICKS);
+        int maxBatch = Math.max(1, cfg.getInt("auto-save.max-batch-size", 200));
+
+        if (!offlineAccess.isEmpty()) Bukkit.getScheduler().runTask(plugin, this::evictIdle);
+
+        int slice = Math.floorMod(flushCursor++, slices);
+        for (PlayerData data : playerDataMap.values()) {
+            if (data.isDirty() && Math.floorMod(data.getUuid().hashCode(), slices) == slice) {
+                flushBacklog.add(data.getUuid());
             }
         }
-        return allData;
+        // Quit saves that failed are retried on every step until they land
+        for (PlayerData data : savingData.values()) {
+            if (data.isDirty()) flushBacklog.add(data.getUuid());
+            else savingData.remove(data.getUuid(), data);
+        }
+
+        List<PlayerData> batch = new ArrayList<>(Math.min(maxBatch, flushBacklog.size()));
+        Iterator<UUID> it = flushBacklog.iterator();
+        while (it.hasNext() && batch.size() < maxBatch) {
+            UUID uuid = it.next();
+            PlayerData data = playerDataMap.get(uuid);
+            if (data == null) data = savingData.get(uuid);
+            it.remove();
+            // Clean ones were saved since they were queued
+            if (data != null && data.isDirty()) batch.add(data);
+        }
+        if (batch.isEmpty()) return;
+
+        PerfManager perf = plugin.getPerfManager();
+        long bytesBefore = store.getBytesWritten();
+        long start = perf.start();
+        write(batch);
+        perf.stop(PerfManager.Metric.AUTOSAVE, start);
+        if (bytesBefore >= 0) perf.record(PerfManager.Metric.AUTOSAVE_BYTES, store.getBytesWritten() - bytesBefore);
+    }
+
+    /**
+     * Drops records loaded for players who are still offline, e.g. by admin
+     * commands, once they are saved and have not been looked up for
+     * {@code auto-save.evict-offline-after-seconds}. A player logging in
+     * meanwhile keeps the record through its staged reference, see
+     * {@link #prefetchPlayerData(UUID)}.
+     */
+    private void evictIdle() {
+        long idleMillis = Math.max(0L, plugin.getConfigManager().getMainConfig()
+                .getLong("auto-save.evict-offline-after-seconds", 300L)) * 1000L;
+        long cutoff = System.currentTimeMillis() - idleMillis;
+
+        Iterator<Map.Entry<UUID, Long>> it = offlineAccess.entrySet().iterator();
+        while (it.hasNext()) {
+            Map.Entry<UUID, Long> entry = it.next();
+            UUID uuid = entry.getKey();
+            if (Bukkit.getPlayer(uuid) != null) { it.remove(); continue; }
+            if (entry.getValue() > cutoff || stagedData.containsKey(uuid)) continue;
+            PlayerData data = playerDataMap.get(uuid);
+            // Dirty records wait for the autosave to write them first
+            if (data != null && data.isDirty()) continue;
+            it.remove();
+            if (data != null) playerDataMap.remove(uuid, data);
+        }
+    }
+
+    /**
+     * Writes the records and marks each one clean as of the version captured
+     * before the write, so changes made mid-write stay dirty.
+     */
+    private void write(List<PlayerData> records) {
+        if (records.isEmpty()) return;
+        long[] versions = new long[records.size()];
+        for (int i = 0; i < versions.length; i++) versions[i] = records.get(i).getVersion();
+        if (!store.saveAll(records)) return;
+        for (int i = 0; i < versions.length; i++) records.get(i).markSaved(versions[i]);
+    }
+
+    /** Saves cached records and closes the backend. Called on disable. */
+    public void shutdown() {
+        saveAllData();
+        store.close();
+    }
+
+    /** Live records currently held in memory. */
+    public Collection<PlayerData> getCachedPlayerData() {
+        return playerDataMap.values();
+    }
+
+    public PlayerDataStore getStore() {
+        return store;
     }
 }
@@ -0,0 +1,78 @@
+package com.pallux.sandsim.data;
+
+/**
+ * Immutable, pre-multiplied view of every bonus that applies to one player.
+ * Built by MultiplierManager from upgrades, rebirths, skills, augments and the
+ * active event, and reused until one of those inputs changes.
+ * Jackpots are time-based and are NOT folded in.
+ */
+public class MultiplierSnapshot {
+
+    private final int    revision;
+    private final long   epoch;
+
+    private final double sand;
+    private final double rebirth;
+    private final double gemChance;
+    private final double gems;
+    private final double sandbucks;
+    private final long   xpPerBlock;
+    private final double explosionChance;
+    private final int    explosionRadius;
+    private final double sandJackpotChance;
+    private final double gemJackpotChance;
+    private final double factoryAmount;
+    private final long   factoryIntervalMillis;
+
+    public MultiplierSnapshot(int revision, long epoch,
+                              double sand, double rebirth,
+                              double gemChance, double gems, double sandbucks,
+                              long xpPerBlock,
+                              double explosionChance, int explosionRadius,
+                              double sandJackpotChance, double gemJackpotChance,
+                              double factoryAmount, long factoryIntervalMillis) {
+        this.revision              = revision;
+        this.epoch                 = epoch;
+        this.sand                  = sand;
+        this.rebirth               = rebirth;
+        this.gemChance             = gemChance;
+        this.gems                  = gems;
+        this.sandbucks             = sandbucks;
+        this.xpPerBlock            = xpPerBlock;
+        this.explosionChance       = explosionChance;
+        this.explosionRadius       = explosionRadius;
+        this.sandJackpotChance     = sandJackpotChance;
+        this.gemJackpotChance      = gemJackpotChance;
+        this.factoryAmount         = factoryAmount;
+        this.factoryIntervalMillis = factoryIntervalMillis;
+    }
+
+    /** True if built from this player revision and global epoch. */
+    public boolean isCurrent(int revision, long epoch) {
+        return this.revision == revision && this.epoch == epoch;
+    }
+
+    // ── Getters ──────────────────────────────────────────────────────────────
+
+    public int    getRevision()              { return revision; }
+    public long   getEpoch()                 { return epoch; }
+
+    /** Sand per normal block: upgrade × rebirth × event × augment × skill. */
+    public double getSand()                  { return sand; }
+    public double getRebirth()               { return rebirth; }
+    /** Gem drop chance in percent, event bonus included. */
+    public double getGemChance()             { return gemChance; }
+    /** Gems per drop: upgrade × augment × skill. */
+    public double getGems()                  { return gems; }
+    /** Sandbucks multiplier: augment × skill. */
+    public double getSandbucks()             { return sandbucks; }
+    public long   getXpPerBlock()            { return xpPerBlock; }
+    public double getExplosionChance()       { return explosionChance; }
+    public int    getExplosionRadius()       { return explosionRadius; }
+    public double getSandJackpotChance()     { return sandJackpotChance; }
+    public double getGemJackpotChance()      { return gemJackpotChance; }
+    /** Sandbucks per factory cycle, all bonuses included. */
+    public double getFactoryAmount()         { return factoryAmount; }
+    /** Factory cycle length in milliseconds, speed event included. */
+    public long   getFactoryIntervalMillis() { return factoryIntervalMillis; }
+}
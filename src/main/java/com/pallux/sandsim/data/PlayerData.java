@@ -1,51 +1,84 @@
 package com.pallux.sandsim.data;
 
 import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.EnumSet;
 import java.util.HashMap;
-import java.util.HashSet;
+import java.util.List;
 import java.util.Map;
 import java.util.Set;
 import java.util.UUID;
-
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.DoubleAdder;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.StampedLock;
+
+/**
+ * A player's persistent state plus a few transient runtime fields.
+ *
+ * <h3>Concurrency model</h3>
+ * <ul>
+ *   <li>Every mutation of persisted state holds the write lock of a
+ *       {@link StampedLock}. Mutators never call each other's public forms
+ *       (the lock is not reentrant); shared steps live in {@code *Locked}
+ *       helpers that expect the lock to be held.</li>
+ *   <li>Scalar fields are {@code volatile}, so single-field getters are
+ *       lock-free and always see the latest committed value. Currency getters
+ *       take the read lock because a {@link Balance} spans several fields.</li>
+ *   <li>Reads that need several fields to agree ({@link #serialize()},
+ *       {@link #snapshot()}) hold the read lock and return an immutable copy.</li>
+ *   <li>Check-then-spend must use {@link #trySpendSand(BigDecimal)} and
+ *       friends, which compare and subtract under one write lock, so a
+ *       concurrent factory credit can neither be lost nor let a purchase
+ *       overdraw the balance.</li>
+ *   <li>Mining rewards go through the lock-free {@code credit*} adders and are
+ *       folded in by {@link #commitPending()}.</li>
+ *   <li>Jackpot timers, unannounced levels and the multiplier cache are
+ *       main-thread runtime state and are not guarded.</li>
+ * </ul>
+ */
 public class PlayerData {
 
     private final UUID uuid;
-    private BigDecimal sand;
-    private BigDecimal gems;
-    private BigDecimal sandbucks;
-    private long rebirths;
+    private final Balance sand      = new Balance();
+    private final Balance gems      = new Balance();
+    private final Balance sandbucks = new Balance();
+    private volatile long rebirths;
 
     // Leveling
-    private int level;
-    private long xp;
+    private volatile int level;
+    private volatile long xp;
 
     // Upgrades
-    private int sandMultiplier;
-    private int sandExplosionChance;
-    private int sandExplosionRadius;
-    private int sandCooldown;
-    private int gemChance;
-    private int gemMultiplier;
-    private int efficiency;
-    private int speed;   // 0 = not purchased, 1 = purchased
-    private int sandJackpot;
-    private int gemJackpot;
+    private volatile int sandMultiplier;
+    private volatile int sandExplosionChance;
+    private volatile int sandExplosionRadius;
+    private volatile int sandCooldown;
+    private volatile int gemChance;
+    private volatile int gemMultiplier;
+    private volatile int efficiency;
+    private volatile int speed;   // 0 = not purchased, 1 = purchased
+    private volatile int sandJackpot;
+    private volatile int gemJackpot;
 
     // Factory upgrades
-    private boolean factoryUnlocked;
-    private int factoryProductionSpeed;
-    private int factoryProductionAmount;
-    private long lastFactoryProduction;
+    private volatile boolean factoryUnlocked;
+    private volatile int factoryProductionSpeed;
+    private volatile int factoryProductionAmount;
+    private volatile long lastFactoryProduction;
 
     // ── Augments (do NOT reset on rebirth) ───────────────────────────────────
-    private int augmentUnlockedTier;
-    private int augmentResearchingTier;
-    private long augmentResearchCompleteTime;
+    private volatile int augmentUnlockedTier;
+    private volatile int augmentResearchingTier;
+    private volatile long augmentResearchCompleteTime;
 
     // ── Skill Tree (permanent, never reset) ───────────────────────────────────
-    private int skillPointsEarned;
-    private int skillPointsSpent;
-    private Set<String> purchasedSkills;
+    private volatile int skillPointsEarned;
+    private volatile int skillPointsSpent;
+    /** Bitmask of purchased skills, see {@link SkillType#mask()}. */
+    private volatile int purchasedSkills;
 
     // ── Jackpot runtime state (transient, NOT persisted) ─────────────────────
     /** Epoch-millis when the Sand Jackpot effect expires. 0 = not active. */
@@ -53,11 +86,31 @@ public class PlayerData {
     /** Epoch-millis when the Gem Jackpot effect expires. 0 = not active. */
     private transient long gemJackpotExpireTime  = 0L;
 
+    // ── Concurrency (transient) ───────────────────────────────────────────────
+    private final transient StampedLock lock = new StampedLock();
+
+    // ── Dirty tracking (transient) ────────────────────────────────────────────
+    /** Bumped by every persisted-state mutation. */
+    private final transient AtomicLong version = new AtomicLong();
+    /** Highest {@link #version} known to be on disk. */
+    private transient volatile long savedVersion = 0L;
+
+    // ── Pending earnings (transient) ──────────────────────────────────────────
+    /** Rewards credited lock-free by the mining path, folded in by {@link #commitPending()}. */
+    private final transient DoubleAdder pendingSand = new DoubleAdder();
+    private final transient DoubleAdder pendingGems = new DoubleAdder();
+    private final transient LongAdder   pendingXp   = new LongAdder();
+    private transient volatile boolean  hasPending;
+    /** Levels gained by commits that have not been announced to the player yet. */
+    private transient int unannouncedLevels;
+
+    // ── Multiplier cache (transient) ──────────────────────────────────────────
+    /** Bumped whenever an input of {@link MultiplierSnapshot} changes. */
+    private final transient AtomicInteger multiplierRevision = new AtomicInteger();
+    private transient volatile MultiplierSnapshot multiplierSnapshot;
+
     public PlayerData(UUID uuid) {
         this.uuid = uuid;
-        this.sand = BigDecimal.ZERO;
-        this.gems = BigDecimal.ZERO;
-        this.sandbucks = BigDecimal.ZERO;
         this.rebirths = 0L;
 
         this.level = 1;
@@ -85,40 +138,239 @@ public class PlayerData {
 
         this.skillPointsEarned = 0;
         this.skillPointsSpent  = 0;
-        this.purchasedSkills   = new HashSet<>();
+        this.purchasedSkills   = 0;
     }
 
     // ── Currency methods ──────────────────────────────────────────────────────
 
     public void addSand(BigDecimal amount) {
-        this.sand = this.sand.add(amount);
+        long stamp = lock.writeLock();
+        try {
+            sand.add(amount);
+            markDirty();
+        } finally {
+            lock.unlockWrite(stamp);
+        }
     }
 
+    /** Allocation-free variant for per-block rewards. */
+    public void addSand(double amount) {
+        long stamp = lock.writeLock();
+        try {
+            sand.add(amount);
+            markDirty();
+        } finally {
+            lock.unlockWrite(stamp);
+        }
+    }
+
+    /** Removes up to {@code amount}, clamping at zero. Use {@link #trySpendSand} for purchases. */
     public void removeSand(BigDecimal amount) {
-        this.sand = this.sand.subtract(amount);
-        if (this.sand.compareTo(BigDecimal.ZERO) < 0) this.sand = BigDecimal.ZERO;
+        long stamp = lock.writeLock();
+        try {
+            commitLocked();
+            sand.subtract(amount);
+            markDirty();
+        } finally {
+            lock.unlockWrite(stamp);
+        }
+    }
+
+    /** Atomically subtracts {@code cost} if the balance covers it. */
+    public boolean trySpendSand(BigDecimal cost) {
+        return trySpend(sand, cost);
     }
 
     public void addGems(BigDecimal amount) {
-        this.gems = this.gems.add(amount);
+        long stamp = lock.writeLock();
+        try {
+            gems.add(amount);
+            markDirty();
+        } finally {
+            lock.unlockWrite(stamp);
+        }
+    }
+
+    /** Allocation-free variant for per-block rewards. */
+    public void addGems(double amount) {
+        long stamp = lock.writeLock();
+        try {
+            gems.add(amount);
+            markDirty();
+        } finally {
+            lock.unlockWrite(stamp);
+        }
     }
 
     public void removeGems(BigDecimal amount) {
-        this.gems = this.gems.subtract(amount);
-        if (this.gems.compareTo(BigDecimal.ZERO) < 0) this.gems = BigDecimal.ZERO;
+        long stamp = lock.writeLock();
+        try {
+            commitLocked();
+            gems.subtract(amount);
+            markDirty();
+        } finally {
+            lock.unlockWrite(stamp);
+        }
+    }
+
+    public boolean trySpendGems(BigDecimal cost) {
+        return trySpend(gems, cost);
     }
 
     public void addSandbucks(BigDecimal amount) {
-        this.sandbucks = this.sandbucks.add(amount);
+        long stamp = lock.writeLock();
+        try {
+            sandbucks.add(amount);
+            markDirty();
+        } finally {
+            lock.unlockWrite(stamp);
+        }
+    }
+
+    /** Allocation-free variant for factory output. */
+    public void addSandbucks(double amount) {
+        long stamp = lock.writeLock();
+        try {
+            sandbucks.add(amount);
+            markDirty();
+        } finally {
+            lock.unlockWrite(stamp);
+        }
     }
 
     public void removeSandbucks(BigDecimal amount) {
-        this.sandbucks = this.sandbucks.subtract(amount);
-        if (this.sandbucks.compareTo(BigDecimal.ZERO) < 0) this.sandbucks = BigDecimal.ZERO;
+        long stamp = lock.writeLock();
+        try {
+            sandbucks.subtract(amount);
+            markDirty();
+        } finally {
+            lock.unlockWrite(stamp);
+        }
+    }
+
+    public boolean trySpendSandbucks(BigDecimal cost) {
+        return trySpend(sandbucks, cost);
+    }
+
+    private boolean trySpend(Balance balance, BigDecimal cost) {
+        long stamp = lock.writeLock();
+        try {
+            commitLocked();
+            if (balance.compareTo(cost) < 0) return false;
+            balance.subtract(cost);
+            markDirty();
+            return true;
+        } finally {
+            lock.unlockWrite(stamp);
+        }
+    }
+
+    /**
+     * Pays out factory production and moves the production clock from
+     * {@code expectedLast} to {@code newLast}. Returns false, changing nothing,
+     * if the clock moved since {@code expectedLast} was read, so two threads
+     * settling at once never pay the same span twice.
+     */
+    public boolean advanceFactory(long expectedLast, long newLast, double sandbucksEarned) {
+        long stamp = lock.writeLock();
+        try {
+            if (lastFactoryProduction != expectedLast) return false;
+            if (sandbucksEarned > 0) sandbucks.add(sandbucksEarned);
+            lastFactoryProduction = newLast;
+            markDirty();
+            return true;
+        } finally {
+            lock.unlockWrite(stamp);
+        }
     }
 
     public void addRebirths(long amount) {
-        this.rebirths += amount;
+        long stamp = lock.writeLock();
+        try {
+            this.rebirths += amount;
+            markMultipliersChanged();
+        } finally {
+            lock.unlockWrite(stamp);
+        }
+    }
+
+    /**
+     * Spends {@code cost} sand and performs {@code amount} rebirths in one step:
+     * upgrades are reset and the rebirth count raised. Returns false, changing
+     * nothing, if the player cannot afford it.
+     */
+    public boolean tryRebirth(BigDecimal cost, long amount) {
+        long stamp = lock.writeLock();
+        try {
+            commitLocked();
+            if (sand.compareTo(cost) < 0) return false;
+            sand.subtract(cost);
+            resetUpgradesLocked();
+            this.rebirths += amount;
+            markMultipliersChanged();
+            return true;
+        } finally {
+            lock.unlockWrite(stamp);
+        }
+    }
+
+    // ── Pending earnings ──────────────────────────────────────────────────────
+
+    /** Credits sand without touching the balance; visible after the next {@link #commitPending()}. */
+    public void creditSand(double amount) {
+        pendingSand.add(amount);
+        hasPending = true;
+    }
+
+    public void creditGems(double amount) {
+        pendingGems.add(amount);
+        hasPending = true;
+    }
+
+    public void creditXp(long amount) {
+        pendingXp.add(amount);
+        hasPending = true;
+    }
+
+    public boolean hasPendingEarnings() {
+        return hasPending;
+    }
+
+    /**
+     * Folds credited earnings into the balances and XP. Runs on the main thread
+     * every tick and before any mutation that needs exact values (spending,
+     * setting, resetting, saving on quit). Returns the levels gained.
+     */
+    public int commitPending() {
+        if (!hasPending) return 0;
+        long stamp = lock.writeLock();
+        try {
+            return commitLocked();
+        } finally {
+            lock.unlockWrite(stamp);
+        }
+    }
+
+    /** {@link #commitPending()} body; the write lock must be held. */
+    private int commitLocked() {
+        if (!hasPending) return 0;
+        hasPending = false;
+        double sandDelta = pendingSand.sumThenReset();
+        double gemsDelta = pendingGems.sumThenReset();
+        long   xpDelta   = pendingXp.sumThenReset();
+        if (sandDelta != 0) sand.add(sandDelta);
+        if (gemsDelta != 0) gems.add(gemsDelta);
+        int levels = addXpLocked(xpDelta);
+        unannouncedLevels += levels;
+        markDirty();
+        return levels;
+    }
+
+    /** Levels gained since the last call, for level-up feedback. */
+    public int takeUnannouncedLevels() {
+        int levels = unannouncedLevels;
+        unannouncedLevels = 0;
+        return levels;
     }
 
     // ── Jackpot runtime state ─────────────────────────────────────────────────
@@ -150,38 +402,82 @@ public class PlayerData {
     }
 
     public int addXp(long amount) {
-        this.xp += amount;
+        if (amount == 0) return 0;
+        long stamp = lock.writeLock();
+        try {
+            return addXpLocked(amount);
+        } finally {
+            lock.unlockWrite(stamp);
+        }
+    }
+
+    private int addXpLocked(long amount) {
+        if (amount == 0) return 0;
+        long newXp = this.xp + amount;
+        int newLevel = this.level;
         int levelsGained = 0;
-        while (this.xp >= getXpForNextLevel()) {
-            this.xp -= getXpForNextLevel();
-            this.level++;
+        while (newXp >= (long) newLevel * 10L) {
+            newXp -= (long) newLevel * 10L;
+            newLevel++;
             levelsGained++;
         }
+        this.xp = newXp;
+        this.level = newLevel;
+        markDirty();
         return levelsGained;
     }
 
     public int getXpPercent() {
-        long needed = getXpForNextLevel();
-        if (needed <= 0) return 100;
-        return (int) ((xp * 100L) / needed);
+        long stamp = lock.readLock();
+        try {
+            long needed = getXpForNextLevel();
+            if (needed <= 0) return 100;
+            return (int) ((xp * 100L) / needed);
+        } finally {
+            lock.unlockRead(stamp);
+        }
     }
 
     // ── Upgrade methods ───────────────────────────────────────────────────────
 
     public void upgradeLevel(UpgradeType type, int levels) {
-        switch (type) {
-            case SAND_MULTIPLIER           -> this.sandMultiplier        += levels;
-            case SAND_EXPLOSION_CHANCE     -> this.sandExplosionChance   += levels;
-            case SAND_EXPLOSION_RADIUS     -> this.sandExplosionRadius   += levels;
-            case SAND_COOLDOWN             -> this.sandCooldown          += levels;
-            case GEM_CHANCE                -> this.gemChance             += levels;
-            case GEM_MULTIPLIER            -> this.gemMultiplier         += levels;
-            case EFFICIENCY                -> this.efficiency            += levels;
-            case SPEED                     -> this.speed                 += levels;
-            case SAND_JACKPOT              -> this.sandJackpot           += levels;
-            case GEM_JACKPOT               -> this.gemJackpot            += levels;
-            case FACTORY_PRODUCTION_SPEED  -> this.factoryProductionSpeed  += levels;
-            case FACTORY_PRODUCTION_AMOUNT -> this.factoryProductionAmount += levels;
+        long stamp = lock.writeLock();
+        try {
+            setUpgradeLevelLocked(type, getUpgradeLevel(type) + levels);
+        } finally {
+            lock.unlockWrite(stamp);
+        }
+    }
+
+    /**
+     * Spends {@code cost} sand and raises {@code type} from {@code fromLevel}
+     * by {@code levels} in one step. Returns false, changing nothing, if the
+     * player cannot afford it or the level is no longer {@code fromLevel}.
+     */
+    public boolean tryBuyUpgradeWithSand(UpgradeType type, int fromLevel, int levels, BigDecimal cost) {
+        return tryBuyUpgrade(sand, type, fromLevel, levels, cost);
+    }
+
+    public boolean tryBuyUpgradeWithGems(UpgradeType type, int fromLevel, int levels, BigDecimal cost) {
+        return tryBuyUpgrade(gems, type, fromLevel, levels, cost);
+    }
+
+    public boolean tryBuyUpgradeWithSandbucks(UpgradeType type, int fromLevel, int levels, BigDecimal cost) {
+        return tryBuyUpgrade(sandbucks, type, fromLevel, levels, cost);
+    }
+
+    private boolean tryBuyUpgrade(Balance balance, UpgradeType type, int fromLevel, int levels, BigDecimal cost) {
+        long stamp = lock.writeLock();
+        try {
+            commitLocked();
+            if (getUpgradeLevel(type) != fromLevel) return false;
+            if (balance.compareTo(cost) < 0) return false;
+            balance.subtract(cost);
+            setUpgradeLevelLocked(type, fromLevel + levels);
+            markDirty();
+            return true;
+        } finally {
+            lock.unlockWrite(stamp);
         }
     }
 
@@ -203,6 +499,15 @@ public class PlayerData {
     }
 
     public void setUpgradeLevel(UpgradeType type, int level) {
+        long stamp = lock.writeLock();
+        try {
+            setUpgradeLevelLocked(type, level);
+        } finally {
+            lock.unlockWrite(stamp);
+        }
+    }
+
+    private void setUpgradeLevelLocked(UpgradeType type, int level) {
         switch (type) {
             case SAND_MULTIPLIER           -> this.sandMultiplier        = level;
             case SAND_EXPLOSION_CHANCE     -> this.sandExplosionChance   = level;
@@ -217,9 +522,19 @@ public class PlayerData {
             case FACTORY_PRODUCTION_SPEED  -> this.factoryProductionSpeed  = level;
             case FACTORY_PRODUCTION_AMOUNT -> this.factoryProductionAmount = level;
         }
+        markMultipliersChanged();
     }
 
     public void resetUpgrades() {
+        long stamp = lock.writeLock();
+        try {
+            resetUpgradesLocked();
+        } finally {
+            lock.unlockWrite(stamp);
+        }
+    }
+
+    private void resetUpgradesLocked() {
         this.sandMultiplier       = 0;
         this.sandExplosionChance  = 0;
         this.sandExplosionRadius  = 0;
@@ -231,43 +546,179 @@ public class PlayerData {
         this.sandJackpot          = 0;
         this.gemJackpot           = 0;
         // Augments and skills are NOT reset here
+        markMultipliersChanged();
     }
 
     public void resetAll() {
-        this.sand       = BigDecimal.ZERO;
-        this.gems       = BigDecimal.ZERO;
-        this.sandbucks  = BigDecimal.ZERO;
-        this.rebirths   = 0L;
-        this.level      = 1;
-        this.xp         = 0;
-        resetUpgrades();
-        this.factoryUnlocked          = false;
-        this.factoryProductionSpeed   = 0;
-        this.factoryProductionAmount  = 0;
+        long stamp = lock.writeLock();
+        try {
+            commitLocked();
+            this.sand.set(BigDecimal.ZERO);
+            this.gems.set(BigDecimal.ZERO);
+            this.sandbucks.set(BigDecimal.ZERO);
+            this.rebirths   = 0L;
+            this.level      = 1;
+            this.xp         = 0;
+            resetUpgradesLocked();
+            this.factoryUnlocked          = false;
+            this.factoryProductionSpeed   = 0;
+            this.factoryProductionAmount  = 0;
+            markMultipliersChanged();
+        } finally {
+            lock.unlockWrite(stamp);
+        }
+    }
+
+    // ── Augment research ──────────────────────────────────────────────────────
+
+    /** Starts researching {@code tier} unless research is already running. */
+    public boolean beginResearch(int tier, long completeAt) {
+        long stamp = lock.writeLock();
+        try {
+            if (augmentResearchingTier > 0) return false;
+            this.augmentResearchingTier      = tier;
+            this.augmentResearchCompleteTime = completeAt;
+            markDirty();
+            return true;
+        } finally {
+            lock.unlockWrite(stamp);
+        }
+    }
+
+    /**
+     * Unlocks the researched tier if its completion time has passed. Returns
+     * that tier, or 0 if nothing completed; a given research completes once,
+     * whichever caller gets here first.
+     */
+    public int completeResearch(long now) {
+        long stamp = lock.writeLock();
+        try {
+            int tier = augmentResearchingTier;
+            if (tier <= 0 || now < augmentResearchCompleteTime) return 0;
+            this.augmentUnlockedTier         = tier;
+            this.augmentResearchingTier      = 0;
+            this.augmentResearchCompleteTime = 0L;
+            markMultipliersChanged();
+            return tier;
+        } finally {
+            lock.unlockWrite(stamp);
+        }
     }
 
     // ── Skill Tree methods ────────────────────────────────────────────────────
 
     public int getAvailableSkillPoints() {
-        return Math.max(0, skillPointsEarned - skillPointsSpent);
+        long stamp = lock.readLock();
+        try {
+            return Math.max(0, skillPointsEarned - skillPointsSpent);
+        } finally {
+            lock.unlockRead(stamp);
+        }
     }
 
     public void recalculateSkillPoints() {
-        this.skillPointsEarned = Math.max(0, level / 5);
+        long stamp = lock.writeLock();
+        try {
+            int earned = Math.max(0, level / 5);
+            if (earned == skillPointsEarned) return;
+            this.skillPointsEarned = earned;
+            markDirty();
+        } finally {
+            lock.unlockWrite(stamp);
+        }
     }
 
     public boolean hasSkill(SkillType skill) {
-        return purchasedSkills.contains(skill.name());
+        return (purchasedSkills & skill.mask()) != 0;
+    }
+
+    /**
+     * Buys {@code skill} for {@code cost} points in one step. Returns false,
+     * changing nothing, if it is already owned, the previous tier of its track
+     * is missing, or too few points are available.
+     */
+    public boolean tryPurchaseSkill(SkillType skill, int cost) {
+        long stamp = lock.writeLock();
+        try {
+            if ((purchasedSkills & skill.mask()) != 0) return false;
+            SkillType prev = skill.getPrevious();
+            if (prev != null && (purchasedSkills & prev.mask()) == 0) return false;
+            if (skillPointsEarned - skillPointsSpent < cost) return false;
+            purchasedSkills |= skill.mask();
+            skillPointsSpent += cost;
+            markMultipliersChanged();
+            return true;
+        } finally {
+            lock.unlockWrite(stamp);
+        }
+    }
+
+    // ── Dirty tracking ────────────────────────────────────────────────────────
+
+    /** Flags the record as changed since its last save. */
+    public void markDirty() {
+        version.incrementAndGet();
     }
 
-    public void purchaseSkill(SkillType skill, int cost) {
-        purchasedSkills.add(skill.name());
-        skillPointsSpent += cost;
+    public boolean isDirty() {
+        return version.get() != savedVersion;
+    }
+
+    /** Current mutation counter; capture it before serializing for a save. */
+    public long getVersion() {
+        return version.get();
+    }
+
+    /**
+     * Records that the state as of {@code savedAt} is on disk. Mutations made
+     * after that version was captured keep the record dirty.
+     */
+    public void markSaved(long savedAt) {
+        if (savedAt > savedVersion) savedVersion = savedAt;
+    }
+
+    // ── Multiplier cache ──────────────────────────────────────────────────────
+
+    /** Marks the record dirty and invalidates its cached {@link MultiplierSnapshot}. */
+    public void markMultipliersChanged() {
+        multiplierRevision.incrementAndGet();
+        markDirty();
+    }
+
+    public int getMultiplierRevision() {
+        return multiplierRevision.get();
+    }
+
+    /** Cache slot owned by MultiplierManager; may be stale, check {@link MultiplierSnapshot#isCurrent}. */
+    public MultiplierSnapshot getMultiplierSnapshot() {
+        return multiplierSnapshot;
+    }
+
+    public void setMultiplierSnapshot(MultiplierSnapshot snapshot) {
+        this.multiplierSnapshot = snapshot;
     }
 
     // ── Serialization ─────────────────────────────────────────────────────────
 
+    /** Consistent copy of the persisted state, taken under the read lock. */
     public Map<String, Object> serialize() {
+        long stamp = lock.readLock();
+        try {
+            return serializeLocked();
+        } finally {
+            lock.unlockRead(stamp);
+        }
+    }
+
+    /**
+     * Immutable view of the persisted state for off-thread readers that need
+     * several fields to agree, e.g. a currency balance and the upgrade levels.
+     */
+    public Map<String, Object> snapshot() {
+        return Collections.unmodifiableMap(serialize());
+    }
+
+    private Map<String, Object> serializeLocked() {
         Map<String, Object> data = new HashMap<>();
         data.put("uuid",                    uuid.toString());
         data.put("sand",                    sand.toString());
@@ -297,7 +748,9 @@ public class PlayerData {
         // Skills
         data.put("skillPointsEarned",  skillPointsEarned);
         data.put("skillPointsSpent",   skillPointsSpent);
-        data.put("purchasedSkills",    new java.util.ArrayList<>(purchasedSkills));
+        List<String> skillNames = new ArrayList<>();
+        for (SkillType skill : getPurchasedSkills()) skillNames.add(skill.name());
+        data.put("purchasedSkills",    skillNames);
         return data;
     }
 
@@ -306,9 +759,9 @@ public class PlayerData {
         UUID uuid = UUID.fromString((String) data.get("uuid"));
         PlayerData pd = new PlayerData(uuid);
 
-        pd.sand                   = new BigDecimal((String) data.getOrDefault("sand",       "0"));
-        pd.gems                   = new BigDecimal((String) data.getOrDefault("gems",       "0"));
-        pd.sandbucks              = new BigDecimal((String) data.getOrDefault("sandbucks",  "0"));
+        pd.sand.set(new BigDecimal((String) data.getOrDefault("sand",           "0")));
+        pd.gems.set(new BigDecimal((String) data.getOrDefault("gems",           "0")));
+        pd.sandbucks.set(new BigDecimal((String) data.getOrDefault("sandbucks", "0")));
         pd.rebirths               = toLong(data.getOrDefault("rebirths", 0L));
         pd.level                  = (int)  data.getOrDefault("level",                  1);
 
@@ -341,9 +794,12 @@ public class PlayerData {
         pd.skillPointsEarned = (int) data.getOrDefault("skillPointsEarned", 0);
         pd.skillPointsSpent  = (int) data.getOrDefault("skillPointsSpent",  0);
         Object rawSkills = data.get("purchasedSkills");
-        if (rawSkills instanceof java.util.List<?> list) {
+        if (rawSkills instanceof List<?> list) {
             for (Object s : list) {
-                if (s instanceof String str) pd.purchasedSkills.add(str);
+                if (!(s instanceof String str)) continue;
+                try {
+                    pd.purchasedSkills |= SkillType.valueOf(str).mask();
+                } catch (IllegalArgumentException ignored) {} // skill removed from the tree
             }
         }
 
@@ -359,37 +815,76 @@ public class PlayerData {
     // ── Getters / Setters ─────────────────────────────────────────────────────
 
     public UUID getUuid()                         { return uuid; }
-    public BigDecimal getSand()                   { return sand; }
-    public void setSand(BigDecimal sand)          { this.sand = sand; }
-    public BigDecimal getGems()                   { return gems; }
-    public void setGems(BigDecimal gems)          { this.gems = gems; }
-    public BigDecimal getSandbucks()              { return sandbucks; }
-    public void setSandbucks(BigDecimal sb)       { this.sandbucks = sb; }
+    public BigDecimal getSand()                   { return read(sand); }
+    public void setSand(BigDecimal sand)          { set(this.sand, sand); }
+    public BigDecimal getGems()                   { return read(gems); }
+    public void setGems(BigDecimal gems)          { set(this.gems, gems); }
+    public BigDecimal getSandbucks()              { return read(sandbucks); }
+    public void setSandbucks(BigDecimal sb)       { set(this.sandbucks, sb); }
     public long getRebirths()                     { return rebirths; }
-    public void setRebirths(long rebirths)        { this.rebirths = rebirths; }
+    public void setRebirths(long rebirths)        { write(() -> { this.rebirths = rebirths; markMultipliersChanged(); }); }
     public boolean isFactoryUnlocked()            { return factoryUnlocked; }
-    public void setFactoryUnlocked(boolean v)     { this.factoryUnlocked = v; }
+    public void setFactoryUnlocked(boolean v)     { write(() -> { this.factoryUnlocked = v; markDirty(); }); }
     public long getLastFactoryProduction()        { return lastFactoryProduction; }
-    public void setLastFactoryProduction(long v)  { this.lastFactoryProduction = v; }
+    public void setLastFactoryProduction(long v)  { write(() -> { this.lastFactoryProduction = v; markDirty(); }); }
     public int getLevel()                         { return level; }
-    public void setLevel(int level)               { this.level = level; }
+    public void setLevel(int level)               { write(() -> { commitLocked(); this.level = level; markDirty(); }); }
     public long getXp()                           { return xp; }
-    public void setXp(long xp)                   { this.xp = xp; }
+    public void setXp(long xp)                    { write(() -> { commitLocked(); this.xp = xp; markDirty(); }); }
+
+    /** Runs a rarely used setter under the write lock. */
+    private void write(Runnable mutation) {
+        long stamp = lock.writeLock();
+        try {
+            mutation.run();
+        } finally {
+            lock.unlockWrite(stamp);
+        }
+    }
+
+    private BigDecimal read(Balance balance) {
+        long stamp = lock.readLock();
+        try {
+            return balance.toBigDecimal();
+        } finally {
+            lock.unlockRead(stamp);
+        }
+    }
+
+    private void set(Balance balance, BigDecimal value) {
+        long stamp = lock.writeLock();
+        try {
+            commitLocked();
+            balance.set(value);
+            markDirty();
+        } finally {
+            lock.unlockWrite(stamp);
+        }
+    }
 
     // Augment getters/setters
     public int  getAugmentUnlockedTier()                      { return augmentUnlockedTier; }
-    public void setAugmentUnlockedTier(int tier)              { this.augmentUnlockedTier = tier; }
+    public void setAugmentUnlockedTier(int tier)              { write(() -> { this.augmentUnlockedTier = tier; markMultipliersChanged(); }); }
     public int  getAugmentResearchingTier()                   { return augmentResearchingTier; }
-    public void setAugmentResearchingTier(int tier)           { this.augmentResearchingTier = tier; }
+    public void setAugmentResearchingTier(int tier)           { write(() -> { this.augmentResearchingTier = tier; markDirty(); }); }
     public long getAugmentResearchCompleteTime()              { return augmentResearchCompleteTime; }
-    public void setAugmentResearchCompleteTime(long millis)   { this.augmentResearchCompleteTime = millis; }
+    public void setAugmentResearchCompleteTime(long millis)   { write(() -> { this.augmentResearchCompleteTime = millis; markDirty(); }); }
 
     // Skill getters/setters
     public int  getSkillPointsEarned()             { return skillPointsEarned; }
-    public void setSkillPointsEarned(int v)        { this.skillPointsEarned = v; }
+    public void setSkillPointsEarned(int v)        { write(() -> { this.skillPointsEarned = v; markDirty(); }); }
     public int  getSkillPointsSpent()              { return skillPointsSpent; }
-    public void setSkillPointsSpent(int v)         { this.skillPointsSpent = v; }
-    public Set<String> getPurchasedSkills()        { return purchasedSkills; }
+    public void setSkillPointsSpent(int v)         { write(() -> { this.skillPointsSpent = v; markDirty(); }); }
+    public int  getPurchasedSkillMask()            { return purchasedSkills; }
+
+    /** Purchased skills as a fresh set, in tree order. */
+    public Set<SkillType> getPurchasedSkills() {
+        Set<SkillType> skills = EnumSet.noneOf(SkillType.class);
+        for (SkillType skill : SkillType.values()) {
+            if (hasSkill(skill)) skills.add(skill);
+        }
+        return skills;
+    }
 
     // ── Upgrade type enum ─────────────────────────────────────────────────────
 
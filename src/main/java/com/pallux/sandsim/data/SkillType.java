@@ -35,6 +35,9 @@ public enum SkillType {
     public String getTrack() { return track; }
     public int    getTier()  { return tier; }
 
+    /** This skill's bit in a purchased-skills bitmask. */
+    public int mask()        { return 1 << ordinal(); }
+
     /** Returns the previous skill in the same track, or null if this is tier 1. */
     public SkillType getPrevious() {
         if (tier == 1) return null;
@@ -0,0 +1,60 @@
+package com.pallux.sandsim.data.storage;
+
+import com.pallux.sandsim.data.PlayerData;
+import com.pallux.sandsim.manager.LeaderboardManager.LeaderboardType;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.UUID;
+import java.util.function.Consumer;
+
+/**
+ * Persistence backend for {@link PlayerData}. Implementations must be safe to
+ * call from async worker threads; {@link com.pallux.sandsim.data.DataManager}
+ * owns the in-memory cache and decides when records are loaded or written.
+ */
+public interface PlayerDataStore {
+
+    /** Short identifier used in config and commands, e.g. {@code "yaml"}. */
+    String getName();
+
+    /**
+     * Returns the stored record, or {@code null} if the player has none.
+     *
+     * @throws StorageException if a record exists but could not be read; the
+     *         caller must not create a new record in its place
+     */
+    PlayerData load(UUID uuid);
+
+    /** Returns {@code false} if the write failed (the failure is logged). */
+    boolean save(PlayerData data);
+
+    /**
+     * Writes several records at once; backends may do this in one transaction.
+     * Returns {@code false} if any write failed.
+     */
+    boolean saveAll(Collection<PlayerData> data);
+
+    /**
+     * Streams every readable stored record to {@code action}, one at a time.
+     * Returns how many stored records could not be read and were skipped
+     * (each one is logged).
+     *
+     * @throws StorageException if the scan itself failed part-way
+     */
+    int forEach(Consumer<PlayerData> action);
+
+    /** Returns up to {@code limit} stored records, best first for the given type. */
+    List<PlayerData> top(LeaderboardType type, int limit);
+
+    /**
+     * Total bytes this store has written since it was opened, or {@code -1}
+     * if the backend cannot tell.
+     */
+    default long getBytesWritten() {
+        return -1L;
+    }
+
+    /** Releases any open files or connections. */
+    void close();
+}
@@ -0,0 +1,319 @@
+package com.pallux.sandsim.data.storage;
+
+import com.pallux.sandsim.SandSimPlugin;
+import com.pallux.sandsim.data.PlayerData;
+import com.pallux.sandsim.manager.LeaderboardManager.LeaderboardType;
+
+import java.io.File;
+import java.sql.*;
+import java.util.*;
+import java.util.function.Consumer;
+
+/**
+ * Embedded SQLite backend: a single {@code player_data} table in
+ * {@code playerdata.db}. Columns are derived from {@link PlayerData#serialize()},
+ * so new fields are picked up automatically (missing columns are added on
+ * start-up). Each leaderboard has an indexed score column, which turns top-N
+ * into an index scan instead of a full parse of every record.
+ *
+ * <p>SQLite allows one writer at a time, so every call is serialised on the
+ * store's single connection. Full scans take it one page at a time.
+ */
+public class SqlPlayerDataStore implements PlayerDataStore {
+
+    private static final String TABLE = "player_data";
+    /** Rows per {@link #forEach} page; the connection is released between pages. */
+    private static final int SCAN_PAGE = 256;
+
+    /** How a serialized field maps onto a SQL column and back. */
+    private enum ColumnType {
+        TEXT("TEXT"), INT("INTEGER"), LONG("INTEGER"), BOOL("INTEGER"), LIST("TEXT");
+
+        final String sqlType;
+        ColumnType(String sqlType) { this.sqlType = sqlType; }
+
+        static ColumnType of(Object sample) {
+            if (sample instanceof Integer)  return INT;
+            if (sample instanceof Long)     return LONG;
+            if (sample instanceof Boolean)  return BOOL;
+            if (sample instanceof List<?>)  return LIST;
+            return TEXT;
+        }
+    }
+
+    private final SandSimPlugin plugin;
+    private final File databaseFile;
+    /** Serialized field name → column type, in a stable order. */
+    private final Map<String, ColumnType> columns;
+    private final String upsertSql;
+    private Connection connection;
+
+    public SqlPlayerDataStore(SandSimPlugin plugin) {
+        this.plugin = plugin;
+        this.databaseFile = new File(plugin.getDataFolder(), "playerdata.db");
+        this.columns = new LinkedHashMap<>();
+
+        Map<String, Object> sample = new TreeMap<>(new PlayerData(new UUID(0L, 0L)).serialize());
+        columns.put("uuid", ColumnType.TEXT);
+        for (Map.Entry<String, Object> entry : sample.entrySet()) {
+            if (!entry.getKey().equals("uuid")) columns.put(entry.getKey(), ColumnType.of(entry.getValue()));
+        }
+
+        List<String> names = new ArrayList<>(columns.keySet());
+        for (LeaderboardType type : LeaderboardType.values()) names.add(scoreColumn(type));
+        this.upsertSql = "INSERT OR REPLACE INTO " + TABLE + " (" + quoteAll(names) + ") VALUES ("
+                + String.join(", ", Collections.nCopies(names.size(), "?")) + ")";
+
+        try {
+            open();
+        } catch (SQLException e) {
+            throw new IllegalStateException("Could not open " + databaseFile.getName() + ": " + e.getMessage(), e);
+        }
+    }
+
+    // ── Schema ────────────────────────────────────────────────────────────────
+
+    private void open() throws SQLException {
+        databaseFile.getParentFile().mkdirs();
+        connection = DriverManager.getConnection("jdbc:sqlite:" + databaseFile.getAbsolutePath());
+        try (Statement st = connection.createStatement()) {
+            st.execute("PRAGMA journal_mode=WAL");
+            st.execute("PRAGMA synchronous=NORMAL");
+
+            StringBuilder ddl = new StringBuilder("CREATE TABLE IF NOT EXISTS " + TABLE + " (");
+            for (Map.Entry<String, ColumnType> col : columns.entrySet()) {
+                ddl.append(quote(col.getKey())).append(' ').append(col.getValue().sqlType);
+                if (col.getKey().equals("uuid")) ddl.append(" PRIMARY KEY");
+                ddl.append(", ");
+            }
+            for (LeaderboardType type : LeaderboardType.values()) {
+                ddl.append(quote(scoreColumn(type))).append(" REAL NOT NULL DEFAULT 0, ");
+            }
+            ddl.setLength(ddl.length() - 2);
+            st.execute(ddl.append(')').toString());
+        }
+
+        addMissingColumns();
+
+        try (Statement st = connection.createStatement()) {
+            for (LeaderboardType type : LeaderboardType.values()) {
+                String col = scoreColumn(type);
+                st.execute("CREATE INDEX IF NOT EXISTS idx_" + col + " ON " + TABLE + " (" + quote(col) + " DESC)");
+            }
+        }
+    }
+
+    /** Adds columns for fields introduced after the table was created. */
+    private void addMissingColumns() throws SQLException {
+        Set<String> existing = new HashSet<>();
+        try (Statement st = connection.createStatement();
+             ResultSet rs = st.executeQuery("PRAGMA table_info(" + TABLE + ")")) {
+            while (rs.next()) existing.add(rs.getString("name").toLowerCase(Locale.ROOT));
+        }
+        try (Statement st = connection.createStatement()) {
+            for (Map.Entry<String, ColumnType> col : columns.entrySet()) {
+                if (existing.contains(col.getKey().toLowerCase(Locale.ROOT))) continue;
+                st.execute("ALTER TABLE " + TABLE + " ADD COLUMN " + quote(col.getKey()) + " " + col.getValue().sqlType);
+                plugin.getLogger().info("Added column '" + col.getKey() + "' to " + TABLE);
+            }
+        }
+    }
+
+    // ── PlayerDataStore ───────────────────────────────────────────────────────
+
+    @Override
+    public String getName() {
+        return "sqlite";
+    }
+
+    @Override
+    public synchronized PlayerData load(UUID uuid) {
+        try (PreparedStatement ps = connection.prepareStatement(
+                "SELECT * FROM " + TABLE + " WHERE \"uuid\" = ?")) {
+            ps.setString(1, uuid.toString());
+            try (ResultSet rs = ps.executeQuery()) {
+                return rs.next() ? read(rs) : null;
+            }
+        } catch (SQLException e) {
+            throw new StorageException("Could not load player data for " + uuid + ": " + e.getMessage(), e);
+        }
+    }
+
+    @Override
+    public boolean save(PlayerData data) {
+        return saveAll(Collections.singletonList(data));
+    }
+
+    @Override
+    public synchronized boolean saveAll(Collection<PlayerData> data) {
+        if (data.isEmpty()) return true;
+        // A quit save still in flight at shutdown; the shutdown save already wrote it
+        if (connection == null) return false;
+        try {
+            connection.setAutoCommit(false);
+            try (PreparedStatement ps = connection.prepareStatement(upsertSql)) {
+                for (PlayerData pd : data) {
+                    bind(ps, pd);
+                    ps.addBatch();
+                }
+                ps.executeBatch();
+                connection.commit();
+                return true;
+            } catch (SQLException e) {
+                connection.rollback();
+                throw e;
+            } finally {
+                connection.setAutoCommit(true);
+            }
+        } catch (SQLException e) {
+            plugin.getLogger().severe("Could not save " + data.size() + " player record(s): " + e.getMessage());
+            return false;
+        }
+    }
+
+    /**
+     * Pages through the table in key order. The connection is only held while
+     * a page is read and {@code action} runs unlocked, so loads and quit saves
+     * interleave with a full scan instead of waiting for it.
+     */
+    @Override
+    public int forEach(Consumer<PlayerData> action) {
+        List<PlayerData> page = new ArrayList<>(SCAN_PAGE);
+        int[] skipped = {0};
+        String after = "";
+        while (after != null) {
+            page.clear();
+            after = readPage(after, page, skipped);
+            for (PlayerData data : page) action.accept(data);
+        }
+        return skipped[0];
+    }
+
+    /**
+     * Reads up to {@link #SCAN_PAGE} rows keyed after {@code after} into
+     * {@code page}, counting rows that cannot be parsed in {@code skipped}.
+     * Returns the last key read, or {@code null} once the table is exhausted.
+     */
+    private synchronized String readPage(String after, List<PlayerData> page, int[] skipped) {
+        try (PreparedStatement ps = connection.prepareStatement(
+                "SELECT * FROM " + TABLE + " WHERE \"uuid\" > ? ORDER BY \"uuid\" LIMIT ?")) {
+            ps.setString(1, after);
+            ps.setInt(2, SCAN_PAGE);
+            String last = null;
+            int rows = 0;
+            try (ResultSet rs = ps.executeQuery()) {
+                while (rs.next()) {
+                    last = rs.getString("uuid");
+                    rows++;
+                    try {
+                        page.add(read(rs));
+                    } catch (RuntimeException e) {
+                        plugin.getLogger().severe("Could not parse player data for " + last + ": " + e.getMessage());
+                        skipped[0]++;
+                    }
+                }
+            }
+            return rows < SCAN_PAGE ? null : last;
+        } catch (SQLException e) {
+            throw new StorageException("Could not scan player data: " + e.getMessage(), e);
+        }
+    }
+
+    @Override
+    public synchronized List<PlayerData> top(LeaderboardType type, int limit) {
+        List<PlayerData> result = new ArrayList<>();
+        if (limit <= 0) return result;
+        try (PreparedStatement ps = connection.prepareStatement(
+                "SELECT * FROM " + TABLE + " ORDER BY " + quote(scoreColumn(type)) + " DESC LIMIT ?")) {
+            ps.setInt(1, limit);
+            try (ResultSet rs = ps.executeQuery()) {
+                while (rs.next()) result.add(read(rs));
+            }
+        } catch (SQLException e) {
+            plugin.getLogger().severe("Could not query " + type + " leaderboard: " + e.getMessage());
+        }
+        return result;
+    }
+
+    @Override
+    public synchronized void close() {
+        if (connection == null) return;
+        try {
+            connection.close();
+        } catch (SQLException e) {
+            plugin.getLogger().warning("Could not close " + databaseFile.getName() + ": " + e.getMessage());
+        }
+        connection = null;
+    }
+
+    // ── Row mapping ───────────────────────────────────────────────────────────
+
+    private void bind(PreparedStatement ps, PlayerData data) throws SQLException {
+        Map<String, Object> values = data.serialize();
+        int i = 1;
+        for (Map.Entry<String, ColumnType> col : columns.entrySet()) {
+            Object value = values.get(col.getKey());
+            switch (col.getValue()) {
+                case INT  -> ps.setInt(i, value instanceof Number n ? n.intValue() : 0);
+                case LONG -> ps.setLong(i, value instanceof Number n ? n.longValue() : 0L);
+                case BOOL -> ps.setInt(i, Boolean.TRUE.equals(value) ? 1 : 0);
+                case LIST -> ps.setString(i, value instanceof List<?> list ? joinList(list) : "");
+                case TEXT -> ps.setString(i, value != null ? value.toString() : null);
+            }
+            i++;
+        }
+        for (LeaderboardType type : LeaderboardType.values()) {
+            ps.setDouble(i++, score(data, type));
+        }
+    }
+
+    /** Rebuilds the map {@link PlayerData#deserialize(Map)} expects, with the same Java types. */
+    private PlayerData read(ResultSet rs) throws SQLException {
+        Map<String, Object> values = new HashMap<>();
+        for (Map.Entry<String, ColumnType> col : columns.entrySet()) {
+            String name = col.getKey();
+            switch (col.getValue()) {
+                case INT  -> { int v = rs.getInt(name);          if (!rs.wasNull()) values.put(name, v); }
+                case LONG -> { long v = rs.getLong(name);        if (!rs.wasNull()) values.put(name, v); }
+                case BOOL -> { int v = rs.getInt(name);          if (!rs.wasNull()) values.put(name, v != 0); }
+                case LIST -> values.put(name, splitList(rs.getString(name)));
+                case TEXT -> { String v = rs.getString(name);    if (v != null) values.put(name, v); }
+            }
+        }
+        return PlayerData.deserialize(values);
+    }
+
+    private static double score(PlayerData data, LeaderboardType type) {
+        return switch (type) {
+            case SAND      -> data.getSand().doubleValue();
+            case GEMS      -> data.getGems().doubleValue();
+            case SANDBUCKS -> data.getSandbucks().doubleValue();
+            case REBIRTHS  -> (double) data.getRebirths();
+        };
+    }
+
+    private static String scoreColumn(LeaderboardType type) {
+        return type.name().toLowerCase(Locale.ROOT) + "_score";
+    }
+
+    private static String joinList(List<?> list) {
+        StringJoiner joiner = new StringJoiner(",");
+        for (Object o : list) joiner.add(String.valueOf(o));
+        return joiner.toString();
+    }
+
+    private static List<String> splitList(String raw) {
+        if (raw == null || raw.isEmpty()) return new ArrayList<>();
+        return new ArrayList<>(Arrays.asList(raw.split(",")));
+    }
+
+    private static String quote(String identifier) {
+        return "\"" + identifier + "\"";
+    }
+
+    private static String quoteAll(List<String> identifiers) {
+        StringJoiner joiner = new StringJoiner(", ");
+        for (String id : identifiers) joiner.add(quote(id));
+        return joiner.toString();
+    }
+}
@@ -0,0 +1,17 @@
+package com.pallux.sandsim.data.storage;
+
+/**
+ * A stored record exists but could not be read. Unlike a {@code null} from
+ * {@link PlayerDataStore#load}, this never means the player has no data, so
+ * callers must not replace the record with a new one.
+ */
+public class StorageException extends RuntimeException {
+
+    public StorageException(String message) {
+        super(message);
+    }
+
+    public StorageException(String message, Throwable cause) {
+        super(message, cause);
+    }
+}
@@ -0,0 +1,67 @@
+package com.pallux.sandsim.data.storage;
+
+import com.pallux.sandsim.data.PlayerData;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.logging.Logger;
+
+/**
+ * One-shot copy of every record from one {@link PlayerDataStore} to another.
+ * Records are streamed and written in batches, so memory stays bounded even
+ * for very large player bases. Existing records in the target are overwritten.
+ */
+public final class StorageMigrator {
+
+    private static final int BATCH_SIZE = 500;
+
+    private StorageMigrator() {}
+
+    /** How many records were copied and how many could not be read or written. */
+    public static final class Result {
+        public final int copied;
+        public final int failed;
+
+        Result(int copied, int failed) {
+            this.copied = copied;
+            this.failed = failed;
+        }
+    }
+
+    public static Result migrate(PlayerDataStore from, PlayerDataStore to, Logger logger) {
+        List<PlayerData> batch = new ArrayList<>(BATCH_SIZE);
+        int[] counts = {0, 0}; // copied, failed
+
+        int unreadable = from.forEach(data -> {
+            batch.add(data);
+            if (batch.size() >= BATCH_SIZE) {
+                write(to, batch, counts);
+                batch.clear();
+                logger.info("Migrated " + counts[0] + " player records (" + counts[1] + " failed)...");
+            }
+        });
+        if (!batch.isEmpty()) write(to, batch, counts);
+        // Records the source could not read were not copied either
+        counts[1] += unreadable;
+
+        if (counts[1] > 0) {
+            logger.severe("Migrated " + counts[0] + " player records from " + from.getName() + " to " + to.getName()
+                    + ", but " + counts[1] + " could not be copied (" + unreadable + " unreadable in the source).");
+        } else {
+            logger.info("Migrated " + counts[0] + " player records from " + from.getName() + " to " + to.getName() + ".");
+        }
+        return new Result(counts[0], counts[1]);
+    }
+
+    /** Writes a batch; if that fails, retries record by record so only the bad ones count as failed. */
+    private static void write(PlayerDataStore to, List<PlayerData> batch, int[] counts) {
+        if (to.saveAll(batch)) {
+            counts[0] += batch.size();
+            return;
+        }
+        for (PlayerData data : batch) {
+            if (to.save(data)) counts[0]++;
+            else counts[1]++;
+        }
+    }
+}
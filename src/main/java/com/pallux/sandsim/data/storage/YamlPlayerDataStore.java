@@ -0,0 +1,366 @@
+package com.pallux.sandsim.data.storage;
+
+import com.pallux.sandsim.SandSimPlugin;
+import com.pallux.sandsim.data.PlayerData;
+import com.pallux.sandsim.manager.LeaderboardManager;
+import com.pallux.sandsim.manager.LeaderboardManager.LeaderboardType;
+import org.bukkit.configuration.ConfigurationSection;
+import org.bukkit.configuration.InvalidConfigurationException;
+import org.bukkit.configuration.file.YamlConfiguration;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.CharacterCodingException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.*;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Consumer;
+import java.util.zip.CRC32;
+
+/**
+ * Legacy backend: one {@code playerdata/<uuid>.yml} file per player.
+ * Scans and top-N queries open and parse every file.
+ *
+ * <p>Writes are crash-safe: the new content goes to {@code <uuid>.yml.tmp}
+ * (optionally fsynced), the previous file is rotated into
+ * {@code playerdata/backups/}, and the temp file is atomically renamed into
+ * place. Every file ends with a CRC32 trailer. If the main file is missing or
+ * corrupt, {@link #load(UUID)} falls back to a complete temp file and then to
+ * the newest valid backup. Corrupt files are moved to {@code playerdata/corrupt/}
+ * rather than ever being overwritten.
+ */
+public class YamlPlayerDataStore implements PlayerDataStore {
+
+    private static final String EXTENSION   = ".yml";
+    private static final String TMP_SUFFIX  = ".tmp";
+    private static final String CRC_TRAILER = "# crc32: ";
+    private static final int    LOCK_STRIPES = 64;
+
+    private final SandSimPlugin plugin;
+    private final File dataFolder;
+    private final File backupFolder;
+    /** Unreadable files are moved here instead of being overwritten. */
+    private final File corruptFolder;
+    /** Force temp files to disk before they replace the live file. */
+    private final boolean fsync;
+    /** Previous generations kept per player; 0 disables backups. */
+    private final int backups;
+    private final Object[] locks = new Object[LOCK_STRIPES];
+    private final AtomicLong bytesWritten = new AtomicLong();
+
+    public YamlPlayerDataStore(SandSimPlugin plugin) {
+        this.plugin = plugin;
+        this.dataFolder = new File(plugin.getDataFolder(), "playerdata");
+        this.backupFolder = new File(dataFolder, "backups");
+        this.corruptFolder = new File(dataFolder, "corrupt");
+        if (!dataFolder.exists()) dataFolder.mkdirs();
+
+        ConfigurationSection cfg = plugin.getConfigManager().getMainConfig().getConfigurationSection("storage.yaml");
+        this.fsync   = cfg == null || cfg.getBoolean("fsync", true);
+        this.backups = cfg == null ? 2 : Math.max(0, cfg.getInt("backups", 2));
+        if (backups > 0 && !backupFolder.exists()) backupFolder.mkdirs();
+        for (int i = 0; i < locks.length; i++) locks[i] = new Object();
+    }
+
+    @Override
+    public String getName() {
+        return "yaml";
+    }
+
+    // ── Loading & recovery ────────────────────────────────────────────────────
+
+    /**
+     * Returns null only if the player has no files at all. An I/O error is
+     * treated as transient and thrown without touching the files. If files
+     * exist but none of them can be parsed, they are moved to
+     * {@code playerdata/corrupt/} and the load fails, so neither a blank
+     * record nor the backup rotation can overwrite them.
+     */
+    @Override
+    public PlayerData load(UUID uuid) {
+        // Saves rotate these files; hold the player's stripe so the set is stable
+        synchronized (lockFor(uuid)) {
+            File playerFile = playerFile(uuid);
+            File tmpFile    = tmpFile(uuid);
+            List<File> candidates = new ArrayList<>();
+            candidates.add(playerFile);
+            candidates.add(tmpFile);
+            for (int gen = 1; gen <= backups; gen++) candidates.add(backupFile(uuid, gen));
+
+            try {
+                PlayerData data = tryRead(uuid, playerFile, false);
+                if (data != null) return data;
+
+                // The temp file only counts if its trailer proves it was fully written
+                data = tryRead(uuid, tmpFile, true);
+                if (data != null) return recovered(data, tmpFile, playerFile);
+
+                for (int gen = 1; gen <= backups; gen++) {
+                    File backup = backupFile(uuid, gen);
+                    data = tryRead(uuid, backup, false);
+                    if (data != null) return recovered(data, backup, playerFile);
+                }
+            } catch (IOException e) {
+                throw new StorageException("Could not read player data for " + uuid + ": " + e.getMessage(), e);
+            }
+
+            candidates.removeIf(file -> !file.exists());
+            if (candidates.isEmpty()) return null;
+
+            int moved = quarantine(candidates);
+            throw new StorageException("No readable player data for " + uuid + " (main file, temp file and backups are all corrupt); moved "
+                    + moved + " file(s) to " + corruptFolder.getPath() + ".");
+        }
+    }
+
+    /**
+     * A copy other than the main file was used. A corrupt main file is moved
+     * aside, so the next save does not rotate it into the backups.
+     */
+    private PlayerData recovered(PlayerData data, File source, File playerFile) {
+        plugin.getLogger().warning("Recovered player data for " + data.getUuid() + " from " + source.getName() + ".");
+        if (playerFile.exists()) quarantine(List.of(playerFile));
+        // Rewrite the main file on the next save
+        data.markDirty();
+        return data;
+    }
+
+    /** Moves unreadable files into {@code playerdata/corrupt/}, timestamped. Returns how many were moved. */
+    private int quarantine(List<File> files) {
+        corruptFolder.mkdirs();
+        String stamp = String.valueOf(System.currentTimeMillis());
+        int moved = 0;
+        for (File file : files) {
+            File target = new File(corruptFolder, file.getName() + "." + stamp);
+            try {
+                move(file.toPath(), target.toPath());
+                moved++;
+                plugin.getLogger().severe("Moved unreadable " + file.getName() + " to " + target.getPath() + ".");
+            } catch (IOException e) {
+                plugin.getLogger().severe("Could not move unreadable " + file.getName() + " aside: " + e.getMessage());
+            }
+        }
+        return moved;
+    }
+
+    /**
+     * Parses a player file strictly. Returns {@code null} if it is missing,
+     * fails its CRC trailer, is not valid YAML or UTF-8, or does not belong to
+     * {@code uuid}. Files written before CRC trailers existed are accepted
+     * unless {@code requireCrc} is set.
+     *
+     * @throws IOException if the file could not be read at all, which says
+     *         nothing about its contents
+     */
+    private PlayerData tryRead(UUID uuid, File file, boolean requireCrc) throws IOException {
+        if (!file.exists()) return null;
+        String content;
+        try {
+            content = Files.readString(file.toPath(), StandardCharsets.UTF_8);
+        } catch (CharacterCodingException e) {
+            plugin.getLogger().warning(file.getName() + " is not valid UTF-8, ignoring it.");
+            return null;
+        } catch (NoSuchFileException e) {
+            return null;
+        }
+
+        try {
+            String body = content;
+
+            int trailer = content.lastIndexOf(CRC_TRAILER);
+            if (trailer >= 0) {
+                body = content.substring(0, trailer);
+                String expected = content.substring(trailer + CRC_TRAILER.length()).trim();
+                if (!expected.equals(crc(body))) {
+                    plugin.getLogger().warning("Checksum mismatch in " + file.getName() + ", ignoring it.");
+                    return null;
+                }
+            } else if (requireCrc) {
+                return null;
+            }
+
+            YamlConfiguration config = new YamlConfiguration();
+            config.loadFromString(body);
+            if (!uuid.toString().equals(config.getString("uuid"))) {
+                plugin.getLogger().warning("Player file " + file.getName() + " is incomplete or belongs to another player, ignoring it.");
+                return null;
+            }
+
+            Map<String, Object> data = new HashMap<>();
+            for (String key : config.getKeys(false)) {
+                data.put(key, config.get(key));
+            }
+            return PlayerData.deserialize(data);
+        } catch (InvalidConfigurationException | RuntimeException e) {
+            plugin.getLogger().warning("Could not parse " + file.getName() + ": " + e.getMessage());
+            return null;
+        }
+    }
+
+    // ── Writing ───────────────────────────────────────────────────────────────
+
+    @Override
+    public boolean save(PlayerData data) {
+        return saveAll(Collections.singletonList(data));
+    }
+
+    /**
+     * Writes and swaps in each player's file; the directory entry updates of
+     * the whole batch are then flushed with a single fsync. A failure only
+     * affects its own player.
+     */
+    @Override
+    public boolean saveAll(Collection<PlayerData> data) {
+        boolean ok = true;
+        int written = 0;
+        for (PlayerData pd : data) {
+            // Quit saves (main thread) and autosave (async) may race on one player
+            synchronized (lockFor(pd.getUuid())) {
+                try {
+                    writeTemp(pd);
+                    commit(pd.getUuid());
+                    written++;
+                } catch (IOException e) {
+                    plugin.getLogger().severe("Could not save player data for " + pd.getUuid() + ": " + e.getMessage());
+                    ok = false;
+                }
+            }
+        }
+        if (fsync && written > 0) syncDirectory();
+        return ok;
+    }
+
+    private void writeTemp(PlayerData data) throws IOException {
+        YamlConfiguration config = new YamlConfiguration();
+        for (Map.Entry<String, Object> entry : data.serialize().entrySet()) {
+            config.set(entry.getKey(), entry.getValue());
+        }
+        String body = config.saveToString();
+        byte[] bytes = (body + CRC_TRAILER + crc(body) + "\n").getBytes(StandardCharsets.UTF_8);
+
+        try (FileChannel channel = FileChannel.open(tmpFile(data.getUuid()).toPath(),
+                StandardOpenOption.CREATE, StandardOpenOption.WRITE, StandardOpenOption.TRUNCATE_EXISTING)) {
+            ByteBuffer buffer = ByteBuffer.wrap(bytes);
+            while (buffer.hasRemaining()) channel.write(buffer);
+            if (fsync) channel.force(false);
+        }
+        bytesWritten.addAndGet(bytes.length);
+    }
+
+    /** Rotates backups, then atomically replaces the live file with the temp file. */
+    private void commit(UUID uuid) throws IOException {
+        Path live = playerFile(uuid).toPath();
+        if (backups > 0 && Files.exists(live)) {
+            Files.deleteIfExists(backupFile(uuid, backups).toPath());
+            for (int gen = backups - 1; gen >= 1; gen--) {
+                Path older = backupFile(uuid, gen).toPath();
+                if (Files.exists(older)) move(older, backupFile(uuid, gen + 1).toPath());
+            }
+            // Copy rather than move, so a live file exists at every instant
+            Files.copy(live, backupFile(uuid, 1).toPath(), StandardCopyOption.REPLACE_EXISTING);
+        }
+        move(tmpFile(uuid).toPath(), live);
+    }
+
+    private static void move(Path from, Path to) throws IOException {
+        try {
+            Files.move(from, to, StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+        } catch (AtomicMoveNotSupportedException e) {
+            Files.move(from, to, StandardCopyOption.REPLACE_EXISTING);
+        }
+    }
+
+    /** Persists the renames themselves. Not supported on every platform, so failures are ignored. */
+    private void syncDirectory() {
+        try (FileChannel dir = FileChannel.open(dataFolder.toPath(), StandardOpenOption.READ)) {
+            dir.force(true);
+        } catch (IOException ignored) {}
+    }
+
+    // ── Scans ─────────────────────────────────────────────────────────────────
+
+    @Override
+    public int forEach(Consumer<PlayerData> action) {
+        if (!dataFolder.isDirectory()) return 0;
+        File[] files = dataFolder.listFiles((dir, name) -> name.endsWith(EXTENSION) || name.endsWith(EXTENSION + TMP_SUFFIX));
+        if (files == null) throw new StorageException("Could not list " + dataFolder.getPath() + ".");
+        // A player left with only a temp file after a crash is still visited once
+        Set<UUID> seen = new LinkedHashSet<>();
+        for (File file : files) {
+            String name = file.getName();
+            try {
+                seen.add(UUID.fromString(name.substring(0, name.indexOf(EXTENSION))));
+            } catch (IllegalArgumentException ignored) {}
+        }
+        int skipped = 0;
+        for (UUID uuid : seen) {
+            PlayerData data;
+            try {
+                data = load(uuid);
+            } catch (StorageException e) {
+                plugin.getLogger().severe(e.getMessage());
+                skipped++;
+                continue;
+            }
+            if (data != null) action.accept(data);
+        }
+        return skipped;
+    }
+
+    @Override
+    public List<PlayerData> top(LeaderboardType type, int limit) {
+        if (limit <= 0) return new ArrayList<>();
+        // Bounded min-heap: the weakest of the current top sits at the head
+        Comparator<PlayerData> byValue = Comparator.comparing(pd -> LeaderboardManager.getValue(pd, type));
+        PriorityQueue<PlayerData> heap = new PriorityQueue<>(limit + 1, byValue);
+        forEach(pd -> {
+            heap.offer(pd);
+            if (heap.size() > limit) heap.poll();
+        });
+        List<PlayerData> result = new ArrayList<>(heap);
+        result.sort(byValue.reversed());
+        return result;
+    }
+
+    @Override
+    public long getBytesWritten() {
+        return bytesWritten.get();
+    }
+
+    @Override
+    public void close() {
+        // Nothing held open between calls
+    }
+
+    // ── Helpers ───────────────────────────────────────────────────────────────
+
+    private File playerFile(UUID uuid) {
+        return new File(dataFolder, uuid + EXTENSION);
+    }
+
+    private File tmpFile(UUID uuid) {
+        return new File(dataFolder, uuid + EXTENSION + TMP_SUFFIX);
+    }
+
+    private File backupFile(UUID uuid, int generation) {
+        return new File(backupFolder, uuid + EXTENSION + "." + generation);
+    }
+
+    private Object lockFor(UUID uuid) {
+        return locks[Math.floorMod(uuid.hashCode(), LOCK_STRIPES)];
+    }
+
+    private static String crc(String body) {
+        CRC32 crc = new CRC32();
+        crc.update(body.getBytes(StandardCharsets.UTF_8));
+        return Long.toHexString(crc.getValue());
+    }
+}
@@ -2,19 +2,67 @@ package com.pallux.sandsim.expansion;
 
 import com.pallux.sandsim.SandSimPlugin;
 import com.pallux.sandsim.data.PlayerData;
+import com.pallux.sandsim.manager.LeaderboardManager;
+import com.pallux.sandsim.manager.LeaderboardManager.LeaderboardType;
+import com.pallux.sandsim.manager.PerfManager;
 import com.pallux.sandsim.utils.NumberFormatter;
 import me.clip.placeholderapi.expansion.PlaceholderExpansion;
 import org.bukkit.OfflinePlayer;
+import org.bukkit.configuration.ConfigurationSection;
+import org.bukkit.configuration.file.FileConfiguration;
 import org.jetbrains.annotations.NotNull;
 
-import java.math.BigDecimal;
-
+import java.util.HashMap;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * The {@code %sandsim_*%} placeholders. Scoreboard and tab plugins poll these
+ * for every player every few ticks, so results are cached per player and
+ * placeholder. A result is reused until its TTL runs out or the player's
+ * data changes ({@link PlayerData#getVersion()} moves on every balance,
+ * upgrade or level change), so the TTL only bounds how stale values that
+ * depend on time, such as event boosts and ranks, can get.
+ *
+ * Offline players whose data is not loaded are served their last cached
+ * values, or "" if there are none. Placeholders never load or create records,
+ * so a scoreboard listing offline players cannot fill the data cache.
+ */
 public class SandSimExpansion extends PlaceholderExpansion {
 
+    /** Minimum time between sweeps of long-unused cache entries. */
+    private static final long SWEEP_INTERVAL_MILLIS = 60_000L;
+
     private final SandSimPlugin plugin;
+    /** Player → placeholder as requested → result. PlaceholderAPI may call in from any thread. */
+    private final Map<UUID, Map<String, CachedValue>> cache = new ConcurrentHashMap<>();
+
+    private volatile boolean cacheEnabled;
+    private volatile long defaultTtlMillis;
+    private volatile Map<String, Long> ttlMillis = Map.of();
+    private volatile long retentionMillis;
+    private volatile long nextSweep;
 
     public SandSimExpansion(SandSimPlugin plugin) {
         this.plugin = plugin;
+        loadConfig();
+    }
+
+    /** Reads {@code placeholders.cache} from config.yml and drops every cached result. */
+    public void loadConfig() {
+        FileConfiguration config = plugin.getConfigManager().getMainConfig();
+        cacheEnabled     = config.getBoolean("placeholders.cache.enabled", true);
+        defaultTtlMillis = Math.max(0L, config.getLong("placeholders.cache.default-ttl-millis", 1000L));
+        retentionMillis  = Math.max(0L, config.getLong("placeholders.cache.offline-retention-seconds", 600L)) * 1000L;
+
+        Map<String, Long> overrides = new HashMap<>();
+        ConfigurationSection section = config.getConfigurationSection("placeholders.cache.ttl-millis");
+        if (section != null) {
+            for (String key : section.getKeys(false)) overrides.put(key.toLowerCase(), Math.max(0L, section.getLong(key)));
+        }
+        ttlMillis = overrides;
+        cache.clear();
     }
 
     @Override public @NotNull String getIdentifier() { return "sandsim"; }
@@ -24,11 +72,44 @@ public class SandSimExpansion extends PlaceholderExpansion {
 
     @Override
     public String onRequest(OfflinePlayer player, @NotNull String params) {
+        PerfManager perf = plugin.getPerfManager();
+        long start = perf.start();
+        String value = resolve(player, params);
+        perf.stop(PerfManager.Metric.PLACEHOLDER, start);
+        return value;
+    }
+
+    private String resolve(OfflinePlayer player, String params) {
         if (player == null) return "";
 
-        PlayerData data = plugin.getDataManager().getPlayerData(player.getUniqueId());
+        UUID uuid = player.getUniqueId();
+        long now  = System.currentTimeMillis();
+        sweep(now);
+        CachedValue cached = cacheEnabled ? lookup(uuid, params) : null;
+        if (cached != null && cached.data == null && now < cached.expiresAt) return cached.value;
+
+        // Rank placeholders only read the leaderboard index, so they work for
+        // offline players without loading their data.
+        String key = params.toLowerCase();
+        if (key.startsWith("rank_") || key.startsWith("percentile_")) {
+            return store(uuid, params, key, null, 0L, now, rankPlaceholder(player, key));
+        }
+
+        PlayerData data = player.isOnline()
+                ? plugin.getDataManager().getPlayerData(uuid)
+                : plugin.getDataManager().getPlayerDataIfLoaded(uuid);
+        if (data == null) return cached != null ? cached.value : "";
+
+        // Captured before computing, so a change made meanwhile invalidates the result
+        long version = data.getVersion();
+        if (cached != null && cached.data == data && cached.version == version && now < cached.expiresAt) {
+            return cached.value;
+        }
+        return store(uuid, params, key, data, version, now, playerPlaceholder(data, key));
+    }
 
-        return switch (params.toLowerCase()) {
+    private String playerPlaceholder(PlayerData data, String key) {
+        return switch (key) {
             case "sand"      -> NumberFormatter.format(data.getSand());
             case "gems"      -> NumberFormatter.format(data.getGems());
             case "sandbucks" -> NumberFormatter.format(data.getSandbucks());
@@ -36,33 +117,22 @@ public class SandSimExpansion extends PlaceholderExpansion {
 
             case "multiplier" -> {
                 double mult = plugin.getRebirthManager().getRebirthMultiplier(data);
-                yield NumberFormatter.format(BigDecimal.valueOf(mult)) + "x";
+                yield NumberFormatter.format(mult) + "x";
             }
 
             case "overall_multiplier" -> {
-                double sandUpgrade    = plugin.getUpgradeManager().getSandMultiplier(data);
-                double rebirthMult    = plugin.getRebirthManager().getRebirthMultiplier(data);
-                double eventBonus     = plugin.getEventManager().getSandBonus();
-                double augmentMult    = plugin.getAugmentManager().getSandMultiplier(data);
-                double skillSandMult  = plugin.getSkillManager().getSandMultiplier(data);
-                double total          = sandUpgrade * rebirthMult * (1.0 + eventBonus)
-                        * augmentMult * skillSandMult;
-                yield NumberFormatter.format(BigDecimal.valueOf(total)) + "x";
+                double total = plugin.getMultiplierManager().get(data).getSand();
+                yield NumberFormatter.format(total) + "x";
             }
 
             case "overall_gems_multiplier" -> {
-                double augmentMult   = plugin.getAugmentManager().getGemsMultiplier(data);
-                double skillGemsMult = plugin.getSkillManager().getGemsMultiplier(data);
-                double gemUpgrade    = plugin.getUpgradeManager().getGemMultiplier(data);
-                double total         = gemUpgrade * augmentMult * skillGemsMult;
-                yield NumberFormatter.format(BigDecimal.valueOf(total)) + "x";
+                double total = plugin.getMultiplierManager().get(data).getGems();
+                yield NumberFormatter.format(total) + "x";
             }
 
             case "overall_sandbucks_multiplier" -> {
-                double augmentMult  = plugin.getAugmentManager().getSandbucksMultiplier(data);
-                double skillSbMult  = plugin.getSkillManager().getSandbucksMultiplier(data);
-                double total        = augmentMult * skillSbMult;
-                yield NumberFormatter.format(BigDecimal.valueOf(total)) + "x";
+                double total = plugin.getMultiplierManager().get(data).getSandbucks();
+                yield NumberFormatter.format(total) + "x";
             }
 
             case "skill_points"          -> String.valueOf(data.getAvailableSkillPoints());
@@ -82,4 +152,75 @@ public class SandSimExpansion extends PlaceholderExpansion {
             default -> null;
         };
     }
+
+    // ── Result cache ──────────────────────────────────────────────────────────
+
+    private CachedValue lookup(UUID uuid, String params) {
+        Map<String, CachedValue> values = cache.get(uuid);
+        return values == null ? null : values.get(params);
+    }
+
+    /** Caches {@code value} unless it is null (unknown placeholder), then returns it. */
+    private String store(UUID uuid, String params, String key, PlayerData data, long version, long now, String value) {
+        if (cacheEnabled && value != null) {
+            long ttl = ttlMillis.getOrDefault(key, defaultTtlMillis);
+            cache.computeIfAbsent(uuid, u -> new ConcurrentHashMap<>())
+                 .put(params, new CachedValue(value, data, version, now, now + ttl));
+        }
+        return value;
+    }
+
+    /** Drops results not recomputed within the retention window, at most once a minute. */
+    private void sweep(long now) {
+        if (now < nextSweep) return;
+        nextSweep = now + SWEEP_INTERVAL_MILLIS;
+        long cutoff = now - retentionMillis;
+        cache.values().removeIf(values -> {
+            values.values().removeIf(v -> v.computedAt < cutoff);
+            return values.isEmpty();
+        });
+    }
+
+    /**
+     * One placeholder result. {@code data} and {@code version} identify the
+     * record it was computed from; {@code data} is null for rank placeholders,
+     * which depend on the leaderboard only.
+     */
+    private static final class CachedValue {
+        final String     value;
+        final PlayerData data;
+        final long       version;
+        final long       computedAt;
+        final long       expiresAt;
+
+        CachedValue(String value, PlayerData data, long version, long computedAt, long expiresAt) {
+            this.value      = value;
+            this.data       = data;
+            this.version    = version;
+            this.computedAt = computedAt;
+            this.expiresAt  = expiresAt;
+        }
+    }
+
+    // ── Rank placeholders ─────────────────────────────────────────────────────
+
+    /** {@code rank_<type>} → "42", {@code percentile_<type>} → "4.2%"; "-" when unranked. */
+    private String rankPlaceholder(OfflinePlayer player, String key) {
+        boolean percentile = key.startsWith("percentile_");
+        String typeName = key.substring(percentile ? "percentile_".length() : "rank_".length());
+        LeaderboardType type;
+        try {
+            type = LeaderboardType.valueOf(typeName.toUpperCase());
+        } catch (IllegalArgumentException e) {
+            return null;
+        }
+
+        LeaderboardManager lb = plugin.getLeaderboardManager();
+        if (!percentile) {
+            int rank = lb.getPlayerRank(player.getUniqueId(), type);
+            return rank > 0 ? String.valueOf(rank) : "-";
+        }
+        double pct = lb.getPercentile(player.getUniqueId(), type);
+        return pct >= 0 ? String.format("%.1f%%", pct) : "-";
+    }
 }
\ No newline at end of file
@@ -2,14 +2,12 @@ package com.pallux.sandsim.gui;
 
 import com.pallux.sandsim.SandSimPlugin;
 import com.pallux.sandsim.utils.ColorUtils;
+import org.bukkit.Material;
 import org.bukkit.Sound;
 import org.bukkit.configuration.file.FileConfiguration;
 import org.bukkit.entity.Player;
 import org.bukkit.event.inventory.InventoryClickEvent;
 
-import java.util.ArrayList;
-import java.util.List;
-
 public class AdminGUI extends BaseGUI {
 
     private static final String SEC = "admin-gui";
@@ -20,22 +18,18 @@ public class AdminGUI extends BaseGUI {
 
     @Override
     protected void setupInventory(Player player) {
-        inventory.clear();
         FileConfiguration cfg = plugin.getConfigManager().getAdminGuiConfig();
         applyFiller(SEC, cfg);
-        inventory.setItem(slotFromConfig(SEC + ".reload",   cfg, 11), itemFromConfig(SEC + ".reload",   cfg));
-        inventory.setItem(slotFromConfig(SEC + ".commands", cfg, 13), itemFromConfig(SEC + ".commands", cfg));
+        setSlot(slotFromConfig(SEC + ".reload",   cfg, 11), template(SEC + ".reload",   cfg, Material.STONE));
+        setSlot(slotFromConfig(SEC + ".commands", cfg, 13), template(SEC + ".commands", cfg, Material.STONE));
 
         String version = plugin.getDescription().getVersion();
         String author  = String.join(", ", plugin.getDescription().getAuthors());
-        List<String> rawLore = cfg.getStringList(SEC + ".info.lore");
-        List<String> infoLore = new ArrayList<>();
-        for (String line : rawLore)
-            infoLore.add(applyPlaceholders(line, "%version%", version, "%author%", author));
-
-        inventory.setItem(slotFromConfig(SEC + ".info", cfg, 15),
-                createItem(parseMaterial(cfg.getString(SEC + ".info.material", "BOOK"), org.bukkit.Material.BOOK),
-                        cfg.getString(SEC + ".info.name", "&a&lPlugin Info"), infoLore));
+        ItemTemplate info = template(cfg, SEC + ".info", () -> ItemTemplate.compile(
+                parseMaterial(cfg.getString(SEC + ".info.material", "BOOK"), Material.BOOK),
+                cfg.getString(SEC + ".info.name", "&a&lPlugin Info"),
+                cfg.getStringList(SEC + ".info.lore")));
+        setSlot(slotFromConfig(SEC + ".info", cfg, 15), info, "%version%", version, "%author%", author);
 
         applyPlaceholderItems(SEC, cfg);
     }
@@ -68,6 +62,7 @@ public class AdminGUI extends BaseGUI {
         player.sendMessage(ColorUtils.colorize(p + "&e/sandsim resetallcurrencies <player> &7- Reset all currencies"));
         player.sendMessage(ColorUtils.colorize(p + "&e/sandsim restart <player> &7- Complete player reset"));
         player.sendMessage(ColorUtils.colorize(p + "&e/sandsim upgrades set <upgrade> <player> <level> &7- Set upgrade level"));
+        player.sendMessage(ColorUtils.colorize(p + "&e/sandsim migrate <yaml|sqlite> <yaml|sqlite> &7- Copy player data between storage backends"));
         player.sendMessage(ColorUtils.colorize(p + "&e/sandsim admin &7- Open admin GUI"));
     }
 }
\ No newline at end of file
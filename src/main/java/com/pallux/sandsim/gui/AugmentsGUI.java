@@ -9,7 +9,6 @@ import org.bukkit.Sound;
 import org.bukkit.configuration.file.FileConfiguration;
 import org.bukkit.entity.Player;
 import org.bukkit.event.inventory.InventoryClickEvent;
-import org.bukkit.inventory.ItemStack;
 
 import java.util.ArrayList;
 import java.util.List;
@@ -42,6 +41,7 @@ public class AugmentsGUI extends BaseGUI {
     private static final int SLOT_BACK = 49;
     private static final int SLOT_NEXT = 53;
 
+    private final int firstPage;
     private int page; // 0-indexed
 
     public AugmentsGUI(SandSimPlugin plugin) {
@@ -50,28 +50,29 @@ public class AugmentsGUI extends BaseGUI {
 
     public AugmentsGUI(SandSimPlugin plugin, int page) {
         super(plugin, SEC, plugin.getConfigManager().getAugmentsGuiConfig());
-        this.page = page;
+        this.firstPage = page;
+        this.page      = page;
+    }
+
+    @Override
+    protected void resetView() {
+        page = firstPage;
     }
 
     // ── Setup ─────────────────────────────────────────────────────────────────
 
     @Override
     protected void setupInventory(Player player) {
-        inventory.clear();
-
         AugmentManager mgr  = plugin.getAugmentManager();
         PlayerData     data = plugin.getDataManager().getPlayerData(player);
         FileConfiguration gui = plugin.getConfigManager().getAugmentsGuiConfig();
 
-        // Tick so all state is current before render
-        mgr.tickResearch(data);
-
         // Fill every slot with filler
-        Material fillerMat = parseMaterial(gui.getString(SEC + ".filler.material", "GRAY_STAINED_GLASS_PANE"),
-                Material.GRAY_STAINED_GLASS_PANE);
-        String   fillerName = gui.getString(SEC + ".filler.name", " ");
-        ItemStack filler = createItem(fillerMat, fillerName);
-        for (int i = 0; i < inventory.getSize(); i++) inventory.setItem(i, filler);
+        ItemTemplate filler = template(gui, SEC + ".filler", () -> ItemTemplate.compile(
+                parseMaterial(gui.getString(SEC + ".filler.material", "GRAY_STAINED_GLASS_PANE"),
+                        Material.GRAY_STAINED_GLASS_PANE),
+                gui.getString(SEC + ".filler.name", " "), null));
+        for (int i = 0; i < inventory.getSize(); i++) setSlot(i, filler);
 
         // Augment items
         int totalTiers  = mgr.getTotalTiers();
@@ -83,38 +84,35 @@ public class AugmentsGUI extends BaseGUI {
             if (tier > totalTiers) break;
             AugmentDefinition def = mgr.getAugment(tier);
             if (def == null) break;
-            inventory.setItem(AUGMENT_SLOTS[i], buildAugmentItem(def, data, mgr, gui));
+            setAugmentItem(AUGMENT_SLOTS[i], def, data, mgr, gui);
         }
 
         // ── Navigation ─────────────────────────────────────────────────────
         if (page > 0) {
-            Material prevMat  = parseMaterial(gui.getString(SEC + ".prev-page.material", "ARROW"), Material.ARROW);
-            String   prevName = gui.getString(SEC + ".prev-page.name", "&c&l← Previous Page");
-            List<String> prevLore = new ArrayList<>();
-            for (String line : gui.getStringList(SEC + ".prev-page.lore"))
-                prevLore.add(applyPlaceholders(line, "%page%", String.valueOf(page)));
-            inventory.setItem(SLOT_PREV, createItem(prevMat, prevName, prevLore.isEmpty() ? null : prevLore));
+            setSlot(SLOT_PREV, navTemplate(gui, "prev-page", Material.ARROW, "&c&l← Previous Page"),
+                    "%page%", String.valueOf(page));
         }
 
-        Material backMat  = parseMaterial(gui.getString(SEC + ".back.material", "BARRIER"), Material.BARRIER);
-        String   backName = gui.getString(SEC + ".back.name", "&c&lBack to Menu");
-        List<String> backLore = gui.getStringList(SEC + ".back.lore");
-        inventory.setItem(SLOT_BACK, createItem(backMat, backName, backLore.isEmpty() ? null : backLore));
+        setSlot(SLOT_BACK, navTemplate(gui, "back", Material.BARRIER, "&c&lBack to Menu"));
 
         if (page < totalPages - 1) {
-            Material nextMat  = parseMaterial(gui.getString(SEC + ".next-page.material", "ARROW"), Material.ARROW);
-            String   nextName = gui.getString(SEC + ".next-page.name", "&a&lNext Page →");
-            List<String> nextLore = new ArrayList<>();
-            for (String line : gui.getStringList(SEC + ".next-page.lore"))
-                nextLore.add(applyPlaceholders(line, "%page%", String.valueOf(page + 2)));
-            inventory.setItem(SLOT_NEXT, createItem(nextMat, nextName, nextLore.isEmpty() ? null : nextLore));
+            setSlot(SLOT_NEXT, navTemplate(gui, "next-page", Material.ARROW, "&a&lNext Page →"),
+                    "%page%", String.valueOf(page + 2));
         }
     }
 
+    private ItemTemplate navTemplate(FileConfiguration gui, String key, Material material, String name) {
+        String path = SEC + "." + key;
+        return template(gui, path, () -> ItemTemplate.compile(
+                parseMaterial(gui.getString(path + ".material", material.name()), material),
+                gui.getString(path + ".name", name),
+                gui.getStringList(path + ".lore")));
+    }
+
     // ── Augment item builder ──────────────────────────────────────────────────
 
-    private ItemStack buildAugmentItem(AugmentDefinition def, PlayerData data,
-                                       AugmentManager mgr, FileConfiguration gui) {
+    private void setAugmentItem(int slot, AugmentDefinition def, PlayerData data,
+                                AugmentManager mgr, FileConfiguration gui) {
         int unlockedTier    = mgr.getUnlockedTier(data);
         int researchingTier = mgr.getResearchingTier(data);
         int tier            = def.getTier();
@@ -128,15 +126,16 @@ public class AugmentsGUI extends BaseGUI {
             case LOCKED      -> "locked";
         };
 
-        Material mat = parseMaterial(
-                gui.getString(SEC + ".states." + stateKey + ".material", defaultMaterial(state)),
-                Material.valueOf(defaultMaterial(state)));
-
-        String nameTemplate = gui.getString(SEC + ".states." + stateKey + ".name",
-                defaultName(state));
-
-        List<String> loreTpl = gui.getStringList(SEC + ".states." + stateKey + ".lore");
-        if (loreTpl.isEmpty()) loreTpl = defaultLore(state);
+        String statePath = SEC + ".states." + stateKey;
+        ItemTemplate item = template(gui, statePath, () -> {
+            List<String> loreTpl = gui.getStringList(statePath + ".lore");
+            if (loreTpl.isEmpty()) loreTpl = defaultLore(state);
+            return ItemTemplate.compile(
+                    parseMaterial(gui.getString(statePath + ".material", defaultMaterial(state)),
+                            Material.valueOf(defaultMaterial(state))),
+                    gui.getString(statePath + ".name", defaultName(state)),
+                    loreTpl);
+        });
 
         long remainingSecs = (state == AugmentState.RESEARCHING)
                 ? mgr.getResearchSecondsRemaining(data) : 0L;
@@ -152,22 +151,11 @@ public class AugmentsGUI extends BaseGUI {
         String uTierStr     = String.valueOf(data.getAugmentUnlockedTier());
         String rTierStr     = String.valueOf(data.getAugmentResearchingTier());
 
-        String name = applyPlaceholders(nameTemplate,
+        setSlot(slot, item,
                 "%name%", nameStr, "%tier%", tierStr,
                 "%sand%", sandStr, "%gems%", gemsStr, "%sandbucks%", sbStr,
                 "%cost%", costStr, "%time%", timeStr, "%remaining%", remainingStr,
                 "%unlocked_tier%", uTierStr, "%researching%", rTierStr);
-
-        List<String> lore = new ArrayList<>();
-        for (String line : loreTpl) {
-            lore.add(applyPlaceholders(line,
-                    "%name%", nameStr, "%tier%", tierStr,
-                    "%sand%", sandStr, "%gems%", gemsStr, "%sandbucks%", sbStr,
-                    "%cost%", costStr, "%time%", timeStr, "%remaining%", remainingStr,
-                    "%unlocked_tier%", uTierStr, "%researching%", rTierStr));
-        }
-
-        return createItem(mat, name, lore.isEmpty() ? null : lore);
     }
 
     /** Formats a percent value: strips trailing .0 for clean display. */
@@ -184,13 +172,13 @@ public class AugmentsGUI extends BaseGUI {
         int slot = event.getSlot();
 
         if (slot == SLOT_BACK) {
-            new MenuGUI(plugin).open(player);
+            plugin.getGuiManager().open(player, MenuGUI.class, MenuGUI::new);
             return;
         }
 
         if (slot == SLOT_PREV && page > 0) {
             page--;
-            setupInventory(player);
+            render(player);
             player.playSound(player.getLocation(), Sound.UI_BUTTON_CLICK, 1.0f, 1.0f);
             return;
         }
@@ -201,7 +189,7 @@ public class AugmentsGUI extends BaseGUI {
                     (int) Math.ceil((double) mgr.getTotalTiers() / AUGMENT_SLOTS.length));
             if (page < totalPages - 1) {
                 page++;
-                setupInventory(player);
+                render(player);
                 player.playSound(player.getLocation(), Sound.UI_BUTTON_CLICK, 1.0f, 1.0f);
             }
             return;
@@ -214,8 +202,6 @@ public class AugmentsGUI extends BaseGUI {
         AugmentManager mgr  = plugin.getAugmentManager();
         PlayerData     data = plugin.getDataManager().getPlayerData(player);
 
-        mgr.tickResearch(data);
-
         AugmentDefinition def = mgr.getAugment(tier);
         if (def == null) return;
 
@@ -228,7 +214,7 @@ public class AugmentsGUI extends BaseGUI {
                             "%augment%", def.getDisplayName(),
                             "%time%", mgr.formatTime(def.getResearchTimeSeconds()));
                     player.playSound(player.getLocation(), Sound.BLOCK_ENCHANTMENT_TABLE_USE, 1.0f, 1.0f);
-                    setupInventory(player);
+                    render(player);
                 } else {
                     plugin.getMessageManager().sendMessage(player, "messages.augment-cannot-afford",
                             "%cost%", String.valueOf(def.getGemCost()));
@@ -1,26 +1,39 @@
 package com.pallux.sandsim.gui;
 
 import com.pallux.sandsim.SandSimPlugin;
+import com.pallux.sandsim.manager.PerfManager;
 import com.pallux.sandsim.utils.ColorUtils;
 import com.pallux.sandsim.utils.NumberFormatter;
-import net.kyori.adventure.text.Component;
 import org.bukkit.Bukkit;
 import org.bukkit.Material;
 import org.bukkit.configuration.file.FileConfiguration;
 import org.bukkit.entity.Player;
+import org.bukkit.event.inventory.ClickType;
 import org.bukkit.event.inventory.InventoryClickEvent;
 import org.bukkit.inventory.Inventory;
 import org.bukkit.inventory.InventoryHolder;
 import org.bukkit.inventory.ItemStack;
-import org.bukkit.inventory.meta.ItemMeta;
-
-import java.util.ArrayList;
-import java.util.List;
 
+import java.util.Arrays;
+import java.util.Objects;
+import java.util.function.Supplier;
+
+/**
+ * Base for the plugin's chest GUIs. Subclasses describe the whole layout in
+ * {@link #setupInventory(Player)} through {@link #setSlot}; {@link #render(Player)}
+ * then compares it with what the inventory already shows and only builds and
+ * sets the slots that changed. Instances are kept per player by
+ * {@link com.pallux.sandsim.manager.GuiManager}, so reopening a menu or
+ * re-rendering after a purchase touches only the slots whose values moved.
+ */
 public abstract class BaseGUI implements InventoryHolder {
 
     protected final SandSimPlugin plugin;
     protected final Inventory inventory;
+    /** What each slot currently shows; {@code null} for empty. */
+    private final SlotContent[] current;
+    /** What the render in progress asked for. */
+    private final SlotContent[] pending;
 
     /**
      * Primary constructor — GUI reads its title and size from the supplied
@@ -34,6 +47,8 @@ public abstract class BaseGUI implements InventoryHolder {
         String title = config.getString(configSection + ".title", "GUI");
         int    size  = config.getInt(configSection + ".size", 54);
         this.inventory = Bukkit.createInventory(this, size, ColorUtils.toComponent(title));
+        this.current   = new SlotContent[inventory.getSize()];
+        this.pending   = new SlotContent[inventory.getSize()];
     }
 
     /**
@@ -47,73 +62,124 @@ public abstract class BaseGUI implements InventoryHolder {
     @Override
     public Inventory getInventory() { return inventory; }
 
+    /** Opens the GUI afresh: paging, tabs and similar view state start over. */
     public void open(Player player) {
-        setupInventory(player);
+        resetView();
+        show(player);
+    }
+
+    /** Renders and opens the inventory, keeping the current view state. */
+    protected void show(Player player) {
+        PerfManager perf = plugin.getPerfManager();
+        long start = perf.start();
+        render(player);
+        perf.stop(PerfManager.Metric.GUI_RENDER, start);
         player.openInventory(inventory);
+        perf.stop(PerfManager.Metric.GUI_OPEN, start);
     }
 
+    /**
+     * Returns view state to where a new instance starts. Instances are reused
+     * across opens, so every {@link #open(Player)} calls this first;
+     * re-renders after a click do not.
+     */
+    protected void resetView() {}
+
+    /** Describes every non-empty slot through {@link #setSlot}. */
     protected abstract void setupInventory(Player player);
     public    abstract void handleClick(InventoryClickEvent event, Player player);
 
-    // ── Filler helper ─────────────────────────────────────────────────────────
+    // ── Rendering ─────────────────────────────────────────────────────────────
 
     /**
-     * Reads filler configuration from whichever config file the subclass uses.
-     * Subclasses should call {@link #applyFiller(String, FileConfiguration)}
-     * with their own config; this overload falls back to gui.yml for backwards
-     * compatibility with MenuGUI.
+     * Re-runs {@link #setupInventory(Player)} and applies the difference:
+     * slots whose template and placeholder values are unchanged keep their
+     * item, changed ones are rebuilt, and slots no longer set are cleared.
      */
-    protected void applyFiller(String configSection) {
-        applyFiller(configSection, plugin.getConfigManager().getGuiConfig());
+    protected void render(Player player) {
+        Arrays.fill(pending, null);
+        setupInventory(player);
+        for (int slot = 0; slot < current.length; slot++) {
+            SlotContent next = pending[slot];
+            if (Objects.equals(next, current[slot])) continue;
+            inventory.setItem(slot, next == null ? null : next.build());
+            current[slot] = next;
+        }
     }
 
-    protected void applyFiller(String configSection, FileConfiguration cfg) {
-        if (!cfg.getBoolean(configSection + ".filler.enabled", false)) return;
-        Material mat = parseMaterial(
-                cfg.getString(configSection + ".filler.material", "GRAY_STAINED_GLASS_PANE"),
-                Material.GRAY_STAINED_GLASS_PANE);
-        ItemStack filler = createItem(mat, " ");
-        for (int slot : cfg.getIntegerList(configSection + ".filler.slots")) {
-            if (slot >= 0 && slot < inventory.getSize()) inventory.setItem(slot, filler);
-        }
+    /** Shows {@code template} in {@code slot}; a later call for the same slot wins. */
+    protected void setSlot(int slot, ItemTemplate template, String... placeholders) {
+        if (slot < 0 || slot >= pending.length) return;
+        pending[slot] = new SlotContent(template, placeholders);
     }
 
-    // ── Item creation helpers ─────────────────────────────────────────────────
+    /**
+     * An item as rendered for one slot. Equal contents always build equal
+     * items, since templates are immutable and cached until reload.
+     */
+    private static final class SlotContent {
+        final ItemTemplate template;
+        final String[] placeholders;
+
+        SlotContent(ItemTemplate template, String[] placeholders) {
+            this.template     = template;
+            this.placeholders = placeholders;
+        }
 
-    protected ItemStack createItem(Material material, String name, List<String> lore) {
-        ItemStack item = new ItemStack(material);
-        ItemMeta  meta = item.getItemMeta();
-        if (meta != null) {
-            meta.displayName(ColorUtils.toComponent(name));
-            if (lore != null && !lore.isEmpty()) {
-                List<Component> cl = new ArrayList<>();
-                for (String line : lore) cl.add(ColorUtils.toComponent(line));
-                meta.lore(cl);
-            }
-            item.setItemMeta(meta);
+        ItemStack build() {
+            return template.render(placeholders);
         }
-        return item;
+
+        @Override
+        public boolean equals(Object o) {
+            return o instanceof SlotContent other
+                    && template == other.template
+                    && Arrays.equals(placeholders, other.placeholders);
+        }
+
+        @Override
+        public int hashCode() {
+            return 31 * System.identityHashCode(template) + Arrays.hashCode(placeholders);
+        }
+    }
+
+    // ── Templates ─────────────────────────────────────────────────────────────
+
+    /**
+     * The item described at {@code path} ({@code material}, {@code name},
+     * {@code lore}), compiled once per config load.
+     */
+    protected ItemTemplate template(String path, FileConfiguration cfg, Material fallback) {
+        return template(cfg, path, () -> ItemTemplate.compile(
+                parseMaterial(cfg.getString(path + ".material", fallback.name()), fallback),
+                cfg.getString(path + ".name", ""),
+                cfg.getStringList(path + ".lore")));
     }
 
-    protected ItemStack createItem(Material material, String name) {
-        return createItem(material, name, null);
+    /** A template cached under {@code key} for this config, compiled by {@code compiler} on first use. */
+    protected ItemTemplate template(FileConfiguration cfg, String key, Supplier<ItemTemplate> compiler) {
+        return plugin.getGuiManager().template(cfg, key, compiler);
     }
 
+    // ── Filler helper ─────────────────────────────────────────────────────────
+
     /**
-     * Builds an ItemStack from a config path using the main gui.yml.
-     * Used only by MenuGUI; other GUIs read their own config directly.
+     * Reads filler configuration from whichever config file the subclass uses.
+     * Subclasses should call {@link #applyFiller(String, FileConfiguration)}
+     * with their own config; this overload falls back to gui.yml for backwards
+     * compatibility with MenuGUI.
      */
-    protected ItemStack itemFromConfig(String path, String... placeholders) {
-        return itemFromConfig(path, plugin.getConfigManager().getGuiConfig(), placeholders);
+    protected void applyFiller(String configSection) {
+        applyFiller(configSection, plugin.getConfigManager().getGuiConfig());
     }
 
-    protected ItemStack itemFromConfig(String path, FileConfiguration cfg, String... placeholders) {
-        Material mat  = parseMaterial(cfg.getString(path + ".material", "STONE"), Material.STONE);
-        String   name = applyPlaceholders(cfg.getString(path + ".name", ""), placeholders);
-        List<String> rawLore = cfg.getStringList(path + ".lore");
-        List<String> lore = new ArrayList<>();
-        for (String line : rawLore) lore.add(applyPlaceholders(line, placeholders));
-        return createItem(mat, name, lore);
+    protected void applyFiller(String configSection, FileConfiguration cfg) {
+        if (!cfg.getBoolean(configSection + ".filler.enabled", false)) return;
+        ItemTemplate filler = template(cfg, configSection + ".filler", () -> ItemTemplate.compile(
+                parseMaterial(cfg.getString(configSection + ".filler.material", "GRAY_STAINED_GLASS_PANE"),
+                        Material.GRAY_STAINED_GLASS_PANE),
+                " ", null));
+        for (int slot : cfg.getIntegerList(configSection + ".filler.slots")) setSlot(slot, filler);
     }
 
     // ── Config reading helpers ────────────────────────────────────────────────
@@ -133,24 +199,28 @@ public abstract class BaseGUI implements InventoryHolder {
         catch (IllegalArgumentException e) { return fallback; }
     }
 
-    protected String applyPlaceholders(String text, String... pairs) {
-        if (text == null) return "";
-        for (int i = 0; i + 1 < pairs.length; i += 2) text = text.replace(pairs[i], pairs[i + 1]);
-        return text;
+    /** The player stat placeholders as placeholder/value pairs, for {@link #setSlot}. */
+    protected String[] playerPlaceholders(Player player) {
+        var data = plugin.getDataManager().getPlayerData(player);
+        return new String[]{
+                "%player%",     player.getName(),
+                "%sand%",       NumberFormatter.format(data.getSand()),
+                "%gems%",       NumberFormatter.format(data.getGems()),
+                "%sandbucks%",  NumberFormatter.format(data.getSandbucks()),
+                "%rebirths%",   NumberFormatter.format(data.getRebirths()),
+                "%multiplier%", String.format("%.2fx", plugin.getRebirthManager().getRebirthMultiplier(data)),
+                "%level%",      String.valueOf(data.getLevel()),
+                "%level_xp%",   data.getXpPercent() + "%"};
     }
 
-    protected String replacePlaceholders(String text, Player player) {
-        if (text == null) return "";
-        var data = plugin.getDataManager().getPlayerData(player);
-        return text
-                .replace("%player%",     player.getName())
-                .replace("%sand%",       NumberFormatter.format(data.getSand()))
-                .replace("%gems%",       NumberFormatter.format(data.getGems()))
-                .replace("%sandbucks%",  NumberFormatter.format(data.getSandbucks()))
-                .replace("%rebirths%",   NumberFormatter.format(data.getRebirths()))
-                .replace("%multiplier%", String.format("%.2fx", plugin.getRebirthManager().getRebirthMultiplier(data)))
-                .replace("%level%",      String.valueOf(data.getLevel()))
-                .replace("%level_xp%",   data.getXpPercent() + "%");
+    /** Levels a purchase click asks for: shift- or middle-click buys as many as affordable. */
+    protected int purchaseQuantity(InventoryClickEvent event) {
+        return event.isShiftClick() || event.getClick() == ClickType.MIDDLE ? Integer.MAX_VALUE : 1;
+    }
+
+    protected void sendPurchased(Player player, int levels) {
+        if (levels == 1) plugin.getMessageManager().sendMessage(player, "messages.upgrade-purchased");
+        else plugin.getMessageManager().sendMessage(player, "messages.upgrades-purchased", "%levels%", String.valueOf(levels));
     }
 
     protected String formatNumber(java.math.BigDecimal number) {
@@ -165,12 +235,10 @@ public abstract class BaseGUI implements InventoryHolder {
     protected void applyPlaceholderItems(String configSection, FileConfiguration cfg) {
         String path = configSection + ".placeholder";
         if (!cfg.getBoolean(path + ".enabled", false)) return;
-        Material mat  = parseMaterial(cfg.getString(path + ".material", "GRAY_DYE"), Material.GRAY_DYE);
-        String   name = cfg.getString(path + ".name", "&7&o???");
-        List<String> lore = cfg.getStringList(path + ".lore");
-        ItemStack item = createItem(mat, name, lore.isEmpty() ? null : lore);
-        for (int slot : cfg.getIntegerList(path + ".slots")) {
-            if (slot >= 0 && slot < inventory.getSize()) inventory.setItem(slot, item);
-        }
+        ItemTemplate item = template(cfg, path, () -> ItemTemplate.compile(
+                parseMaterial(cfg.getString(path + ".material", "GRAY_DYE"), Material.GRAY_DYE),
+                cfg.getString(path + ".name", "&7&o???"),
+                cfg.getStringList(path + ".lore")));
+        for (int slot : cfg.getIntegerList(path + ".slots")) setSlot(slot, item);
     }
-}
\ No newline at end of file
+}
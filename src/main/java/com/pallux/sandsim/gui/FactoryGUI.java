@@ -10,7 +10,6 @@ import org.bukkit.entity.Player;
 import org.bukkit.event.inventory.InventoryClickEvent;
 
 import java.math.BigDecimal;
-import java.util.ArrayList;
 import java.util.List;
 
 public class FactoryGUI extends BaseGUI {
@@ -23,12 +22,11 @@ public class FactoryGUI extends BaseGUI {
 
     @Override
     protected void setupInventory(Player player) {
-        inventory.clear();
         FileConfiguration cfg = plugin.getConfigManager().getFactoryGuiConfig();
         PlayerData data = plugin.getDataManager().getPlayerData(player);
 
         applyFiller(SEC, cfg);
-        inventory.setItem(slotFromConfig(SEC + ".back", cfg, 49), itemFromConfig(SEC + ".back", cfg));
+        setSlot(slotFromConfig(SEC + ".back", cfg, 49), template(SEC + ".back", cfg, Material.STONE));
 
         if (!data.isFactoryUnlocked()) {
             buildUnlockItem(player, data, cfg);
@@ -47,9 +45,6 @@ public class FactoryGUI extends BaseGUI {
         boolean meetsLevel = plugin.getFactoryManager().meetsLevelRequirement(data);
         boolean canAfford  = data.getSand().compareTo(plugin.getFactoryManager().getFactoryUnlockCost()) >= 0;
 
-        Material mat  = parseMaterial(cfg.getString(path + ".material", "BARRIER"), Material.BARRIER);
-        String   name = cfg.getString(path + ".name", "&c&lFactory Locked");
-
         String lorePath;
         if (!meetsLevel) {
             lorePath = path + ".lore-no-level";
@@ -59,17 +54,18 @@ public class FactoryGUI extends BaseGUI {
             lorePath = path + ".lore";
         }
 
-        List<String> rawLore = cfg.getStringList(lorePath);
-        if (rawLore.isEmpty()) rawLore = cfg.getStringList(path + ".lore");
-
-        List<String> lore = new ArrayList<>();
-        for (String line : rawLore) {
-            lore.add(applyPlaceholders(line,
-                    "%cost%",      costStr,
-                    "%req_level%", String.valueOf(reqLevel),
-                    "%level%",     String.valueOf(data.getLevel())));
-        }
-        inventory.setItem(slotFromConfig(path, cfg, 13), createItem(mat, name, lore));
+        ItemTemplate item = template(cfg, lorePath, () -> {
+            List<String> rawLore = cfg.getStringList(lorePath);
+            if (rawLore.isEmpty()) rawLore = cfg.getStringList(path + ".lore");
+            return ItemTemplate.compile(
+                    parseMaterial(cfg.getString(path + ".material", "BARRIER"), Material.BARRIER),
+                    cfg.getString(path + ".name", "&c&lFactory Locked"),
+                    rawLore);
+        });
+        setSlot(slotFromConfig(path, cfg, 13), item,
+                "%cost%",      costStr,
+                "%req_level%", String.valueOf(reqLevel),
+                "%level%",     String.valueOf(data.getLevel()));
     }
 
     private void buildCoreItem(PlayerData data, FileConfiguration cfg) {
@@ -77,16 +73,14 @@ public class FactoryGUI extends BaseGUI {
         double speed  = plugin.getUpgradeManager().getFactoryProductionSpeed(data);
         double amount = plugin.getUpgradeManager().getFactoryProductionAmount(data);
         long   timeMs = plugin.getFactoryManager().getTimeUntilNextProduction(data);
-        Material mat  = parseMaterial(cfg.getString(path + ".material", "BLAST_FURNACE"), Material.BLAST_FURNACE);
-        String   name = cfg.getString(path + ".name", "&6&lFactory Core");
-        List<String> lore = new ArrayList<>();
-        for (String line : cfg.getStringList(path + ".lore")) {
-            lore.add(applyPlaceholders(line,
-                    "%speed%",  String.format("%.2f", speed),
-                    "%amount%", String.format("%.0f", amount),
-                    "%time%",   String.format("%.1f", timeMs / 1000.0)));
-        }
-        inventory.setItem(slotFromConfig(path, cfg, 13), createItem(mat, name, lore));
+        ItemTemplate item = template(cfg, path, () -> ItemTemplate.compile(
+                parseMaterial(cfg.getString(path + ".material", "BLAST_FURNACE"), Material.BLAST_FURNACE),
+                cfg.getString(path + ".name", "&6&lFactory Core"),
+                cfg.getStringList(path + ".lore")));
+        setSlot(slotFromConfig(path, cfg, 13), item,
+                "%speed%",  String.format("%.2f", speed),
+                "%amount%", String.format("%.0f", amount),
+                "%time%",   String.format("%.1f", timeMs / 1000.0));
     }
 
     private void buildFactoryUpgrade(Player player, PlayerData data, String key, UpgradeType type, int defaultSlot) {
@@ -100,19 +94,17 @@ public class FactoryGUI extends BaseGUI {
         double currentValue = plugin.getUpgradeManager().getUpgradeValue(type, currentLevel);
         double nextValue    = isMaxed ? 0 : plugin.getUpgradeManager().getUpgradeValue(type, currentLevel + 1);
 
-        Material mat  = parseMaterial(cfg.getString(path + ".material", "STONE"), Material.STONE);
-        String   name = cfg.getString(path + ".name", key);
         String lorePath = isMaxed ? path + ".lore-maxed" : (!canAfford ? path + ".lore-cannot-afford" : path + ".lore");
-        List<String> lore = new ArrayList<>();
-        for (String line : cfg.getStringList(lorePath)) {
-            lore.add(applyPlaceholders(line,
-                    "%level%",   String.valueOf(currentLevel),
-                    "%max%",     String.valueOf(maxLevel),
-                    "%current%", formatUpgradeValue(currentValue),
-                    "%next%",    isMaxed ? "" : formatUpgradeValue(nextValue),
-                    "%cost%",    formatNumber(cost)));
-        }
-        inventory.setItem(slotFromConfig(path, cfg, defaultSlot), createItem(mat, name, lore));
+        ItemTemplate item = template(cfg, lorePath, () -> ItemTemplate.compile(
+                parseMaterial(cfg.getString(path + ".material", "STONE"), Material.STONE),
+                cfg.getString(path + ".name", key),
+                cfg.getStringList(lorePath)));
+        setSlot(slotFromConfig(path, cfg, defaultSlot), item,
+                "%level%",   String.valueOf(currentLevel),
+                "%max%",     String.valueOf(maxLevel),
+                "%current%", formatUpgradeValue(currentValue),
+                "%next%",    isMaxed ? "" : formatUpgradeValue(nextValue),
+                "%cost%",    formatNumber(cost));
     }
 
     private String formatUpgradeValue(double val) {
@@ -126,7 +118,7 @@ public class FactoryGUI extends BaseGUI {
         FileConfiguration cfg = plugin.getConfigManager().getFactoryGuiConfig();
         PlayerData data = plugin.getDataManager().getPlayerData(player);
 
-        if (slot == slotFromConfig(SEC + ".back", cfg, 49)) { new MenuGUI(plugin).open(player); return; }
+        if (slot == slotFromConfig(SEC + ".back", cfg, 49)) { plugin.getGuiManager().open(player, MenuGUI.class, MenuGUI::new); return; }
 
         int unlockSlot = slotFromConfig(SEC + ".unlock", cfg, 4);
         if (slot == unlockSlot && !data.isFactoryUnlocked()) {
@@ -139,7 +131,7 @@ public class FactoryGUI extends BaseGUI {
             if (plugin.getFactoryManager().unlockFactory(data)) {
                 player.playSound(player.getLocation(), Sound.ENTITY_PLAYER_LEVELUP, 1.0f, 1.0f);
                 plugin.getMessageManager().sendMessage(player, "messages.factory-unlocked");
-                setupInventory(player);
+                render(player);
             } else {
                 player.playSound(player.getLocation(), Sound.ENTITY_VILLAGER_NO, 1.0f, 1.0f);
                 plugin.getMessageManager().sendMessage(player, "messages.cannot-afford-factory");
@@ -154,10 +146,11 @@ public class FactoryGUI extends BaseGUI {
         else if (slot == slotFromConfig(SEC + ".production-amount", cfg, 33)) type = UpgradeType.FACTORY_PRODUCTION_AMOUNT;
         if (type == null) return;
 
-        if (plugin.getFactoryManager().purchaseFactoryUpgrade(data, type)) {
+        int levels = plugin.getFactoryManager().purchaseFactoryUpgrades(data, type, purchaseQuantity(event));
+        if (levels > 0) {
             player.playSound(player.getLocation(), Sound.ENTITY_PLAYER_LEVELUP, 1.0f, 1.0f);
-            plugin.getMessageManager().sendMessage(player, "messages.upgrade-purchased");
-            setupInventory(player);
+            sendPurchased(player, levels);
+            render(player);
         } else {
             player.playSound(player.getLocation(), Sound.ENTITY_VILLAGER_NO, 1.0f, 1.0f);
             plugin.getMessageManager().sendMessage(player, "messages.cannot-afford-upgrade");
@@ -0,0 +1,66 @@
+package com.pallux.sandsim.gui;
+
+import com.pallux.sandsim.utils.MessageTemplate;
+import net.kyori.adventure.text.Component;
+import org.bukkit.Material;
+import org.bukkit.inventory.ItemStack;
+import org.bukkit.inventory.meta.ItemMeta;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * A GUI item compiled once from config: the name and every lore line are
+ * {@link MessageTemplate}s, so rendering only splices placeholder values in.
+ * Items without placeholders are built once and the same stack is handed out
+ * on every render; Bukkit copies it when it is put into an inventory.
+ *
+ * Rendering is equivalent to replacing the placeholders in the config strings
+ * and colorizing the result.
+ */
+public class ItemTemplate {
+
+    private final Material material;
+    private final MessageTemplate name;
+    private final MessageTemplate[] lore;
+    private final boolean constant;
+    private ItemStack constantItem;
+
+    private ItemTemplate(Material material, MessageTemplate name, MessageTemplate[] lore) {
+        this.material = material;
+        this.name     = name;
+        this.lore     = lore;
+        boolean c = name.isConstant();
+        for (MessageTemplate line : lore) c &= line.isConstant();
+        this.constant = c;
+    }
+
+    /** {@code lore} may be {@code null} or empty for an item without lore. */
+    public static ItemTemplate compile(Material material, String name, List<String> lore) {
+        MessageTemplate[] lines = new MessageTemplate[lore == null ? 0 : lore.size()];
+        for (int i = 0; i < lines.length; i++) lines[i] = MessageTemplate.compile(lore.get(i));
+        return new ItemTemplate(material, MessageTemplate.compile(name == null ? "" : name), lines);
+    }
+
+    /** Builds the item with {@code placeholders} given as placeholder/value pairs. */
+    public ItemStack render(String... placeholders) {
+        if (!constant) return build(placeholders);
+        if (constantItem == null) constantItem = build();
+        return constantItem;
+    }
+
+    private ItemStack build(String... placeholders) {
+        ItemStack item = new ItemStack(material);
+        ItemMeta  meta = item.getItemMeta();
+        if (meta != null) {
+            meta.displayName(name.renderComponent(placeholders));
+            if (lore.length > 0) {
+                List<Component> lines = new ArrayList<>(lore.length);
+                for (MessageTemplate line : lore) lines.add(line.renderComponent(placeholders));
+                meta.lore(lines);
+            }
+            item.setItemMeta(meta);
+        }
+        return item;
+    }
+}
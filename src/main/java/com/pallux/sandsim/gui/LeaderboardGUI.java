@@ -10,12 +10,12 @@ import org.bukkit.configuration.file.FileConfiguration;
 import org.bukkit.entity.Player;
 import org.bukkit.event.inventory.InventoryClickEvent;
 
-import java.util.ArrayList;
 import java.util.List;
 
 public class LeaderboardGUI extends BaseGUI {
 
     private static final String SEC = "leaderboard-gui";
+    private final LeaderboardType defaultType;
     private LeaderboardType currentType;
 
     public LeaderboardGUI(SandSimPlugin plugin) {
@@ -24,15 +24,26 @@ public class LeaderboardGUI extends BaseGUI {
 
     public LeaderboardGUI(SandSimPlugin plugin, LeaderboardType type) {
         super(plugin, SEC, plugin.getConfigManager().getLeaderboardGuiConfig());
+        this.defaultType = type;
         this.currentType = type;
     }
 
+    @Override
+    protected void resetView() {
+        currentType = defaultType;
+    }
+
+    /** Opens afresh on {@code type}'s board rather than the default one. */
+    public void open(Player player, LeaderboardType type) {
+        currentType = type;
+        show(player);
+    }
+
     @Override
     protected void setupInventory(Player player) {
-        inventory.clear();
         FileConfiguration cfg = plugin.getConfigManager().getLeaderboardGuiConfig();
         applyFiller(SEC, cfg);
-        inventory.setItem(slotFromConfig(SEC + ".back", cfg, 49), itemFromConfig(SEC + ".back", cfg));
+        setSlot(slotFromConfig(SEC + ".back", cfg, 49), template(SEC + ".back", cfg, Material.STONE));
 
         buildTab(cfg, "type-sand",      10, LeaderboardType.SAND);
         buildTab(cfg, "type-gems",      12, LeaderboardType.GEMS);
@@ -44,65 +55,59 @@ public class LeaderboardGUI extends BaseGUI {
 
     private void buildTab(FileConfiguration cfg, String key, int defaultSlot, LeaderboardType type) {
         String path = SEC + "." + key;
-        Material mat  = parseMaterial(cfg.getString(path + ".material", "STONE"), Material.STONE);
-        String   name = cfg.getString(path + ".name", key);
-        boolean selected = currentType == type;
-        List<String> lore = cfg.getStringList(selected ? path + ".lore-selected" : path + ".lore-unselected");
-        inventory.setItem(slotFromConfig(path, cfg, defaultSlot), createItem(mat, name, lore));
+        String lorePath = currentType == type ? path + ".lore-selected" : path + ".lore-unselected";
+        ItemTemplate tab = template(cfg, lorePath, () -> ItemTemplate.compile(
+                parseMaterial(cfg.getString(path + ".material", "STONE"), Material.STONE),
+                cfg.getString(path + ".name", key),
+                cfg.getStringList(lorePath)));
+        setSlot(slotFromConfig(path, cfg, defaultSlot), tab);
     }
 
     private void buildEntries(FileConfiguration cfg) {
         List<Integer> slots = cfg.getIntegerList(SEC + ".entry-slots");
-        String entryName    = cfg.getString(SEC + ".entry.name", "&6#%rank% &7- &f%player%");
-        List<String> entryLoreTpl = cfg.getStringList(SEC + ".entry.lore");
         String typeLabel = currentType.name().charAt(0) + currentType.name().substring(1).toLowerCase();
         List<LeaderboardEntry> entries = plugin.getLeaderboardManager().getLeaderboard(currentType);
 
         for (int i = 0; i < slots.size(); i++) {
             int slot = slots.get(i);
-            if (slot < 0 || slot >= inventory.getSize()) continue;
+            int rank = i + 1;
 
             if (i >= entries.size()) {
-                List<String> emptyLore = new ArrayList<>();
-                emptyLore.add("&8No player yet");
-                inventory.setItem(slot, createItem(Material.GRAY_STAINED_GLASS_PANE,
-                        applyPlaceholders(entryName,
-                                "%rank%", String.valueOf(i + 1), "%player%", "???"),
-                        emptyLore));
+                setSlot(slot, entryTemplate(cfg, "empty", Material.GRAY_STAINED_GLASS_PANE, List.of("&8No player yet")),
+                        "%rank%", String.valueOf(rank), "%player%", "???");
                 continue;
             }
 
             LeaderboardEntry entry = entries.get(i);
-            int rank = i + 1;
-            Material mat = switch (rank) {
-                case 1  -> parseMaterial(cfg.getString(SEC + ".entry-material-1",       "GOLD_BLOCK"),   Material.GOLD_BLOCK);
-                case 2  -> parseMaterial(cfg.getString(SEC + ".entry-material-2",       "IRON_BLOCK"),   Material.IRON_BLOCK);
-                case 3  -> parseMaterial(cfg.getString(SEC + ".entry-material-3",       "COPPER_BLOCK"), Material.COPPER_BLOCK);
-                default -> parseMaterial(cfg.getString(SEC + ".entry-material-default", "PLAYER_HEAD"),  Material.PLAYER_HEAD);
+            ItemTemplate item = switch (rank) {
+                case 1  -> entryTemplate(cfg, "1",       parseMaterial(cfg.getString(SEC + ".entry-material-1",       "GOLD_BLOCK"),   Material.GOLD_BLOCK),   null);
+                case 2  -> entryTemplate(cfg, "2",       parseMaterial(cfg.getString(SEC + ".entry-material-2",       "IRON_BLOCK"),   Material.IRON_BLOCK),   null);
+                case 3  -> entryTemplate(cfg, "3",       parseMaterial(cfg.getString(SEC + ".entry-material-3",       "COPPER_BLOCK"), Material.COPPER_BLOCK), null);
+                default -> entryTemplate(cfg, "default", parseMaterial(cfg.getString(SEC + ".entry-material-default", "PLAYER_HEAD"),  Material.PLAYER_HEAD),  null);
             };
-
-            String name = applyPlaceholders(entryName,
+            setSlot(slot, item,
+                    "%type%", typeLabel, "%value%", formatNumber(entry.getValue()),
                     "%rank%", String.valueOf(rank), "%player%", entry.getPlayerName());
-            List<String> lore = new ArrayList<>();
-            for (String line : entryLoreTpl) {
-                lore.add(applyPlaceholders(line,
-                        "%type%", typeLabel, "%value%", formatNumber(entry.getValue()),
-                        "%rank%", String.valueOf(rank), "%player%", entry.getPlayerName()));
-            }
-            inventory.setItem(slot, createItem(mat, name, lore));
         }
     }
 
+    /** Entry item in one material; {@code lore} overrides the configured entry lore. */
+    private ItemTemplate entryTemplate(FileConfiguration cfg, String variant, Material material, List<String> lore) {
+        return template(cfg, SEC + ".entry#" + variant, () -> ItemTemplate.compile(material,
+                cfg.getString(SEC + ".entry.name", "&6#%rank% &7- &f%player%"),
+                lore != null ? lore : cfg.getStringList(SEC + ".entry.lore")));
+    }
+
     @Override
     public void handleClick(InventoryClickEvent event, Player player) {
         int slot = event.getSlot();
         FileConfiguration cfg = plugin.getConfigManager().getLeaderboardGuiConfig();
         player.playSound(player.getLocation(), Sound.UI_BUTTON_CLICK, 1.0f, 1.0f);
 
-        if      (slot == slotFromConfig(SEC + ".back",           cfg, 49)) { new MenuGUI(plugin).open(player); }
-        else if (slot == slotFromConfig(SEC + ".type-sand",      cfg, 10)) { currentType = LeaderboardType.SAND;      setupInventory(player); }
-        else if (slot == slotFromConfig(SEC + ".type-gems",      cfg, 12)) { currentType = LeaderboardType.GEMS;      setupInventory(player); }
-        else if (slot == slotFromConfig(SEC + ".type-sandbucks", cfg, 14)) { currentType = LeaderboardType.SANDBUCKS; setupInventory(player); }
-        else if (slot == slotFromConfig(SEC + ".type-rebirths",  cfg, 16)) { currentType = LeaderboardType.REBIRTHS;  setupInventory(player); }
+        if      (slot == slotFromConfig(SEC + ".back",           cfg, 49)) { plugin.getGuiManager().open(player, MenuGUI.class, MenuGUI::new); }
+        else if (slot == slotFromConfig(SEC + ".type-sand",      cfg, 10)) { currentType = LeaderboardType.SAND;      render(player); }
+        else if (slot == slotFromConfig(SEC + ".type-gems",      cfg, 12)) { currentType = LeaderboardType.GEMS;      render(player); }
+        else if (slot == slotFromConfig(SEC + ".type-sandbucks", cfg, 14)) { currentType = LeaderboardType.SANDBUCKS; render(player); }
+        else if (slot == slotFromConfig(SEC + ".type-rebirths",  cfg, 16)) { currentType = LeaderboardType.REBIRTHS;  render(player); }
     }
 }
\ No newline at end of file
@@ -2,14 +2,12 @@ package com.pallux.sandsim.gui;
 
 import com.pallux.sandsim.SandSimPlugin;
 import com.pallux.sandsim.data.PlayerData;
+import org.bukkit.Material;
 import org.bukkit.Sound;
 import org.bukkit.configuration.file.FileConfiguration;
 import org.bukkit.entity.Player;
 import org.bukkit.event.inventory.InventoryClickEvent;
 
-import java.util.ArrayList;
-import java.util.List;
-
 public class MenuGUI extends BaseGUI {
 
     private static final String SEC = "menu";
@@ -18,43 +16,40 @@ public class MenuGUI extends BaseGUI {
 
     @Override
     protected void setupInventory(Player player) {
-        inventory.clear();
         FileConfiguration cfg = plugin.getConfigManager().getGuiConfig();
         PlayerData data = plugin.getDataManager().getPlayerData(player);
 
         applyFiller(SEC);
 
         // Stats
-        List<String> statsLore = new ArrayList<>();
-        for (String line : cfg.getStringList(SEC + ".stats.lore")) statsLore.add(replacePlaceholders(line, player));
-        inventory.setItem(slotFromConfig(SEC + ".stats", 11),
-                createItem(parseMaterial(cfg.getString(SEC + ".stats.material", "PLAYER_HEAD"), org.bukkit.Material.PLAYER_HEAD),
-                        replacePlaceholders(cfg.getString(SEC + ".stats.name", "&e&lYour Stats"), player), statsLore));
+        ItemTemplate stats = template(cfg, SEC + ".stats", () -> ItemTemplate.compile(
+                parseMaterial(cfg.getString(SEC + ".stats.material", "PLAYER_HEAD"), Material.PLAYER_HEAD),
+                cfg.getString(SEC + ".stats.name", "&e&lYour Stats"),
+                cfg.getStringList(SEC + ".stats.lore")));
+        setSlot(slotFromConfig(SEC + ".stats", 11), stats, playerPlaceholders(player));
 
         // Guide
-        inventory.setItem(slotFromConfig(SEC + ".guide", 13), itemFromConfig(SEC + ".guide"));
+        setSlot(slotFromConfig(SEC + ".guide", 13), template(SEC + ".guide", cfg, Material.STONE));
 
         // Rebirth — use long to avoid int overflow with huge sand amounts
         long maxRebirths = plugin.getRebirthManager().getMaxRebirths(data);
         String cost       = formatNumber(plugin.getRebirthManager().getRebirthCost());
         String multiplier = String.format("%.2fx", plugin.getRebirthManager().getRebirthMultiplier(data));
-        List<String> rebirthLore = new ArrayList<>();
-        for (String line : cfg.getStringList(SEC + ".rebirth.lore")) {
-            rebirthLore.add(applyPlaceholders(line,
-                    "%cost%",       cost,
-                    "%amount%",     String.valueOf(maxRebirths),
-                    "%multiplier%", multiplier));
-        }
-        inventory.setItem(slotFromConfig(SEC + ".rebirth", 15),
-                createItem(parseMaterial(cfg.getString(SEC + ".rebirth.material", "NETHER_STAR"), org.bukkit.Material.NETHER_STAR),
-                        cfg.getString(SEC + ".rebirth.name", "&d&lRebirth"), rebirthLore));
+        ItemTemplate rebirth = template(cfg, SEC + ".rebirth", () -> ItemTemplate.compile(
+                parseMaterial(cfg.getString(SEC + ".rebirth.material", "NETHER_STAR"), Material.NETHER_STAR),
+                cfg.getString(SEC + ".rebirth.name", "&d&lRebirth"),
+                cfg.getStringList(SEC + ".rebirth.lore")));
+        setSlot(slotFromConfig(SEC + ".rebirth", 15), rebirth,
+                "%cost%",       cost,
+                "%amount%",     String.valueOf(maxRebirths),
+                "%multiplier%", multiplier);
 
         // Row 3 buttons
-        inventory.setItem(slotFromConfig(SEC + ".upgrades",    28), itemFromConfig(SEC + ".upgrades"));
-        inventory.setItem(slotFromConfig(SEC + ".factory",     29), itemFromConfig(SEC + ".factory"));
-        inventory.setItem(slotFromConfig(SEC + ".skills",      30), itemFromConfig(SEC + ".skills"));
-        inventory.setItem(slotFromConfig(SEC + ".augments",    31), itemFromConfig(SEC + ".augments"));
-        inventory.setItem(slotFromConfig(SEC + ".leaderboard", 33), itemFromConfig(SEC + ".leaderboard"));
+        setSlot(slotFromConfig(SEC + ".upgrades",    28), template(SEC + ".upgrades",    cfg, Material.STONE));
+        setSlot(slotFromConfig(SEC + ".factory",     29), template(SEC + ".factory",     cfg, Material.STONE));
+        setSlot(slotFromConfig(SEC + ".skills",      30), template(SEC + ".skills",      cfg, Material.STONE));
+        setSlot(slotFromConfig(SEC + ".augments",    31), template(SEC + ".augments",    cfg, Material.STONE));
+        setSlot(slotFromConfig(SEC + ".leaderboard", 33), template(SEC + ".leaderboard", cfg, Material.STONE));
 
         applyPlaceholderItems(SEC);
     }
@@ -65,10 +60,10 @@ public class MenuGUI extends BaseGUI {
         player.playSound(player.getLocation(), Sound.UI_BUTTON_CLICK, 1.0f, 1.0f);
 
         if      (slot == slotFromConfig(SEC + ".rebirth",     15)) { player.closeInventory(); player.performCommand("rebirth"); }
-        else if (slot == slotFromConfig(SEC + ".upgrades",    28)) { new UpgradesGUI(plugin).open(player); }
-        else if (slot == slotFromConfig(SEC + ".factory",     29)) { new FactoryGUI(plugin).open(player); }
-        else if (slot == slotFromConfig(SEC + ".skills",      30)) { new SkillTreeGUI(plugin).open(player); }
-        else if (slot == slotFromConfig(SEC + ".augments",    31)) { new AugmentsGUI(plugin).open(player); }
-        else if (slot == slotFromConfig(SEC + ".leaderboard", 33)) { new LeaderboardGUI(plugin).open(player); }
+        else if (slot == slotFromConfig(SEC + ".upgrades",    28)) { plugin.getGuiManager().open(player, UpgradesGUI.class,    UpgradesGUI::new); }
+        else if (slot == slotFromConfig(SEC + ".factory",     29)) { plugin.getGuiManager().open(player, FactoryGUI.class,     FactoryGUI::new); }
+        else if (slot == slotFromConfig(SEC + ".skills",      30)) { plugin.getGuiManager().open(player, SkillTreeGUI.class,   SkillTreeGUI::new); }
+        else if (slot == slotFromConfig(SEC + ".augments",    31)) { plugin.getGuiManager().open(player, AugmentsGUI.class,    AugmentsGUI::new); }
+        else if (slot == slotFromConfig(SEC + ".leaderboard", 33)) { plugin.getGuiManager().open(player, LeaderboardGUI.class, LeaderboardGUI::new); }
     }
 }
\ No newline at end of file
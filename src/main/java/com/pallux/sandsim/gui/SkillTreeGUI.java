@@ -9,7 +9,6 @@ import org.bukkit.Sound;
 import org.bukkit.configuration.file.FileConfiguration;
 import org.bukkit.entity.Player;
 import org.bukkit.event.inventory.InventoryClickEvent;
-import org.bukkit.inventory.ItemStack;
 
 import java.util.ArrayList;
 import java.util.List;
@@ -52,7 +51,6 @@ public class SkillTreeGUI extends BaseGUI {
 
     @Override
     protected void setupInventory(Player player) {
-        inventory.clear();
         FileConfiguration cfg = plugin.getConfigManager().getSkillTreeGuiConfig();
         PlayerData data = plugin.getDataManager().getPlayerData(player);
         SkillManager mgr = plugin.getSkillManager();
@@ -60,58 +58,58 @@ public class SkillTreeGUI extends BaseGUI {
         mgr.syncSkillPoints(data);
 
         // ── Filler ────────────────────────────────────────────────────────────
-        String fillerMatName = cfg.getString(SEC + ".filler.material", "GRAY_STAINED_GLASS_PANE");
-        Material fillerMat = parseMaterial(fillerMatName, Material.GRAY_STAINED_GLASS_PANE);
-        ItemStack filler = createItem(fillerMat, cfg.getString(SEC + ".filler.name", " "));
-        for (int i = 0; i < inventory.getSize(); i++) inventory.setItem(i, filler);
+        ItemTemplate filler = template(cfg, SEC + ".filler", () -> ItemTemplate.compile(
+                parseMaterial(cfg.getString(SEC + ".filler.material", "GRAY_STAINED_GLASS_PANE"),
+                        Material.GRAY_STAINED_GLASS_PANE),
+                cfg.getString(SEC + ".filler.name", " "), null));
+        for (int i = 0; i < inventory.getSize(); i++) setSlot(i, filler);
 
         // ── Track headers (row 0) ─────────────────────────────────────────────
-        inventory.setItem(SLOT_SAND_HEADER, buildHeader(cfg, "sand-header", player, data, mgr));
-        inventory.setItem(SLOT_GEM_HEADER,  buildHeader(cfg, "gem-header",  player, data, mgr));
-        inventory.setItem(SLOT_SB_HEADER,   buildHeader(cfg, "sb-header",   player, data, mgr));
+        setHeader(SLOT_SAND_HEADER, cfg, "sand-header", data, mgr);
+        setHeader(SLOT_GEM_HEADER,  cfg, "gem-header",  data, mgr);
+        setHeader(SLOT_SB_HEADER,   cfg, "sb-header",   data, mgr);
 
         // ── Sand skills ───────────────────────────────────────────────────────
         SkillType[] sandSkills = { SkillType.SAND_SKILL_1, SkillType.SAND_SKILL_2,
                 SkillType.SAND_SKILL_3, SkillType.SAND_SKILL_4 };
         for (int i = 0; i < 4; i++) {
-            inventory.setItem(SAND_SLOTS[i], buildSkillItem(cfg, sandSkills[i], data, mgr, player));
+            setSkillItem(SAND_SLOTS[i], cfg, sandSkills[i], data, mgr);
         }
 
         // ── Gem skills ────────────────────────────────────────────────────────
         SkillType[] gemSkills = { SkillType.GEM_SKILL_1, SkillType.GEM_SKILL_2,
                 SkillType.GEM_SKILL_3, SkillType.GEM_SKILL_4 };
         for (int i = 0; i < 4; i++) {
-            inventory.setItem(GEM_SLOTS[i], buildSkillItem(cfg, gemSkills[i], data, mgr, player));
+            setSkillItem(GEM_SLOTS[i], cfg, gemSkills[i], data, mgr);
         }
 
         // ── Sandbucks skills ──────────────────────────────────────────────────
         SkillType[] sbSkills = { SkillType.SANDBUCKS_SKILL_1, SkillType.SANDBUCKS_SKILL_2,
                 SkillType.SANDBUCKS_SKILL_3, SkillType.SANDBUCKS_SKILL_4 };
         for (int i = 0; i < 4; i++) {
-            inventory.setItem(SB_SLOTS[i], buildSkillItem(cfg, sbSkills[i], data, mgr, player));
+            setSkillItem(SB_SLOTS[i], cfg, sbSkills[i], data, mgr);
         }
 
         // ── Back button ───────────────────────────────────────────────────────
-        Material backMat  = parseMaterial(cfg.getString(SEC + ".back.material", "ARROW"), Material.ARROW);
-        String   backName = cfg.getString(SEC + ".back.name", "&c&lBack to Menu");
-        List<String> backLore = cfg.getStringList(SEC + ".back.lore");
-        inventory.setItem(SLOT_BACK, createItem(backMat, backName, backLore.isEmpty() ? null : backLore));
+        setSlot(SLOT_BACK, template(cfg, SEC + ".back", () -> ItemTemplate.compile(
+                parseMaterial(cfg.getString(SEC + ".back.material", "ARROW"), Material.ARROW),
+                cfg.getString(SEC + ".back.name", "&c&lBack to Menu"),
+                cfg.getStringList(SEC + ".back.lore"))));
 
         // ── Info / skill points display ───────────────────────────────────────
-        inventory.setItem(SLOT_INFO, buildInfoItem(cfg, data, mgr));
+        setInfoItem(SLOT_INFO, cfg, data);
     }
 
     // ── Item builders ─────────────────────────────────────────────────────────
 
-    private ItemStack buildHeader(FileConfiguration cfg, String key, Player player,
-                                  PlayerData data, SkillManager mgr) {
+    private void setHeader(int slot, FileConfiguration cfg, String key, PlayerData data, SkillManager mgr) {
         String path = SEC + "." + key;
-        Material mat  = parseMaterial(cfg.getString(path + ".material", "WHITE_STAINED_GLASS_PANE"),
-                Material.WHITE_STAINED_GLASS_PANE);
-        String   name = cfg.getString(path + ".name", "&f&l" + key);
+        ItemTemplate header = template(cfg, path, () -> ItemTemplate.compile(
+                parseMaterial(cfg.getString(path + ".material", "WHITE_STAINED_GLASS_PANE"),
+                        Material.WHITE_STAINED_GLASS_PANE),
+                cfg.getString(path + ".name", "&f&l" + key),
+                cfg.getStringList(path + ".lore")));
 
-        List<String> rawLore = cfg.getStringList(path + ".lore");
-        List<String> lore = new ArrayList<>();
         double sandMult  = mgr.getSandMultiplier(data);
         double gemsMult  = mgr.getGemsMultiplier(data);
         double sbMult    = mgr.getSandbucksMultiplier(data);
@@ -119,20 +117,17 @@ public class SkillTreeGUI extends BaseGUI {
         int earned       = data.getSkillPointsEarned();
         int spent        = data.getSkillPointsSpent();
 
-        for (String line : rawLore) {
-            lore.add(applyPlaceholders(line,
-                    "%sand_mult%",   formatMultiplier(sandMult),
-                    "%gems_mult%",   formatMultiplier(gemsMult),
-                    "%sb_mult%",     formatMultiplier(sbMult),
-                    "%available%",   String.valueOf(available),
-                    "%earned%",      String.valueOf(earned),
-                    "%spent%",       String.valueOf(spent)));
-        }
-        return createItem(mat, name, lore.isEmpty() ? null : lore);
+        setSlot(slot, header,
+                "%sand_mult%",   formatMultiplier(sandMult),
+                "%gems_mult%",   formatMultiplier(gemsMult),
+                "%sb_mult%",     formatMultiplier(sbMult),
+                "%available%",   String.valueOf(available),
+                "%earned%",      String.valueOf(earned),
+                "%spent%",       String.valueOf(spent));
     }
 
-    private ItemStack buildSkillItem(FileConfiguration cfg, SkillType skill,
-                                     PlayerData data, SkillManager mgr, Player player) {
+    private void setSkillItem(int slot, FileConfiguration cfg, SkillType skill,
+                              PlayerData data, SkillManager mgr) {
         boolean owned     = data.hasSkill(skill);
         boolean prereqMet = mgr.hasPrerequisite(data, skill);
         boolean canAfford = data.getAvailableSkillPoints() >= mgr.getSkillCost(skill);
@@ -147,63 +142,57 @@ public class SkillTreeGUI extends BaseGUI {
         int    tier  = skill.getTier();
         String pathBase = SEC + ".skill-states." + state;
 
-        Material mat = parseMaterial(cfg.getString(pathBase + ".material", defaultMaterial(state)),
-                Material.valueOf(defaultMaterial(state)));
-
-        String nameTemplate = cfg.getString(pathBase + ".name", defaultName(state, track, tier));
-
         String bonusStr = getBonusDisplay(mgr, skill);
         String costStr  = String.valueOf(mgr.getSkillCost(skill));
         String tierStr  = String.valueOf(tier);
         String trackDisplay = capitalize(track);
 
-        String name = applyPlaceholders(nameTemplate,
+        // The fallback name and lore embed the skill, so each skill gets its own template
+        ItemTemplate item = template(cfg, pathBase + "#" + skill.name(), () -> {
+            List<String> loreTpl = cfg.getStringList(pathBase + ".lore");
+            if (loreTpl.isEmpty()) loreTpl = defaultLore(state, track, tier, bonusStr, costStr);
+            return ItemTemplate.compile(
+                    parseMaterial(cfg.getString(pathBase + ".material", defaultMaterial(state)),
+                            Material.valueOf(defaultMaterial(state))),
+                    cfg.getString(pathBase + ".name", defaultName(state, track, tier)),
+                    loreTpl);
+        });
+
+        setSlot(slot, item,
                 "%track%", trackDisplay, "%tier%", tierStr,
                 "%bonus%", bonusStr, "%cost%", costStr);
-
-        List<String> loreTpl = cfg.getStringList(pathBase + ".lore");
-        if (loreTpl.isEmpty()) loreTpl = defaultLore(state, track, tier, bonusStr, costStr);
-
-        List<String> lore = new ArrayList<>();
-        for (String line : loreTpl) {
-            lore.add(applyPlaceholders(line,
-                    "%track%", trackDisplay, "%tier%", tierStr,
-                    "%bonus%", bonusStr, "%cost%", costStr));
-        }
-
-        return createItem(mat, name, lore.isEmpty() ? null : lore);
     }
 
-    private ItemStack buildInfoItem(FileConfiguration cfg, PlayerData data, SkillManager mgr) {
+    private void setInfoItem(int slot, FileConfiguration cfg, PlayerData data) {
         String path    = SEC + ".info";
-        Material mat   = parseMaterial(cfg.getString(path + ".material", "NETHER_STAR"), Material.NETHER_STAR);
-        String   name  = cfg.getString(path + ".name", "&e&lSkill Points");
         int available  = data.getAvailableSkillPoints();
         int earned     = data.getSkillPointsEarned();
         int spent      = data.getSkillPointsSpent();
         int nextLevel  = ((data.getLevel() / 5) + 1) * 5;
 
-        List<String> rawLore = cfg.getStringList(path + ".lore");
-        if (rawLore.isEmpty()) {
-            rawLore = List.of(
-                    "&8ꜱᴋɪʟʟ ᴛʀᴇᴇ",
-                    "",
-                    "&7Available Points: &a%available%",
-                    "&7Total Earned: &e%earned%",
-                    "&7Total Spent: &6%spent%",
-                    "",
-                    "&7Next point at &eLevel %next_level%",
-                    "&7(1 point per 5 levels)");
-        }
-        List<String> lore = new ArrayList<>();
-        for (String line : rawLore) {
-            lore.add(applyPlaceholders(line,
-                    "%available%",  String.valueOf(available),
-                    "%earned%",     String.valueOf(earned),
-                    "%spent%",      String.valueOf(spent),
-                    "%next_level%", String.valueOf(nextLevel)));
-        }
-        return createItem(mat, name, lore.isEmpty() ? null : lore);
+        ItemTemplate info = template(cfg, path, () -> {
+            List<String> rawLore = cfg.getStringList(path + ".lore");
+            if (rawLore.isEmpty()) {
+                rawLore = List.of(
+                        "&8ꜱᴋɪʟʟ ᴛʀᴇᴇ",
+                        "",
+                        "&7Available Points: &a%available%",
+                        "&7Total Earned: &e%earned%",
+                        "&7Total Spent: &6%spent%",
+                        "",
+                        "&7Next point at &eLevel %next_level%",
+                        "&7(1 point per 5 levels)");
+            }
+            return ItemTemplate.compile(
+                    parseMaterial(cfg.getString(path + ".material", "NETHER_STAR"), Material.NETHER_STAR),
+                    cfg.getString(path + ".name", "&e&lSkill Points"),
+                    rawLore);
+        });
+        setSlot(slot, info,
+                "%available%",  String.valueOf(available),
+                "%earned%",     String.valueOf(earned),
+                "%spent%",      String.valueOf(spent),
+                "%next_level%", String.valueOf(nextLevel));
     }
 
     // ── Click handling ────────────────────────────────────────────────────────
@@ -213,7 +202,7 @@ public class SkillTreeGUI extends BaseGUI {
         int slot = event.getSlot();
 
         if (slot == SLOT_BACK) {
-            new MenuGUI(plugin).open(player);
+            plugin.getGuiManager().open(player, MenuGUI.class, MenuGUI::new);
             return;
         }
 
@@ -235,7 +224,7 @@ public class SkillTreeGUI extends BaseGUI {
             return;
         }
 
-        if (!mgr.purchaseSkill(data, skill)) {
+        if (!mgr.tryPurchaseSkill(data, skill)) {
             plugin.getMessageManager().sendMessage(player, "messages.skill-no-points",
                     "%cost%", String.valueOf(mgr.getSkillCost(skill)));
             player.playSound(player.getLocation(), Sound.ENTITY_VILLAGER_NO, 1.0f, 1.0f);
@@ -247,7 +236,7 @@ public class SkillTreeGUI extends BaseGUI {
                 "%points%", String.valueOf(data.getAvailableSkillPoints()));
         player.playSound(player.getLocation(), Sound.UI_TOAST_CHALLENGE_COMPLETE, 1.0f, 1.1f);
         plugin.getDataManager().savePlayerData(player);
-        setupInventory(player);
+        render(player);
     }
 
     // ── Helpers ───────────────────────────────────────────────────────────────
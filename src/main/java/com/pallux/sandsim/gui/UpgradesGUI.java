@@ -11,8 +11,6 @@ import org.bukkit.entity.Player;
 import org.bukkit.event.inventory.InventoryClickEvent;
 
 import java.math.BigDecimal;
-import java.util.ArrayList;
-import java.util.List;
 
 public class UpgradesGUI extends BaseGUI {
 
@@ -24,11 +22,10 @@ public class UpgradesGUI extends BaseGUI {
 
     @Override
     protected void setupInventory(Player player) {
-        inventory.clear();
         FileConfiguration cfg = plugin.getConfigManager().getUpgradesGuiConfig();
         PlayerData data = plugin.getDataManager().getPlayerData(player);
         applyFiller(SEC, cfg);
-        inventory.setItem(slotFromConfig(SEC + ".back", cfg, 49), itemFromConfig(SEC + ".back", cfg));
+        setSlot(slotFromConfig(SEC + ".back", cfg, 49), template(SEC + ".back", cfg, Material.STONE));
 
         // Sand-cost upgrades
         buildUpgrade(player, data, cfg, "sand-multiplier",       UpgradeType.SAND_MULTIPLIER,       11);
@@ -61,19 +58,17 @@ public class UpgradesGUI extends BaseGUI {
         };
         boolean    isMaxed      = currentLevel >= maxLevel;
 
-        Material mat  = parseMaterial(cfg.getString(path + ".material", "STONE"), Material.STONE);
-        String   name = cfg.getString(path + ".name", key);
         String lorePath = isMaxed ? path + ".lore-maxed" : (!canAfford ? path + ".lore-cannot-afford" : path + ".lore");
-        List<String> lore = new ArrayList<>();
-        for (String line : cfg.getStringList(lorePath)) {
-            lore.add(applyPlaceholders(line,
-                    "%level%",   String.valueOf(currentLevel),
-                    "%max%",     String.valueOf(maxLevel),
-                    "%current%", formatValue(type, currentLevel),
-                    "%next%",    isMaxed ? "" : formatValue(type, currentLevel + 1),
-                    "%cost%",    formatNumber(cost)));
-        }
-        inventory.setItem(slotFromConfig(path, cfg, defaultSlot), createItem(mat, name, lore));
+        ItemTemplate item = template(cfg, lorePath, () -> ItemTemplate.compile(
+                parseMaterial(cfg.getString(path + ".material", "STONE"), Material.STONE),
+                cfg.getString(path + ".name", key),
+                cfg.getStringList(lorePath)));
+        setSlot(slotFromConfig(path, cfg, defaultSlot), item,
+                "%level%",   String.valueOf(currentLevel),
+                "%max%",     String.valueOf(maxLevel),
+                "%current%", formatValue(type, currentLevel),
+                "%next%",    isMaxed ? "" : formatValue(type, currentLevel + 1),
+                "%cost%",    formatNumber(cost));
     }
 
     private String formatValue(UpgradeType type, int level) {
@@ -103,22 +98,23 @@ public class UpgradesGUI extends BaseGUI {
     public void handleClick(InventoryClickEvent event, Player player) {
         int slot = event.getSlot();
         FileConfiguration cfg = plugin.getConfigManager().getUpgradesGuiConfig();
-        if (slot == slotFromConfig(SEC + ".back", cfg, 49)) { new MenuGUI(plugin).open(player); return; }
+        if (slot == slotFromConfig(SEC + ".back", cfg, 49)) { plugin.getGuiManager().open(player, MenuGUI.class, MenuGUI::new); return; }
 
         UpgradeType type = resolveUpgradeType(slot, cfg);
         if (type == null) return;
 
         PlayerData data = plugin.getDataManager().getPlayerData(player);
-        if (plugin.getUpgradeManager().purchaseUpgrade(data, type)) {
+        int levels = plugin.getUpgradeManager().purchaseUpgrades(data, type, purchaseQuantity(event));
+        if (levels > 0) {
             player.playSound(player.getLocation(), Sound.ENTITY_PLAYER_LEVELUP, 1.0f, 1.0f);
-            plugin.getMessageManager().sendMessage(player, "messages.upgrade-purchased");
+            sendPurchased(player, levels);
             if (type == UpgradeType.EFFICIENCY) {
                 plugin.getShovelManager().refreshShovel(player);
             }
             if (type == UpgradeType.SPEED) {
                 applySpeedEffect(player);
             }
-            setupInventory(player);
+            render(player);
         } else {
             player.playSound(player.getLocation(), Sound.ENTITY_VILLAGER_NO, 1.0f, 1.0f);
             // Pick the right "cannot afford" message based on currency
@@ -1,8 +1,10 @@
 package com.pallux.sandsim.listeners;
 
 import com.pallux.sandsim.SandSimPlugin;
+import com.pallux.sandsim.data.MultiplierSnapshot;
 import com.pallux.sandsim.data.PlayerData;
-import com.pallux.sandsim.utils.NumberFormatter;
+import com.pallux.sandsim.manager.FeedbackManager;
+import com.pallux.sandsim.manager.PerfManager;
 import org.bukkit.Sound;
 import org.bukkit.entity.Player;
 import org.bukkit.event.EventHandler;
@@ -10,13 +12,13 @@ import org.bukkit.event.EventPriority;
 import org.bukkit.event.Listener;
 import org.bukkit.event.block.BlockBreakEvent;
 
-import java.math.BigDecimal;
 import java.util.Random;
 
 public class BlockBreakListener implements Listener {
 
     private final SandSimPlugin plugin;
     private final Random random;
+    private final FeedbackManager feedback;
 
     /** Duration of both jackpot effects in milliseconds (5 seconds). */
     private static final long JACKPOT_DURATION_MS = 5_000L;
@@ -30,6 +32,7 @@ public class BlockBreakListener implements Listener {
     public BlockBreakListener(SandSimPlugin plugin) {
         this.plugin = plugin;
         this.random = new Random();
+        this.feedback = plugin.getFeedbackManager();
     }
 
     @EventHandler(priority = EventPriority.HIGHEST, ignoreCancelled = true)
@@ -44,7 +47,7 @@ public class BlockBreakListener implements Listener {
                 return;
             }
 
-            if (plugin.getSandBlockManager().isOnCooldown(event.getBlock().getLocation())) {
+            if (plugin.getSandBlockManager().isOnCooldown(event.getBlock())) {
                 event.setCancelled(true);
                 return;
             }
@@ -52,8 +55,11 @@ public class BlockBreakListener implements Listener {
             event.setDropItems(false);
             event.setExpToDrop(0);
 
+            PerfManager perf = plugin.getPerfManager();
+            long start = perf.start();
             PlayerData data = plugin.getDataManager().getPlayerData(player);
             processSandMining(player, data, event);
+            perf.stop(PerfManager.Metric.BLOCK_BREAK, start);
             return;
         }
 
@@ -66,62 +72,32 @@ public class BlockBreakListener implements Listener {
 
     private void processSandMining(Player player, PlayerData data, BlockBreakEvent event) {
         double sandTypeMultiplier = plugin.getSandBlockManager().getSandTypeMultiplier(event.getBlock());
-
-        double sandUpgradeMultiplier = plugin.getUpgradeManager().getSandMultiplier(data);
-        double rebirthMultiplier     = plugin.getRebirthManager().getRebirthMultiplier(data);
-        double eventSandBonus        = plugin.getEventManager().getSandBonus();
-        double augmentSandMultiplier = plugin.getAugmentManager().getSandMultiplier(data);
-        double skillSandMultiplier   = plugin.getSkillManager().getSandMultiplier(data);
+        MultiplierSnapshot mult = plugin.getMultiplierManager().get(data);
 
         // Overall multiplier BEFORE jackpot
-        double overallMultiplier = sandUpgradeMultiplier
-                * rebirthMultiplier
-                * (1.0 + eventSandBonus)
-                * augmentSandMultiplier
-                * skillSandMultiplier
-                * sandTypeMultiplier;
+        double overallMultiplier = mult.getSand() * sandTypeMultiplier;
 
         // ── Sand Jackpot check ─────────────────────────────────────────────
-        checkSandJackpot(player, data);
+        checkSandJackpot(player, data, mult);
 
         // Apply ×5 if jackpot is active
         double totalMultiplier = data.isSandJackpotActive()
                 ? overallMultiplier * SAND_JACKPOT_MULTIPLIER
                 : overallMultiplier;
 
-        BigDecimal sandAmount = BigDecimal.valueOf(totalMultiplier);
-        data.addSand(sandAmount);
-
-        // ── Leveling ───────────────────────────────────────────────────────
-        long xpGain = 1L + (long) plugin.getEventManager().getXpBonus();
-        int levelsGained = data.addXp(xpGain);
-
-        if (levelsGained > 0) {
-            int newPoints = plugin.getSkillManager().syncSkillPoints(data);
-            plugin.getMessageManager().sendMessage(player, "messages.level-up",
-                    "%level%", String.valueOf(data.getLevel()));
-            player.playSound(player.getLocation(), Sound.ENTITY_PLAYER_LEVELUP, 1.0f, 1.0f);
-
-            if (newPoints > 0) {
-                plugin.getMessageManager().sendMessage(player, "messages.skill-point-earned",
-                        "%points%", String.valueOf(newPoints),
-                        "%available%", String.valueOf(data.getAvailableSkillPoints()));
-            }
-        }
-
-        plugin.getSandBlockManager().setCooldown(event.getBlock().getLocation(), data);
+        double sandAmount = totalMultiplier;
+        // Credited lock-free; EarningsManager commits and announces level-ups each tick
+        data.creditSand(sandAmount);
+        data.creditXp(mult.getXpPerBlock());
 
-        checkSandExplosion(player, data, event, sandTypeMultiplier);
-        checkGemDrop(player, data);
+        plugin.getSandBlockManager().setCooldown(event.getBlock(), data);
 
-        // Action bar — show jackpot tag if active
-        String actionBarKey = data.isSandJackpotActive()
-                ? "messages.sand-mined-jackpot"
-                : "messages.sand-mined";
-        plugin.getMessageManager().sendActionBar(player, actionBarKey,
-                "%amount%", NumberFormatter.format(sandAmount));
+        checkSandExplosion(player, data, event, mult);
+        checkGemDrop(player, data, mult);
 
-        player.playSound(player.getLocation(), Sound.BLOCK_SAND_BREAK, 1.0f, 1.0f);
+        // Action bar — coalesced; shows the jackpot tag if any block in the window had it
+        feedback.sandMined(player, sandAmount, data.isSandJackpotActive());
+        feedback.sound(player, Sound.BLOCK_SAND_BREAK, 1.0f, 1.0f);
     }
 
     // ── Sand Jackpot activation ───────────────────────────────────────────────
@@ -130,38 +106,32 @@ public class BlockBreakListener implements Listener {
      * Rolls for Sand Jackpot activation. If triggered (and not already active),
      * activates the effect and notifies the player.
      */
-    private void checkSandJackpot(Player player, PlayerData data) {
+    private void checkSandJackpot(Player player, PlayerData data, MultiplierSnapshot mult) {
         if (data.isSandJackpotActive()) return; // already running
-        double chance = plugin.getUpgradeManager().getSandJackpotChance(data);
+        double chance = mult.getSandJackpotChance();
         if (chance <= 0) return;
         if (random.nextDouble() * 100.0 < chance) {
             data.activateSandJackpot(JACKPOT_DURATION_MS);
             plugin.getMessageManager().sendMessage(player, "messages.sand-jackpot-triggered");
-            player.playSound(player.getLocation(), Sound.UI_TOAST_CHALLENGE_COMPLETE, 1.0f, 1.5f);
+            feedback.sound(player, Sound.UI_TOAST_CHALLENGE_COMPLETE, 1.0f, 1.5f);
         }
     }
 
     // ── Sand Explosion ────────────────────────────────────────────────────────
 
     private void checkSandExplosion(Player player, PlayerData data, BlockBreakEvent event,
-                                    double sandTypeMultiplier) {
-        double explosionChance = plugin.getUpgradeManager().getSandExplosionChance(data);
+                                    MultiplierSnapshot mult) {
+        double explosionChance = mult.getExplosionChance();
         if (explosionChance <= 0) return;
 
         if (random.nextDouble() * 100 < explosionChance) {
-            int radius = plugin.getUpgradeManager().getSandExplosionRadius(data);
-            int[] explodedCounts = breakSandInRadius(event.getBlock().getLocation(), radius, data);
+            int radius = mult.getExplosionRadius();
+            int[] explodedCounts = plugin.getSandBlockManager().explode(event.getBlock(), radius, data);
             int normalBlocks = explodedCounts[0];
             int redBlocks    = explodedCounts[1];
             int soulBlocks   = explodedCounts[2];
 
-            double sandUpgrade     = plugin.getUpgradeManager().getSandMultiplier(data);
-            double rebirthMult     = plugin.getRebirthManager().getRebirthMultiplier(data);
-            double eventSandBonus  = plugin.getEventManager().getSandBonus();
-            double augmentSandMult = plugin.getAugmentManager().getSandMultiplier(data);
-            double skillSandMult   = plugin.getSkillManager().getSandMultiplier(data);
-            double baseMultiplier  = sandUpgrade * rebirthMult * (1.0 + eventSandBonus)
-                    * augmentSandMult * skillSandMult;
+            double baseMultiplier = mult.getSand();
 
             double redSandMult  = plugin.getSandBlockManager().getRedSandMultiplier();
             double soulSoilMult = plugin.getSandBlockManager().getSoulSoilMultiplier();
@@ -169,99 +139,54 @@ public class BlockBreakListener implements Listener {
             // Apply jackpot multiplier to explosion sand if active
             double jackpotBonus = data.isSandJackpotActive() ? SAND_JACKPOT_MULTIPLIER : 1.0;
 
-            BigDecimal explosionSand = BigDecimal.valueOf(
-                    ((baseMultiplier * normalBlocks)
+            double explosionSand = ((baseMultiplier * normalBlocks)
                             + (baseMultiplier * redSandMult  * redBlocks)
                             + (baseMultiplier * soulSoilMult * soulBlocks))
-                            * jackpotBonus);
-            data.addSand(explosionSand);
+                            * jackpotBonus;
+            data.creditSand(explosionSand);
 
             int totalBlocks = normalBlocks + redBlocks + soulBlocks;
             if (totalBlocks > 0) {
-                long xpGain = totalBlocks * (1L + (long) plugin.getEventManager().getXpBonus());
-                data.addXp(xpGain);
+                data.creditXp(totalBlocks * mult.getXpPerBlock());
             }
 
-            plugin.getMessageManager().sendMessage(player, "messages.sand-explosion",
-                    "%blocks%", String.valueOf(totalBlocks));
-            player.playSound(player.getLocation(), Sound.ENTITY_GENERIC_EXPLODE, 0.5f, 1.5f);
+            feedback.blocksExploded(player, totalBlocks);
+            feedback.sound(player, Sound.ENTITY_GENERIC_EXPLODE, 0.5f, 1.5f);
         }
     }
 
-    /**
-     * Breaks all sand-type blocks in a sphere. Returns [normalCount, redCount, soulCount].
-     */
-    private int[] breakSandInRadius(org.bukkit.Location center, int radius, PlayerData data) {
-        int normalCount = 0;
-        int redCount    = 0;
-        int soulCount   = 0;
-        int cx = center.getBlockX(), cy = center.getBlockY(), cz = center.getBlockZ();
-
-        for (int x = -radius; x <= radius; x++) {
-            for (int y = -radius; y <= radius; y++) {
-                for (int z = -radius; z <= radius; z++) {
-                    if (x == 0 && y == 0 && z == 0) continue;
-                    if (x * x + y * y + z * z > radius * radius) continue;
-
-                    org.bukkit.Location loc = new org.bukkit.Location(
-                            center.getWorld(), cx + x, cy + y, cz + z);
-                    org.bukkit.block.Block block = loc.getBlock();
-
-                    if (plugin.getSandBlockManager().isSandBlock(block) &&
-                            !plugin.getSandBlockManager().isOnCooldown(loc)) {
-                        plugin.getSandBlockManager().setCooldown(loc, data);
-                        if (plugin.getSandBlockManager().isRedSand(block))       redCount++;
-                        else if (plugin.getSandBlockManager().isSoulSoil(block)) soulCount++;
-                        else                                                      normalCount++;
-                    }
-                }
-            }
-        }
-        return new int[]{ normalCount, redCount, soulCount };
-    }
-
     // ── Gem Drop ──────────────────────────────────────────────────────────────
 
-    private void checkGemDrop(Player player, PlayerData data) {
-        double gemChance      = plugin.getUpgradeManager().getGemChance(data);
-        double eventGemBonus  = plugin.getEventManager().getGemChanceBonus() * 100.0;
-        double totalGemChance = gemChance + eventGemBonus;
+    private void checkGemDrop(Player player, PlayerData data, MultiplierSnapshot mult) {
+        double totalGemChance = mult.getGemChance();
 
         if (totalGemChance <= 0) return;
 
         if (random.nextDouble() * 100 < totalGemChance) {
-            double gemUpgradeMultiplier  = plugin.getUpgradeManager().getGemMultiplier(data);
-            double augmentGemsMultiplier = plugin.getAugmentManager().getGemsMultiplier(data);
-            double skillGemsMultiplier   = plugin.getSkillManager().getGemsMultiplier(data);
-
-            double baseGems = gemUpgradeMultiplier * augmentGemsMultiplier * skillGemsMultiplier;
+            double baseGems = mult.getGems();
 
             // ── Gem Jackpot check ──────────────────────────────────────────
-            checkGemJackpot(player, data);
+            checkGemJackpot(player, data, mult);
             double jackpotBonus = data.isGemJackpotActive() ? GEM_JACKPOT_MULTIPLIER : 1.0;
 
-            BigDecimal gemAmount = BigDecimal.valueOf(baseGems * jackpotBonus);
-            data.addGems(gemAmount);
+            double gemAmount = baseGems * jackpotBonus;
+            data.creditGems(gemAmount);
 
-            String msgKey = data.isGemJackpotActive()
-                    ? "messages.gem-found-jackpot"
-                    : "messages.gem-found";
-            plugin.getMessageManager().sendMessage(player, msgKey,
-                    "%amount%", gemAmount.toPlainString());
-            player.playSound(player.getLocation(), Sound.ENTITY_EXPERIENCE_ORB_PICKUP, 1.0f, 2.0f);
+            feedback.gemsFound(player, gemAmount, data.isGemJackpotActive());
+            feedback.sound(player, Sound.ENTITY_EXPERIENCE_ORB_PICKUP, 1.0f, 2.0f);
         }
     }
 
     // ── Gem Jackpot activation ────────────────────────────────────────────────
 
-    private void checkGemJackpot(Player player, PlayerData data) {
+    private void checkGemJackpot(Player player, PlayerData data, MultiplierSnapshot mult) {
         if (data.isGemJackpotActive()) return;
-        double chance = plugin.getUpgradeManager().getGemJackpotChance(data);
+        double chance = mult.getGemJackpotChance();
         if (chance <= 0) return;
         if (random.nextDouble() * 100.0 < chance) {
             data.activateGemJackpot(JACKPOT_DURATION_MS);
             plugin.getMessageManager().sendMessage(player, "messages.gem-jackpot-triggered");
-            player.playSound(player.getLocation(), Sound.UI_TOAST_CHALLENGE_COMPLETE, 1.0f, 2.0f);
+            feedback.sound(player, Sound.UI_TOAST_CHALLENGE_COMPLETE, 1.0f, 2.0f);
         }
     }
 }
\ No newline at end of file
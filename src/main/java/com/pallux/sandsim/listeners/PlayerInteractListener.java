@@ -29,7 +29,7 @@ public class PlayerInteractListener implements Listener {
 
         if (isRightClick && plugin.getShovelManager().isSandShovel(item)) {
             event.setCancelled(true);
-            new UpgradesGUI(plugin).open(player);
+            plugin.getGuiManager().open(player, UpgradesGUI.class, UpgradesGUI::new);
             return;
         }
 
@@ -39,7 +39,7 @@ public class PlayerInteractListener implements Listener {
 
         if (isAnyClick && plugin.getMenuItemManager().isMenuItem(item)) {
             event.setCancelled(true);
-            new MenuGUI(plugin).open(player);
+            plugin.getGuiManager().open(player, MenuGUI.class, MenuGUI::new);
         }
     }
 }
@@ -22,8 +22,13 @@ public class PlayerJoinListener implements Listener {
     public void onPlayerJoin(PlayerJoinEvent event) {
         Player player = event.getPlayer();
 
-        // Load player data (efficiency level must be available before shovel creation)
+        // Claim the record prefetched at pre-login (efficiency level must be available before shovel creation)
         PlayerData data = plugin.getDataManager().getPlayerData(player);
+        // The only place time away is paid out, whether the record was loaded or stayed cached
+        plugin.getFactoryManager().settleOffline(data);
+        plugin.getFactoryManager().track(data);
+        // Completes and announces research that finished while offline
+        plugin.getAugmentManager().track(data);
 
         // Remove duplicate shovels then refresh (keeps enchant in sync)
         plugin.getShovelManager().removeDuplicateShovels(player);
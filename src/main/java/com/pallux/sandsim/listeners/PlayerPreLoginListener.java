@@ -0,0 +1,48 @@
+package com.pallux.sandsim.listeners;
+
+import com.pallux.sandsim.SandSimPlugin;
+import com.pallux.sandsim.utils.ColorUtils;
+import org.bukkit.event.EventHandler;
+import org.bukkit.event.EventPriority;
+import org.bukkit.event.Listener;
+import org.bukkit.event.player.AsyncPlayerPreLoginEvent;
+import org.bukkit.event.player.PlayerLoginEvent;
+
+import java.util.concurrent.CompletionException;
+
+/**
+ * Prefetches player data while the connection is still on Paper's async
+ * login thread, so the YAML parse never lands on the main thread at join.
+ * If the stored record cannot be read the login is denied, rather than
+ * letting the player in on a blank record that would overwrite it.
+ */
+public class PlayerPreLoginListener implements Listener {
+
+    private final SandSimPlugin plugin;
+
+    public PlayerPreLoginListener(SandSimPlugin plugin) {
+        this.plugin = plugin;
+    }
+
+    /** HIGHEST rather than MONITOR, since a failed load changes the result. */
+    @EventHandler(priority = EventPriority.HIGHEST)
+    public void onAsyncPreLogin(AsyncPlayerPreLoginEvent event) {
+        if (event.getLoginResult() != AsyncPlayerPreLoginEvent.Result.ALLOWED) return;
+        try {
+            plugin.getDataManager().prefetchPlayerData(event.getUniqueId());
+        } catch (Exception e) {
+            Throwable cause = e instanceof CompletionException && e.getCause() != null ? e.getCause() : e;
+            plugin.getLogger().severe("Could not load player data for "
+                    + event.getUniqueId() + ", denying login: " + cause.getMessage());
+            event.disallow(AsyncPlayerPreLoginEvent.Result.KICK_OTHER,
+                    ColorUtils.toComponent(plugin.getMessageManager().getMessage("messages.data-load-failed-kick")));
+        }
+    }
+
+    @EventHandler(priority = EventPriority.MONITOR)
+    public void onLogin(PlayerLoginEvent event) {
+        if (event.getResult() != PlayerLoginEvent.Result.ALLOWED) {
+            plugin.getDataManager().discardStagedData(event.getPlayer().getUniqueId());
+        }
+    }
+}
@@ -17,5 +17,6 @@ public class PlayerQuitListener implements Listener {
     @EventHandler
     public void onPlayerQuit(PlayerQuitEvent event) {
         plugin.getDataManager().unloadPlayerData(event.getPlayer());
+        plugin.getGuiManager().forget(event.getPlayer().getUniqueId());
     }
 }
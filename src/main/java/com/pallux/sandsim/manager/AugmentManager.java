@@ -3,7 +3,12 @@ package com.pallux.sandsim.manager;
 import com.pallux.sandsim.SandSimPlugin;
 import com.pallux.sandsim.data.AugmentDefinition;
 import com.pallux.sandsim.data.PlayerData;
+import com.pallux.sandsim.utils.DueQueue;
+import org.bukkit.Bukkit;
+import org.bukkit.Sound;
 import org.bukkit.configuration.file.FileConfiguration;
+import org.bukkit.entity.Player;
+import org.bukkit.scheduler.BukkitTask;
 
 import java.math.BigDecimal;
 import java.util.ArrayList;
@@ -23,6 +28,11 @@ import java.util.Map;
  *  - Multipliers REPLACE, not stack – only the highest unlocked tier applies.
  *  - Only one augment can be researched at a time.
  *  - Research has an upfront gem cost and a time delay before it activates.
+ *
+ * Running research of loaded players sits in a {@link DueQueue} keyed by its
+ * completion time and is completed by a per-tick poll, so state reads never
+ * have to check for finished research. Research that finished while the
+ * player was offline completes (and is announced) when they join.
  */
 public class AugmentManager {
 
@@ -34,6 +44,10 @@ public class AugmentManager {
     /** How many augment items fit on one GUI page (3 rows × 7 columns). */
     public static final int ITEMS_PER_PAGE = 21;
 
+    /** Loaded players with research running, by completion time. */
+    private final DueQueue<PlayerData> researchQueue = new DueQueue<>();
+    private BukkitTask researchTask;
+
     public AugmentManager(SandSimPlugin plugin) {
         this.plugin = plugin;
         loadConfig();
@@ -115,20 +129,58 @@ public class AugmentManager {
         return data.getAugmentResearchCompleteTime();
     }
 
+    // ── Research scheduling ───────────────────────────────────────────────────
+
+    /** Starts the per-tick completion poll. */
+    public void start() {
+        if (researchTask == null) {
+            researchTask = Bukkit.getScheduler().runTaskTimer(plugin, this::processDueResearch, 1L, 1L);
+        }
+    }
+
+    public void shutdown() {
+        if (researchTask != null) researchTask.cancel();
+        researchTask = null;
+    }
+
+    /** Completes research that is due. Main thread; cheap when nothing is due. */
+    public void processDueResearch() {
+        for (PlayerData data : researchQueue.pollDue(System.currentTimeMillis())) {
+            complete(data);
+        }
+    }
+
     /**
-     * Checks whether in-progress research has finished and, if so, promotes
-     * the researching tier to the unlocked tier.
-     * Must be called before any state read (GUI render, multiplier query, etc.).
+     * Call when a player's record becomes live (join, plugin load). Completes
+     * research that finished while they were away, or queues it.
      */
-    public void tickResearch(PlayerData data) {
+    public void track(PlayerData data) {
         if (data.getAugmentResearchingTier() <= 0) return;
-        if (System.currentTimeMillis() >= data.getAugmentResearchCompleteTime()) {
-            data.setAugmentUnlockedTier(data.getAugmentResearchingTier());
-            data.setAugmentResearchingTier(0);
-            data.setAugmentResearchCompleteTime(0L);
+        long completeAt = data.getAugmentResearchCompleteTime();
+        if (completeAt <= System.currentTimeMillis()) {
+            complete(data);
+        } else {
+            researchQueue.schedule(data, completeAt);
         }
     }
 
+    /** Call when a player's record is unloaded. */
+    public void untrack(PlayerData data) {
+        researchQueue.remove(data);
+    }
+
+    private void complete(PlayerData data) {
+        int tier = data.completeResearch(System.currentTimeMillis());
+        if (tier <= 0) return;
+
+        Player player = Bukkit.getPlayer(data.getUuid());
+        AugmentDefinition def = getAugment(tier);
+        if (player == null || def == null) return;
+        plugin.getMessageManager().sendMessage(player, "messages.augment-research-complete",
+                "%augment%", def.getDisplayName());
+        plugin.getFeedbackManager().sound(player, Sound.UI_TOAST_CHALLENGE_COMPLETE, 1.0f, 1.0f);
+    }
+
     /**
      * Attempts to start research on the next tier.
      *
@@ -140,8 +192,6 @@ public class AugmentManager {
      * @return true if research was started successfully.
      */
     public boolean startResearch(PlayerData data) {
-        tickResearch(data);
-
         if (data.getAugmentResearchingTier() > 0) return false; // already researching
 
         int nextTier = data.getAugmentUnlockedTier() + 1;
@@ -149,12 +199,14 @@ public class AugmentManager {
         if (def == null) return false; // no more tiers
 
         BigDecimal cost = BigDecimal.valueOf(def.getGemCost());
-        if (data.getGems().compareTo(cost) < 0) return false; // can't afford
+        if (!data.trySpendGems(cost)) return false; // can't afford
 
-        data.removeGems(cost);
-        data.setAugmentResearchingTier(nextTier);
-        data.setAugmentResearchCompleteTime(
-                System.currentTimeMillis() + def.getResearchTimeSeconds() * 1000L);
+        long completeAt = System.currentTimeMillis() + def.getResearchTimeSeconds() * 1000L;
+        if (!data.beginResearch(nextTier, completeAt)) {
+            data.addGems(cost); // lost a race with another start; refund
+            return false;
+        }
+        researchQueue.schedule(data, completeAt);
         return true;
     }
 
@@ -163,7 +215,6 @@ public class AugmentManager {
      * Returns 0 if not researching or already done.
      */
     public long getResearchSecondsRemaining(PlayerData data) {
-        tickResearch(data);
         if (data.getAugmentResearchingTier() <= 0) return 0;
         long remaining = data.getAugmentResearchCompleteTime() - System.currentTimeMillis();
         return Math.max(0L, remaining / 1000L);
@@ -186,7 +237,6 @@ public class AugmentManager {
 
     /** Sand multiplier from augments (1.0 = no bonus, 1.05 = +5%). */
     public double getSandMultiplier(PlayerData data) {
-        tickResearch(data);
         AugmentDefinition def = getAugment(data.getAugmentUnlockedTier());
         if (def == null) return 1.0;
         return 1.0 + (def.getSandPercent() / 100.0);
@@ -194,7 +244,6 @@ public class AugmentManager {
 
     /** Gems multiplier from augments. */
     public double getGemsMultiplier(PlayerData data) {
-        tickResearch(data);
         AugmentDefinition def = getAugment(data.getAugmentUnlockedTier());
         if (def == null) return 1.0;
         return 1.0 + (def.getGemsPercent() / 100.0);
@@ -202,7 +251,6 @@ public class AugmentManager {
 
     /** Sandbucks multiplier from augments. */
     public double getSandbucksMultiplier(PlayerData data) {
-        tickResearch(data);
         AugmentDefinition def = getAugment(data.getAugmentUnlockedTier());
         if (def == null) return 1.0;
         return 1.0 + (def.getSandbucksPercent() / 100.0);
@@ -0,0 +1,367 @@
+package com.pallux.sandsim.manager;
+
+import com.pallux.sandsim.SandSimPlugin;
+import org.bukkit.Bukkit;
+import org.bukkit.Chunk;
+import org.bukkit.Material;
+import org.bukkit.World;
+import org.bukkit.block.Block;
+import org.bukkit.scheduler.BukkitTask;
+
+import java.util.*;
+
+/**
+ * Turns mined blocks into a placeholder and restores them when their cooldown
+ * ends, driven by a single per-tick task instead of two scheduler tasks per
+ * block.
+ *
+ * <ul>
+ *   <li>Positions are packed into one {@code long} and looked up in a primitive
+ *       open-addressing map per world — no {@code Location} objects.</li>
+ *   <li>Cooldowns sit in a hashed timing wheel of {@link #WHEEL_SIZE} tick
+ *       slots; each tick only the current slot is visited, and every entry in
+ *       it that is due is restored in one batch. Entries further than one
+ *       revolution ahead simply stay in their slot until their tick comes.</li>
+ *   <li>Placeholders are set at the start of the next tick, after the break
+ *       event has finished replacing the block with air.</li>
+ *   <li>Placements and restores of one tick are grouped by chunk section and
+ *       written section by section with physics disabled.</li>
+ * </ul>
+ *
+ * Main thread only.
+ */
+public class BlockRegenEngine {
+
+    private static final int WHEEL_SIZE = 1024;               // power of two
+    private static final int WHEEL_MASK = WHEEL_SIZE - 1;
+    private static final int NONE       = -1;
+
+    private final SandSimPlugin plugin;
+
+    // ── Entry pool (parallel arrays, recycled through a free list) ───────────
+    private long[]     pos         = new long[256];
+    private int[]      worldIdx    = new int[256];
+    private long[]     dueTick     = new long[256];
+    private int[]      next        = new int[256];
+    private Material[] original    = new Material[256];
+    private Material[] placeholder = new Material[256];
+    private int highWater = 0;
+    private int freeHead  = NONE;
+    private int active    = 0;
+
+    private final int[] wheel = new int[WHEEL_SIZE];
+    /** Entries whose placeholder still has to be set next tick. */
+    private int[] pendingPlacement = new int[64];
+    private int   pendingCount     = 0;
+    /** Entries collected for restoring in the current tick. */
+    private int[] dueBuffer = new int[64];
+    private int   dueCount  = 0;
+
+    private final List<UUID> worlds = new ArrayList<>();
+    private final Map<UUID, Integer> worldIndex = new HashMap<>();
+    private final List<LongIntMap> positions = new ArrayList<>();
+
+    private long tick = 0L;
+    private BukkitTask task;
+
+    public BlockRegenEngine(SandSimPlugin plugin) {
+        this.plugin = plugin;
+        Arrays.fill(wheel, NONE);
+    }
+
+    public void start() {
+        if (task == null) task = Bukkit.getScheduler().runTaskTimer(plugin, this::tick, 1L, 1L);
+    }
+
+    // ── Public API ────────────────────────────────────────────────────────────
+
+    public boolean isRegenerating(Block block) {
+        return lookup(block) != NONE;
+    }
+
+    /** Coordinate variant for callers that never materialise a {@link Block}. */
+    public boolean isRegenerating(World world, int x, int y, int z) {
+        Integer w = worldIndex.get(world.getUID());
+        return w != null && positions.get(w).get(pack(x, y, z)) != NONE;
+    }
+
+    /** Remaining cooldown in milliseconds, or 0 if the block is not regenerating. */
+    public long getRemainingMillis(Block block) {
+        int e = lookup(block);
+        return e == NONE ? 0L : Math.max(0L, dueTick[e] - tick) * 50L;
+    }
+
+    /**
+     * Schedules {@code block} to show {@code placeholderMaterial} from the next
+     * tick and to revert to its current type after {@code delayTicks}.
+     * Returns {@code false} if the block is already regenerating.
+     */
+    public boolean schedule(Block block, Material placeholderMaterial, long delayTicks) {
+        return schedule(block.getWorld(), block.getX(), block.getY(), block.getZ(),
+                block.getType(), placeholderMaterial, delayTicks);
+    }
+
+    /**
+     * Coordinate variant of {@link #schedule(Block, Material, long)}; the caller
+     * supplies the block's current type, e.g. from a chunk snapshot.
+     */
+    public boolean schedule(World world, int x, int y, int z, Material currentType,
+                            Material placeholderMaterial, long delayTicks) {
+        int w = worldIndex(world);
+        long packed = pack(x, y, z);
+        LongIntMap map = positions.get(w);
+        if (map.get(packed) != NONE) return false;
+
+        int e = allocate();
+        pos[e]         = packed;
+        worldIdx[e]    = w;
+        dueTick[e]     = tick + Math.max(1L, delayTicks);
+        original[e]    = currentType;
+        placeholder[e] = placeholderMaterial;
+        map.put(packed, e);
+
+        int slot = (int) (dueTick[e] & WHEEL_MASK);
+        next[e] = wheel[slot];
+        wheel[slot] = e;
+
+        if (pendingCount == pendingPlacement.length) pendingPlacement = Arrays.copyOf(pendingPlacement, pendingCount * 2);
+        pendingPlacement[pendingCount++] = e;
+        return true;
+    }
+
+    /** Number of blocks currently regenerating. */
+    public int size() {
+        return active;
+    }
+
+    /** Restores every regenerating block immediately and stops the tick task. */
+    public void shutdown() {
+        if (task != null) {
+            task.cancel();
+            task = null;
+        }
+        pendingCount = 0;
+        for (int slot = 0; slot < WHEEL_SIZE; slot++) {
+            int e = wheel[slot];
+            wheel[slot] = NONE;
+            while (e != NONE) {
+                addDue(e);
+                e = next[e];
+            }
+        }
+        restoreDue();
+    }
+
+    // ── Tick ──────────────────────────────────────────────────────────────────
+
+    private void tick() {
+        PerfManager perf = plugin.getPerfManager();
+        long start = perf.start();
+
+        // Placeholders for blocks mined during the previous tick
+        writeGrouped(pendingPlacement, pendingCount, placeholder);
+        pendingCount = 0;
+
+        tick++;
+        int slot = (int) (tick & WHEEL_MASK);
+        int prev = NONE;
+        int e = wheel[slot];
+        while (e != NONE) {
+            int following = next[e];
+            if (dueTick[e] <= tick) {
+                if (prev == NONE) wheel[slot] = following;
+                else              next[prev] = following;
+                addDue(e);
+            } else {
+                prev = e;
+            }
+            e = following;
+        }
+        perf.record(PerfManager.Metric.REGEN_RESTORES, dueCount);
+        restoreDue();
+        perf.stop(PerfManager.Metric.REGEN_TICK, start);
+    }
+
+    private void addDue(int e) {
+        if (dueCount == dueBuffer.length) dueBuffer = Arrays.copyOf(dueBuffer, dueCount * 2);
+        dueBuffer[dueCount++] = e;
+    }
+
+    /** Writes the original types back for every collected entry and frees them. */
+    private void restoreDue() {
+        if (dueCount == 0) return;
+        writeGrouped(dueBuffer, dueCount, original);
+        for (int i = 0; i < dueCount; i++) {
+            int e = dueBuffer[i];
+            positions.get(worldIdx[e]).remove(pos[e]);
+            release(e);
+        }
+        dueCount = 0;
+    }
+
+    /**
+     * Sets {@code materials[e]} for each entry, one chunk section at a time and
+     * without physics updates. Entries are ordered by a per-call section
+     * ordinal packed above their index, so a primitive sort does the grouping.
+     */
+    private void writeGrouped(int[] entries, int count, Material[] materials) {
+        if (count == 0) return;
+        Map<Long, Integer> ordinals = new HashMap<>();
+        long[] order = new long[count];
+        for (int i = 0; i < count; i++) {
+            int e = entries[i];
+            long p = pos[e];
+            // world (8 bits) | chunk x (22) | chunk z (22) | section y (12)
+            long key = ((long) worldIdx[e] << 56)
+                    | ((long) ((unpackX(p) >> 4) & 0x3FFFFF) << 34)
+                    | ((long) ((unpackZ(p) >> 4) & 0x3FFFFF) << 12)
+                    | ((unpackY(p) >> 4) & 0xFFF);
+            Integer ordinal = ordinals.get(key);
+            if (ordinal == null) {
+                ordinal = ordinals.size();
+                ordinals.put(key, ordinal);
+            }
+            order[i] = ((long) ordinal << 32) | i;
+        }
+        Arrays.sort(order);
+
+        long currentOrdinal = -1;
+        Chunk chunk = null;
+        for (long o : order) {
+            int e = entries[(int) o];
+            long p = pos[e];
+            if ((o >>> 32) != currentOrdinal) {
+                currentOrdinal = o >>> 32;
+                World world = Bukkit.getWorld(worlds.get(worldIdx[e]));
+                chunk = world == null ? null : world.getChunkAt(unpackX(p) >> 4, unpackZ(p) >> 4);
+            }
+            if (chunk == null || materials[e] == null) continue;
+            chunk.getBlock(unpackX(p) & 15, unpackY(p), unpackZ(p) & 15).setType(materials[e], false);
+        }
+    }
+
+    // ── Helpers ───────────────────────────────────────────────────────────────
+
+    private int lookup(Block block) {
+        Integer w = worldIndex.get(block.getWorld().getUID());
+        if (w == null) return NONE;
+        return positions.get(w).get(pack(block.getX(), block.getY(), block.getZ()));
+    }
+
+    private int worldIndex(World world) {
+        Integer w = worldIndex.get(world.getUID());
+        if (w != null) return w;
+        worlds.add(world.getUID());
+        positions.add(new LongIntMap());
+        worldIndex.put(world.getUID(), worlds.size() - 1);
+        return worlds.size() - 1;
+    }
+
+    private int allocate() {
+        active++;
+        if (freeHead != NONE) {
+            int e = freeHead;
+            freeHead = next[e];
+            return e;
+        }
+        if (highWater == pos.length) {
+            int cap = pos.length * 2;
+            pos         = Arrays.copyOf(pos, cap);
+            worldIdx    = Arrays.copyOf(worldIdx, cap);
+            dueTick     = Arrays.copyOf(dueTick, cap);
+            next        = Arrays.copyOf(next, cap);
+            original    = Arrays.copyOf(original, cap);
+            placeholder = Arrays.copyOf(placeholder, cap);
+        }
+        return highWater++;
+    }
+
+    private void release(int e) {
+        active--;
+        original[e]    = null;
+        placeholder[e] = null;
+        next[e]  = freeHead;
+        freeHead = e;
+    }
+
+    // x and z: 26 bits each, y: 12 bits (-2048..2047)
+    static long pack(int x, int y, int z) {
+        return ((long) (x & 0x3FFFFFF) << 38) | ((long) (z & 0x3FFFFFF) << 12) | (y & 0xFFF);
+    }
+
+    static int unpackX(long p) { return (int) (p >> 38); }
+    static int unpackZ(long p) { return (int) ((p << 26) >> 38); }
+    static int unpackY(long p) { return (int) ((p << 52) >> 52); }
+
+    /** Open-addressing {@code long → int} map with linear probing; absent keys map to {@link #NONE}. */
+    private static final class LongIntMap {
+        private long[] keys = new long[64];
+        private int[]  vals = new int[64];
+        private boolean[] used = new boolean[64];
+        private int size;
+
+        int get(long key) {
+            int mask = keys.length - 1;
+            for (int i = mix(key) & mask; used[i]; i = (i + 1) & mask) {
+                if (keys[i] == key) return vals[i];
+            }
+            return NONE;
+        }
+
+        void put(long key, int value) {
+            if ((size + 1) * 2 > keys.length) grow();
+            int mask = keys.length - 1;
+            int i = mix(key) & mask;
+            while (used[i]) {
+                if (keys[i] == key) { vals[i] = value; return; }
+                i = (i + 1) & mask;
+            }
+            used[i] = true;
+            keys[i] = key;
+            vals[i] = value;
+            size++;
+        }
+
+        void remove(long key) {
+            int mask = keys.length - 1;
+            int i = mix(key) & mask;
+            while (used[i] && keys[i] != key) i = (i + 1) & mask;
+            if (!used[i]) return;
+            used[i] = false;
+            size--;
+            // Backward-shift deletion keeps probe chains intact without tombstones
+            int j = i;
+            while (true) {
+                j = (j + 1) & mask;
+                if (!used[j]) return;
+                int home = mix(keys[j]) & mask;
+                boolean movable = (j > i) ? (home <= i || home > j) : (home <= i && home > j);
+                if (movable) {
+                    keys[i] = keys[j];
+                    vals[i] = vals[j];
+                    used[i] = true;
+                    used[j] = false;
+                    i = j;
+                }
+            }
+        }
+
+        private void grow() {
+            long[] oldKeys = keys;
+            int[]  oldVals = vals;
+            boolean[] oldUsed = used;
+            keys = new long[oldKeys.length * 2];
+            vals = new int[oldKeys.length * 2];
+            used = new boolean[oldKeys.length * 2];
+            size = 0;
+            for (int i = 0; i < oldKeys.length; i++) {
+                if (oldUsed[i]) put(oldKeys[i], oldVals[i]);
+            }
+        }
+
+        private static int mix(long key) {
+            long h = key * 0x9E3779B97F4A7C15L;
+            return (int) (h ^ (h >>> 32));
+        }
+    }
+}
@@ -0,0 +1,55 @@
+package com.pallux.sandsim.manager;
+
+import com.pallux.sandsim.SandSimPlugin;
+import com.pallux.sandsim.data.PlayerData;
+import org.bukkit.Bukkit;
+import org.bukkit.Sound;
+import org.bukkit.entity.Player;
+import org.bukkit.scheduler.BukkitTask;
+
+/**
+ * Folds the earnings credited by the mining path (see
+ * {@link PlayerData#creditSand(double)}) into player balances once per tick,
+ * and announces any level-ups those commits produced.
+ *
+ * Spending, resets and quit saves commit on their own before they read the
+ * balances, so a tick's delay never affects exact values.
+ */
+public class EarningsManager {
+
+    private final SandSimPlugin plugin;
+    private BukkitTask task;
+
+    public EarningsManager(SandSimPlugin plugin) {
+        this.plugin = plugin;
+    }
+
+    public void start() {
+        if (task == null) task = Bukkit.getScheduler().runTaskTimer(plugin, this::commitAll, 1L, 1L);
+    }
+
+    public void shutdown() {
+        if (task != null) task.cancel();
+        task = null;
+        commitAll();
+    }
+
+    /** Commits every online player's pending earnings. Main thread only. */
+    public void commitAll() {
+        for (Player player : Bukkit.getOnlinePlayers()) {
+            PlayerData data = plugin.getDataManager().getPlayerDataIfLoaded(player.getUniqueId());
+            if (data == null) continue;
+            if (data.hasPendingEarnings()) data.commitPending();
+
+            int levels = data.takeUnannouncedLevels();
+            if (levels > 0) announceLevelUp(player, data);
+        }
+    }
+
+    private void announceLevelUp(Player player, PlayerData data) {
+        int newPoints = plugin.getSkillManager().syncSkillPoints(data);
+        FeedbackManager feedback = plugin.getFeedbackManager();
+        feedback.levelUp(player, data.getLevel(), newPoints, data.getAvailableSkillPoints());
+        feedback.sound(player, Sound.ENTITY_PLAYER_LEVELUP, 1.0f, 1.0f);
+    }
+}
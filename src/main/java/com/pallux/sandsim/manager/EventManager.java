@@ -5,11 +5,16 @@ import com.pallux.sandsim.utils.ColorUtils;
 import net.kyori.adventure.bossbar.BossBar;
 import net.kyori.adventure.text.Component;
 import org.bukkit.Bukkit;
+import org.bukkit.configuration.ConfigurationSection;
 import org.bukkit.configuration.file.FileConfiguration;
+import org.bukkit.configuration.file.YamlConfiguration;
 import org.bukkit.entity.Player;
 import org.bukkit.scheduler.BukkitTask;
 
+import java.io.File;
+import java.io.IOException;
 import java.util.ArrayList;
+import java.util.Collections;
 import java.util.List;
 import java.util.Random;
 
@@ -27,6 +32,10 @@ public class EventManager {
     // Scheduler tasks
     private BukkitTask eventStartTask;
     private BukkitTask eventEndTask;
+    private BukkitTask heartbeatTask;
+
+    /** How often the history file's mtime is refreshed while an event runs. */
+    private static final long HEARTBEAT_TICKS = 60L * 20L;
 
     // Config values
     private long intervalTicks;      // how often to start an event (default 30 min)
@@ -42,9 +51,15 @@ public class EventManager {
     // Bossbar no-event text
     private String noEventText;
 
+    // Past and current event windows, oldest first; replaced, never mutated
+    private volatile List<EventWindow> history = List.of();
+    private final File historyFile;
+
     public EventManager(SandSimPlugin plugin) {
         this.plugin = plugin;
+        this.historyFile = new File(plugin.getDataFolder(), "event-history.yml");
         loadConfig();
+        loadHistory();
         createBossBar();
         startEventScheduler();
     }
@@ -72,6 +87,10 @@ public class EventManager {
     private void startEventScheduler() {
         eventStartTask = Bukkit.getScheduler().runTaskTimer(plugin, this::triggerRandomEvent,
                 intervalTicks, intervalTicks);
+        // The mtime bounds an event window left open by a crash, see readHistory
+        heartbeatTask = Bukkit.getScheduler().runTaskTimer(plugin, () -> {
+            if (activeEvent != null) historyFile.setLastModified(System.currentTimeMillis());
+        }, HEARTBEAT_TICKS, HEARTBEAT_TICKS);
     }
 
     public void triggerRandomEvent() {
@@ -81,7 +100,12 @@ public class EventManager {
     }
 
     public void startEvent(EventType type) {
+        long now = System.currentTimeMillis();
+        closeWindow(now);
         this.activeEvent = type;
+        appendWindow(new EventWindow(type, now, Long.MAX_VALUE));
+        plugin.getMultiplierManager().invalidateAll();
+        plugin.getFactoryManager().rescheduleAll();
 
         FileConfiguration cfg = plugin.getConfigManager().getEventsConfig();
         String eventKey = "events." + type.getConfigKey() + ".bossbar-text";
@@ -116,7 +140,10 @@ public class EventManager {
     }
 
     public void endEvent() {
+        closeWindow(System.currentTimeMillis());
         this.activeEvent = null;
+        plugin.getMultiplierManager().invalidateAll();
+        plugin.getFactoryManager().rescheduleAll();
 
         String noEvent = plugin.getConfigManager().getEventsConfig()
                 .getString("events.bossbar.no-event-text", noEventText);
@@ -140,6 +167,8 @@ public class EventManager {
     public void shutdown() {
         if (eventStartTask != null) eventStartTask.cancel();
         if (eventEndTask   != null) eventEndTask.cancel();
+        if (heartbeatTask  != null) heartbeatTask.cancel();
+        closeWindow(System.currentTimeMillis());
         for (Player p : Bukkit.getOnlinePlayers()) {
             p.hideBossBar(bossBar);
         }
@@ -185,6 +214,120 @@ public class EventManager {
         return 0.0;
     }
 
+    // ---- Event history ----
+
+    /**
+     * Event windows overlapping {@code [from, to)}, oldest first. The running
+     * event's window is open-ended. Safe to call from any thread.
+     */
+    public List<EventWindow> getWindows(long from, long to) {
+        List<EventWindow> result = new ArrayList<>();
+        for (EventWindow window : history) {
+            if (window.end > from && window.start < to) result.add(window);
+        }
+        return result;
+    }
+
+    private void appendWindow(EventWindow window) {
+        long keepAfter = window.start - plugin.getFactoryManager().getOfflineCapMillis();
+        List<EventWindow> next = new ArrayList<>(history.size() + 1);
+        for (EventWindow w : history) {
+            if (w.end > keepAfter) next.add(w);
+        }
+        next.add(window);
+        history = Collections.unmodifiableList(next);
+        saveHistory();
+    }
+
+    /** Ends the running event's window at {@code now}, if one is open. */
+    private void closeWindow(long now) {
+        List<EventWindow> current = history;
+        if (current.isEmpty()) return;
+        EventWindow last = current.get(current.size() - 1);
+        if (last.end != Long.MAX_VALUE) return;
+        List<EventWindow> next = new ArrayList<>(current);
+        next.set(next.size() - 1, new EventWindow(last.type, last.start, now));
+        history = Collections.unmodifiableList(next);
+        saveHistory();
+    }
+
+    private void loadHistory() {
+        history = readHistory(historyFile, durationTicks * 50L);
+    }
+
+    /**
+     * Reads saved windows, oldest first. A window still open in the file was
+     * cut short by a crash; it is closed at the file's last heartbeat, and
+     * never later than {@code maxOpenMillis} after it started, so the bonus is
+     * not replayed over the downtime.
+     */
+    static List<EventWindow> readHistory(File file, long maxOpenMillis) {
+        if (!file.exists()) return List.of();
+        long lastSeen = file.lastModified();
+        YamlConfiguration yaml = YamlConfiguration.loadConfiguration(file);
+        ConfigurationSection section = yaml.getConfigurationSection("windows");
+        if (section == null) return List.of();
+        List<EventWindow> loaded = new ArrayList<>();
+        for (String key : section.getKeys(false)) {
+            ConfigurationSection w = section.getConfigurationSection(key);
+            if (w == null) continue;
+            try {
+                EventType type = EventType.valueOf(w.getString("type", ""));
+                long start = w.getLong("start");
+                long end   = w.getLong("end");
+                if (end == Long.MAX_VALUE) end = Math.min(lastSeen, start + maxOpenMillis);
+                if (end > start) loaded.add(new EventWindow(type, start, end));
+            } catch (IllegalArgumentException ignored) {
+                // Event type removed since the file was written
+            }
+        }
+        loaded.sort((a, b) -> Long.compare(a.start, b.start));
+        return Collections.unmodifiableList(loaded);
+    }
+
+    /**
+     * Written on every change, so a crash cannot lose the windows that offline
+     * factory settlement needs. The file only holds the offline cap's worth.
+     */
+    private void saveHistory() {
+        YamlConfiguration yaml = new YamlConfiguration();
+        List<EventWindow> current = history;
+        for (int i = 0; i < current.size(); i++) {
+            EventWindow w = current.get(i);
+            yaml.set("windows." + i + ".type",  w.type.name());
+            yaml.set("windows." + i + ".start", w.start);
+            yaml.set("windows." + i + ".end",   w.end);
+        }
+        try {
+            yaml.save(historyFile);
+        } catch (IOException e) {
+            plugin.getLogger().warning("Could not save event history: " + e.getMessage());
+        }
+    }
+
+    /** One event's time span in epoch millis, {@code [start, end)}. */
+    public static final class EventWindow {
+        public final EventType type;
+        public final long start;
+        public final long end;
+
+        EventWindow(EventType type, long start, long end) {
+            this.type  = type;
+            this.start = start;
+            this.end   = end;
+        }
+    }
+
+    /** Factory production bonus a given event grants; 0 for {@code null}. */
+    public double getFactoryProductionBonus(EventType type) {
+        return type == EventType.BONUS_FACTORY_PRODUCTION ? factoryProductionBonus : 0.0;
+    }
+
+    /** Factory speed bonus a given event grants; 0 for {@code null}. */
+    public double getFactorySpeedBonus(EventType type) {
+        return type == EventType.BONUS_FACTORY_SPEED ? factorySpeedBonus : 0.0;
+    }
+
     // ---- Event Type Enum ----
 
     public enum EventType {
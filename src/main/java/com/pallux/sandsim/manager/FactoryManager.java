@@ -3,27 +3,51 @@ package com.pallux.sandsim.manager;
 import com.pallux.sandsim.SandSimPlugin;
 import com.pallux.sandsim.data.PlayerData;
 import com.pallux.sandsim.data.PlayerData.UpgradeType;
-import org.bukkit.Bukkit;
+import com.pallux.sandsim.manager.EventManager.EventType;
+import com.pallux.sandsim.manager.EventManager.EventWindow;
+import com.pallux.sandsim.utils.DueQueue;
 import org.bukkit.configuration.file.FileConfiguration;
-import org.bukkit.entity.Player;
 
 import java.math.BigDecimal;
 
+/**
+ * Factory unlocks, upgrades and production.
+ *
+ * Production is settled in closed form: the span since the player's last
+ * production time is cut at the event windows recorded by
+ * {@link EventManager}, and each piece pays {@code floor(time / interval)}
+ * cycles at that piece's rate, carrying the unfinished cycle over. A span is
+ * paid the same whether it is settled every cycle or once, so offline
+ * players are settled once when they join, capped at
+ * {@code factory.offline.max-hours} and scaled by
+ * {@code factory.offline.efficiency}.
+ *
+ * Online factories sit in a {@link DueQueue} keyed by their next cycle's
+ * completion time; the production task only settles the ones that are due.
+ * Unlocks, factory upgrades and event changes reschedule entries.
+ */
 public class FactoryManager {
 
     private final SandSimPlugin plugin;
     private BigDecimal factoryUnlockCost;
     private int factoryUnlockLevel;
+    private long offlineCapMillis;
+    private double offlineEfficiency;
+
+    /** Unlocked factories of online players, by next cycle completion. */
+    private final DueQueue<PlayerData> schedule = new DueQueue<>();
 
     public FactoryManager(SandSimPlugin plugin) {
         this.plugin = plugin;
         loadConfig();
     }
 
-    private void loadConfig() {
+    public void loadConfig() {
         FileConfiguration config = plugin.getConfigManager().getMainConfig();
         this.factoryUnlockCost  = new BigDecimal(config.getString("factory.unlock-cost",  "10000"));
         this.factoryUnlockLevel = config.getInt("factory.unlock-level", 50);
+        this.offlineCapMillis   = (long) (Math.max(0.0, config.getDouble("factory.offline.max-hours", 24.0)) * 3_600_000L);
+        this.offlineEfficiency  = Math.max(0.0, config.getDouble("factory.offline.efficiency", 1.0));
     }
 
     public boolean canUnlockFactory(PlayerData data) {
@@ -38,45 +62,126 @@ public class FactoryManager {
 
     public boolean unlockFactory(PlayerData data) {
         if (!canUnlockFactory(data)) return false;
-        data.removeSand(factoryUnlockCost);
+        if (!data.trySpendSand(factoryUnlockCost)) return false;
         data.setFactoryUnlocked(true);
         data.setLastFactoryProduction(System.currentTimeMillis());
+        track(data);
         return true;
     }
 
+    // ── Production ────────────────────────────────────────────────────────────
+
+    /** Settles the factories whose next cycle has completed. Runs every second. */
     public void processFactoryProduction() {
-        long currentTime = System.currentTimeMillis();
-        for (Player player : Bukkit.getOnlinePlayers()) {
-            PlayerData data = plugin.getDataManager().getPlayerData(player);
-            if (!data.isFactoryUnlocked()) continue;
-            processPlayerFactory(data, currentTime);
+        PerfManager perf = plugin.getPerfManager();
+        long start = perf.start();
+        for (PlayerData data : schedule.pollDue(System.currentTimeMillis())) {
+            settle(data);
+        }
+        perf.stop(PerfManager.Metric.FACTORY_TICK, start);
+    }
+
+    /** Settles every tracked factory; called before shutdown saves. */
+    public void settleAll() {
+        for (PlayerData data : schedule.keys()) {
+            settle(data);
+        }
+    }
+
+    // ── Scheduling ────────────────────────────────────────────────────────────
+
+    /** Queues a loaded player's factory for its next cycle; no-op while locked. */
+    public void track(PlayerData data) {
+        if (!data.isFactoryUnlocked() || plugin.getDataManager().getPlayerDataIfLoaded(data.getUuid()) != data) {
+            schedule.remove(data);
+            return;
+        }
+        long interval = plugin.getMultiplierManager().get(data).getFactoryIntervalMillis();
+        schedule.schedule(data, data.getLastFactoryProduction() + interval);
+    }
+
+    /** Stops scheduling the player's factory, e.g. on quit. */
+    public void untrack(PlayerData data) {
+        schedule.remove(data);
+    }
+
+    /** Recomputes every due time; call when a global rate input (event, reload) changes. */
+    public void rescheduleAll() {
+        for (PlayerData data : schedule.keys()) {
+            track(data);
         }
     }
 
-    private void processPlayerFactory(PlayerData data, long currentTime) {
-        long lastProduction = data.getLastFactoryProduction();
+    /** Pays all production up to now at full rate and schedules the next cycle. */
+    public void settle(PlayerData data) {
+        settle(data, false);
+        track(data);
+    }
 
-        double productionSpeed = plugin.getUpgradeManager().getFactoryProductionSpeed(data);
-        double speedBonus      = plugin.getEventManager().getFactorySpeedBonus();
-        double effectiveSpeed  = productionSpeed / (1.0 + speedBonus);
-        if (effectiveSpeed < 0.05) effectiveSpeed = 0.05;
+    /**
+     * Pays production for the time the player was away. Only the last
+     * {@code factory.offline.max-hours} count, at {@code factory.offline.efficiency};
+     * anything older is dropped.
+     */
+    public void settleOffline(PlayerData data) {
+        settle(data, true);
+    }
 
-        long productionInterval = (long) (effectiveSpeed * 1000);
-        long timePassed         = currentTime - lastProduction;
-        int  cycles             = (int) (timePassed / productionInterval);
+    private void settle(PlayerData data, boolean offline) {
+        if (!data.isFactoryUnlocked()) return;
+        long now  = System.currentTimeMillis();
+        long last = data.getLastFactoryProduction();
+        if (now <= last) return;
 
-        if (cycles > 0) {
-            double baseAmount           = plugin.getUpgradeManager().getFactoryProductionAmount(data);
-            double productionBonus      = plugin.getEventManager().getFactoryProductionBonus();
-            double augmentSandbucksMult = plugin.getAugmentManager().getSandbucksMultiplier(data);
-            // ── Skill tree sandbucks multiplier ────────────────────────────
-            double skillSandbucksMult   = plugin.getSkillManager().getSandbucksMultiplier(data);
-            double totalAmount          = baseAmount * (1.0 + productionBonus)
-                    * augmentSandbucksMult * skillSandbucksMult;
+        long   from       = offline ? Math.max(last, now - offlineCapMillis) : last;
+        double efficiency = offline ? offlineEfficiency : 1.0;
+        Simulation sim = simulate(data, from, now);
+        data.advanceFactory(last, now - sim.progress, sim.earned * efficiency);
+    }
 
-            BigDecimal total = BigDecimal.valueOf(totalAmount * cycles);
-            data.addSandbucks(total);
-            data.setLastFactoryProduction(lastProduction + ((long) cycles * productionInterval));
+    /** Production over {@code [from, to)}, starting at the beginning of a cycle. */
+    private Simulation simulate(PlayerData data, long from, long to) {
+        UpgradeManager upgrades = plugin.getUpgradeManager();
+        Simulation sim = new Simulation(
+                upgrades.getFactoryProductionAmount(data) * plugin.getMultiplierManager().get(data).getSandbucks(),
+                upgrades.getFactoryProductionSpeed(data));
+
+        long t = from;
+        for (EventWindow window : plugin.getEventManager().getWindows(from, to)) {
+            long start = Math.max(t, window.start);
+            long end   = Math.min(to, window.end);
+            if (start > t) sim.run(t, start, null);
+            if (end > start) sim.run(start, end, window.type);
+            t = Math.max(t, end);
+        }
+        if (to > t) sim.run(t, to, null);
+        return sim;
+    }
+
+    /** Running totals of one settlement. */
+    private final class Simulation {
+        final double baseAmount;
+        final double baseSeconds;
+        double earned;
+        /** Millis into the unfinished cycle. */
+        long progress;
+        long interval;
+
+        Simulation(double baseAmount, double baseSeconds) {
+            this.baseAmount  = baseAmount;
+            this.baseSeconds = baseSeconds;
+        }
+
+        void run(long start, long end, EventType event) {
+            EventManager events = plugin.getEventManager();
+            long next = MultiplierManager.factoryIntervalMillis(baseSeconds, events.getFactorySpeedBonus(event));
+            // Keep the unfinished cycle's completed fraction when the rate changes
+            if (interval > 0 && next != interval) progress = progress * next / interval;
+            interval = next;
+
+            long total = progress + (end - start);
+            earned  += (total / interval) * baseAmount * (1.0 + events.getFactoryProductionBonus(event));
+            progress = total % interval;
         }
     }
 
@@ -89,24 +194,28 @@ public class FactoryManager {
     }
 
     public boolean purchaseFactoryUpgrade(PlayerData data, UpgradeType type) {
-        if (!canUpgradeFactory(data, type)) return false;
-        BigDecimal cost = plugin.getUpgradeManager().getUpgradeCost(type, data.getUpgradeLevel(type));
-        data.removeSandbucks(cost);
-        data.upgradeLevel(type, 1);
-        return true;
+        return purchaseFactoryUpgrades(data, type, 1) == 1;
+    }
+
+    /** Bulk form of {@link #purchaseFactoryUpgrade}; returns the number of levels bought. */
+    public int purchaseFactoryUpgrades(PlayerData data, UpgradeType type, int maxLevels) {
+        if (!canUpgradeFactory(data, type)) return 0;
+        // Pay out at the old rate before the upgrade changes it
+        settle(data);
+        int levels = plugin.getUpgradeManager().purchaseUpgrades(data, type, maxLevels);
+        if (levels > 0) track(data);
+        return levels;
     }
 
     public BigDecimal getFactoryUnlockCost()  { return factoryUnlockCost; }
     public int        getFactoryUnlockLevel()  { return factoryUnlockLevel; }
+    public long       getOfflineCapMillis()    { return offlineCapMillis; }
 
     public long getTimeUntilNextProduction(PlayerData data) {
         if (!data.isFactoryUnlocked()) return -1;
         long   currentTime        = System.currentTimeMillis();
         long   lastProduction     = data.getLastFactoryProduction();
-        double productionSpeed    = plugin.getUpgradeManager().getFactoryProductionSpeed(data);
-        double speedBonus         = plugin.getEventManager().getFactorySpeedBonus();
-        double effectiveSpeed     = productionSpeed / (1.0 + speedBonus);
-        long   productionInterval = (long) (effectiveSpeed * 1000);
+        long   productionInterval = plugin.getMultiplierManager().get(data).getFactoryIntervalMillis();
         long   timePassed         = currentTime - lastProduction;
         return productionInterval - (timePassed % productionInterval);
     }
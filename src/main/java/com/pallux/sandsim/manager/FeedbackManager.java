@@ -0,0 +1,187 @@
+package com.pallux.sandsim.manager;
+
+import com.pallux.sandsim.SandSimPlugin;
+import com.pallux.sandsim.utils.NumberFormatter;
+import org.bukkit.Bukkit;
+import org.bukkit.Sound;
+import org.bukkit.entity.Player;
+import org.bukkit.scheduler.BukkitTask;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+
+/**
+ * Combines mining feedback per player over {@code feedback.coalesce-ticks}
+ * ticks: sand gained, gems found, exploded blocks and level-ups are summed and
+ * sent as one action bar plus one chat line per kind, and each distinct sound
+ * plays once per window. With a window of 0 everything is sent immediately.
+ *
+ * Main thread only.
+ */
+public class FeedbackManager {
+
+    private static final int MAX_COALESCE_TICKS = 20;
+
+    private final SandSimPlugin plugin;
+    private final Map<UUID, Pending> pending = new HashMap<>();
+    private int coalesceTicks;
+    private BukkitTask task;
+
+    public FeedbackManager(SandSimPlugin plugin) {
+        this.plugin = plugin;
+        loadConfig();
+    }
+
+    public void loadConfig() {
+        coalesceTicks = Math.max(0, Math.min(MAX_COALESCE_TICKS,
+                plugin.getConfigManager().getMainConfig().getInt("feedback.coalesce-ticks", 2)));
+        if (task != null) {
+            task.cancel();
+            task = null;
+        }
+        flushAll();
+        if (coalesceTicks > 0) {
+            task = Bukkit.getScheduler().runTaskTimer(plugin, this::flushAll, coalesceTicks, coalesceTicks);
+        }
+    }
+
+    // ── Recording ─────────────────────────────────────────────────────────────
+
+    public void sandMined(Player player, double amount, boolean jackpot) {
+        Pending p = pending(player);
+        p.sand += amount;
+        p.sandJackpot |= jackpot;
+        flushIfImmediate(player, p);
+    }
+
+    public void gemsFound(Player player, double amount, boolean jackpot) {
+        Pending p = pending(player);
+        p.gems += amount;
+        p.gemJackpot |= jackpot;
+        flushIfImmediate(player, p);
+    }
+
+    public void blocksExploded(Player player, int blocks) {
+        Pending p = pending(player);
+        p.explosions++;
+        p.explodedBlocks += blocks;
+        flushIfImmediate(player, p);
+    }
+
+    /** Records the player's level after a level-up and any skill points just earned. */
+    public void levelUp(Player player, int newLevel, int newPoints, int availablePoints) {
+        Pending p = pending(player);
+        p.level = newLevel;
+        p.newSkillPoints += newPoints;
+        p.availableSkillPoints = availablePoints;
+        flushIfImmediate(player, p);
+    }
+
+    /** Queues a sound; repeats of the same sound within one window play once. */
+    public void sound(Player player, Sound sound, float volume, float pitch) {
+        Pending p = pending(player);
+        for (SoundCue cue : p.sounds) {
+            if (cue.sound == sound && cue.pitch == pitch) {
+                cue.volume = Math.max(cue.volume, volume);
+                flushIfImmediate(player, p);
+                return;
+            }
+        }
+        p.sounds.add(new SoundCue(sound, volume, pitch));
+        flushIfImmediate(player, p);
+    }
+
+    // ── Flushing ──────────────────────────────────────────────────────────────
+
+    /** Sends everything still pending. Also called on shutdown and reload. */
+    public void flushAll() {
+        if (pending.isEmpty()) return;
+        for (Pending p : pending.values()) {
+            Player player = Bukkit.getPlayer(p.playerId);
+            if (player != null && player.isOnline()) send(player, p);
+        }
+        pending.clear();
+    }
+
+    public void shutdown() {
+        if (task != null) task.cancel();
+        task = null;
+        flushAll();
+    }
+
+    private Pending pending(Player player) {
+        return pending.computeIfAbsent(player.getUniqueId(), Pending::new);
+    }
+
+    private void flushIfImmediate(Player player, Pending p) {
+        if (coalesceTicks > 0) return;
+        pending.remove(player.getUniqueId());
+        send(player, p);
+    }
+
+    private void send(Player player, Pending p) {
+        MessageManager messages = plugin.getMessageManager();
+
+        if (p.explosions > 0) {
+            messages.sendMessage(player, "messages.sand-explosion",
+                    "%blocks%", String.valueOf(p.explodedBlocks));
+        }
+        if (p.gems > 0) {
+            messages.sendMessage(player, p.gemJackpot ? "messages.gem-found-jackpot" : "messages.gem-found",
+                    "%amount%", BigDecimal.valueOf(p.gems).toPlainString());
+        }
+        if (p.level > 0) {
+            messages.sendMessage(player, "messages.level-up",
+                    "%level%", String.valueOf(p.level));
+            if (p.newSkillPoints > 0) {
+                messages.sendMessage(player, "messages.skill-point-earned",
+                        "%points%", String.valueOf(p.newSkillPoints),
+                        "%available%", String.valueOf(p.availableSkillPoints));
+            }
+        }
+        if (p.sand > 0) {
+            messages.sendActionBar(player, p.sandJackpot ? "messages.sand-mined-jackpot" : "messages.sand-mined",
+                    "%amount%", NumberFormatter.format(p.sand));
+        }
+        for (SoundCue cue : p.sounds) {
+            player.playSound(player.getLocation(), cue.sound, cue.volume, cue.pitch);
+        }
+    }
+
+    // ── Per-player accumulator ────────────────────────────────────────────────
+
+    private static final class Pending {
+        final UUID playerId;
+        // Display only — the balances themselves are updated when rewards happen
+        double     sand;
+        boolean    sandJackpot;
+        double     gems;
+        boolean    gemJackpot;
+        int        explosions;
+        int        explodedBlocks;
+        int        level;
+        int        newSkillPoints;
+        int        availableSkillPoints;
+        final List<SoundCue> sounds = new ArrayList<>(2);
+
+        Pending(UUID playerId) {
+            this.playerId = playerId;
+        }
+    }
+
+    private static final class SoundCue {
+        final Sound sound;
+        final float pitch;
+        float volume;
+
+        SoundCue(Sound sound, float volume, float pitch) {
+            this.sound  = sound;
+            this.volume = volume;
+            this.pitch  = pitch;
+        }
+    }
+}
@@ -0,0 +1,62 @@
+package com.pallux.sandsim.manager;
+
+import com.pallux.sandsim.SandSimPlugin;
+import com.pallux.sandsim.gui.BaseGUI;
+import com.pallux.sandsim.gui.ItemTemplate;
+import org.bukkit.configuration.file.FileConfiguration;
+import org.bukkit.entity.Player;
+
+import java.util.HashMap;
+import java.util.IdentityHashMap;
+import java.util.Map;
+import java.util.UUID;
+import java.util.function.Function;
+import java.util.function.Supplier;
+
+/**
+ * Caches what the GUIs would otherwise rebuild on every click: compiled
+ * {@link ItemTemplate}s per config file and path, and one GUI instance per
+ * player and GUI class, so reopening a menu re-renders only the slots whose
+ * contents changed (see {@link BaseGUI}).
+ *
+ * Everything here is dropped on {@link #reload()}, since titles, sizes and
+ * item config may have changed. Main thread only.
+ */
+public class GuiManager {
+
+    private final SandSimPlugin plugin;
+    /** Keyed by config instance, so a reloaded file never hits stale templates. */
+    private final Map<FileConfiguration, Map<String, ItemTemplate>> templates = new IdentityHashMap<>();
+    private final Map<UUID, Map<Class<? extends BaseGUI>, BaseGUI>> guis = new HashMap<>();
+
+    public GuiManager(SandSimPlugin plugin) {
+        this.plugin = plugin;
+    }
+
+    /** Returns the template cached under {@code key}, compiling it on first use. */
+    public ItemTemplate template(FileConfiguration config, String key, Supplier<ItemTemplate> compiler) {
+        return templates.computeIfAbsent(config, c -> new HashMap<>()).computeIfAbsent(key, k -> compiler.get());
+    }
+
+    /** The player's instance of a GUI, created with {@code factory} on first use. */
+    @SuppressWarnings("unchecked")
+    public <T extends BaseGUI> T get(Player player, Class<T> type, Function<SandSimPlugin, T> factory) {
+        return (T) guis.computeIfAbsent(player.getUniqueId(), u -> new HashMap<>())
+                .computeIfAbsent(type, t -> factory.apply(plugin));
+    }
+
+    public <T extends BaseGUI> void open(Player player, Class<T> type, Function<SandSimPlugin, T> factory) {
+        get(player, type, factory).open(player);
+    }
+
+    /** Drops a player's GUI instances; called on quit. */
+    public void forget(UUID uuid) {
+        guis.remove(uuid);
+    }
+
+    /** Drops every cached template and GUI; call after the GUI configs are reloaded. */
+    public void reload() {
+        templates.clear();
+        guis.clear();
+    }
+}
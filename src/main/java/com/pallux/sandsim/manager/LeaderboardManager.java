@@ -2,42 +2,190 @@ package com.pallux.sandsim.manager;
 
 import com.pallux.sandsim.SandSimPlugin;
 import com.pallux.sandsim.data.PlayerData;
+import com.pallux.sandsim.data.storage.StorageException;
+import com.pallux.sandsim.utils.RankIndex;
 import org.bukkit.Bukkit;
 
+import java.io.*;
 import java.math.BigDecimal;
+import java.nio.file.Files;
+import java.nio.file.StandardCopyOption;
 import java.util.*;
 import java.util.concurrent.ConcurrentHashMap;
-import java.util.stream.Collectors;
 
+/**
+ * Keeps one {@link RankIndex} per {@link LeaderboardType} covering every
+ * stored player.
+ *
+ * <ul>
+ *   <li>On start-up the indexes are read from {@code leaderboard-index.dat};
+ *       only if that snapshot is missing or unreadable is storage scanned once.</li>
+ *   <li>{@link #refresh()} re-indexes cached players whose data changed since
+ *       their last refresh, so work scales with active players, not stored ones.</li>
+ *   <li>The snapshot is rewritten periodically and on shutdown.</li>
+ * </ul>
+ */
 public class LeaderboardManager {
 
+    private static final int  SNAPSHOT_MAGIC   = 0x53534C42; // "SSLB"
+    private static final int  SNAPSHOT_VERSION = 1;
+    private static final int  TOP_SIZE         = 10;
+
     private final SandSimPlugin plugin;
+    private final Map<LeaderboardType, RankIndex> indexes;
     private final Map<LeaderboardType, List<LeaderboardEntry>> leaderboards;
+    /** Record object and version last written to the indexes, per cached player. */
+    private final Map<UUID, IndexedState> indexed;
+    private final File snapshotFile;
+    private volatile boolean rebuilding;
 
     public LeaderboardManager(SandSimPlugin plugin) {
         this.plugin = plugin;
+        this.indexes = new EnumMap<>(LeaderboardType.class);
         this.leaderboards = new ConcurrentHashMap<>();
+        this.indexed = new ConcurrentHashMap<>();
+        this.snapshotFile = new File(plugin.getDataFolder(), "leaderboard-index.dat");
         for (LeaderboardType type : LeaderboardType.values()) {
+            indexes.put(type, new RankIndex());
             leaderboards.put(type, new ArrayList<>());
         }
+
+        if (!loadSnapshot()) {
+            rebuilding = true;
+            Bukkit.getScheduler().runTaskAsynchronously(plugin, this::rebuild);
+        }
+    }
+
+    // ── Incremental updates ───────────────────────────────────────────────────
+
+    /**
+     * Re-indexes cached players whose data changed since the last call and
+     * rebuilds the top lists. Cheap enough to run every few seconds.
+     */
+    public void refresh() {
+        PerfManager perf = plugin.getPerfManager();
+        long start = perf.start();
+        for (PlayerData data : plugin.getDataManager().getCachedPlayerData()) {
+            updatePlayer(data);
+        }
+        indexed.keySet().removeIf(uuid -> plugin.getDataManager().getPlayerDataIfLoaded(uuid) == null);
+        updateLeaderboards();
+        perf.stop(PerfManager.Metric.LEADERBOARD_REFRESH, start);
+    }
+
+    /** Re-indexes a single player if their record changed. Called on refresh and before unload. */
+    public void updatePlayer(PlayerData data) {
+        long version = data.getVersion();
+        IndexedState last = indexed.get(data.getUuid());
+        if (last != null && last.record == data && last.version == version) return;
+
+        for (LeaderboardType type : LeaderboardType.values()) {
+            indexes.get(type).update(data.getUuid(), getValue(data, type));
+        }
+        indexed.put(data.getUuid(), new IndexedState(data, version));
     }
 
+    /** Rebuilds the cached top lists from the indexes. */
     public void updateLeaderboards() {
-        Map<UUID, PlayerData> allData = plugin.getDataManager().getAllPlayerData();
         for (LeaderboardType type : LeaderboardType.values()) {
-            List<LeaderboardEntry> entries = allData.entrySet().stream()
-                    .map(entry -> new LeaderboardEntry(
-                            entry.getKey(),
-                            Bukkit.getOfflinePlayer(entry.getKey()).getName(),
-                            getValue(entry.getValue(), type)))
-                    .sorted(Comparator.comparing(LeaderboardEntry::getValue).reversed())
-                    .limit(10)
-                    .collect(Collectors.toList());
-            leaderboards.put(type, entries);
+            leaderboards.put(type, getRange(type, 1, TOP_SIZE));
+        }
+    }
+
+    // ── Bootstrap ─────────────────────────────────────────────────────────────
+
+    /**
+     * One-time full scan of storage, used only when no snapshot exists.
+     * Cached players are skipped — {@link #refresh()} indexes their live data.
+     */
+    private void rebuild() {
+        long start = System.currentTimeMillis();
+        int[] count = {0};
+        int skipped;
+        try {
+            skipped = plugin.getDataManager().getStore().forEach(data -> {
+                if (plugin.getDataManager().getPlayerDataIfLoaded(data.getUuid()) != null) return;
+                for (LeaderboardType type : LeaderboardType.values()) {
+                    indexes.get(type).update(data.getUuid(), getValue(data, type));
+                }
+                count[0]++;
+            });
+        } catch (StorageException e) {
+            plugin.getLogger().severe("Leaderboard index rebuild aborted: " + e.getMessage());
+            skipped = -1;
+        }
+        rebuilding = false;
+        refresh();
+        // An incomplete index is not snapshotted, so the next start scans again
+        if (skipped == 0) saveSnapshot();
+        plugin.getLogger().info("Built leaderboard index from " + count[0] + " stored players in "
+                + (System.currentTimeMillis() - start) + "ms.");
+    }
+
+    private boolean loadSnapshot() {
+        if (!snapshotFile.exists()) return false;
+        try (DataInputStream in = new DataInputStream(new BufferedInputStream(new FileInputStream(snapshotFile)))) {
+            if (in.readInt() != SNAPSHOT_MAGIC || in.readInt() != SNAPSHOT_VERSION) return false;
+            // An index built from another backend (e.g. before a migration) may not match
+            if (!in.readUTF().equals(plugin.getDataManager().getStore().getName())) return false;
+
+            for (int t = 0; t < LeaderboardType.values().length; t++) {
+                LeaderboardType type = LeaderboardType.valueOf(in.readUTF());
+                RankIndex index = indexes.get(type);
+                int size = in.readInt();
+                for (int i = 0; i < size; i++) {
+                    UUID uuid = new UUID(in.readLong(), in.readLong());
+                    index.update(uuid, new BigDecimal(in.readUTF()));
+                }
+            }
+            updateLeaderboards();
+            return true;
+        } catch (IOException | RuntimeException e) {
+            plugin.getLogger().warning("Leaderboard index snapshot unreadable, rebuilding: " + e.getMessage());
+            for (RankIndex index : indexes.values()) index.clear();
+            return false;
         }
     }
 
-    private BigDecimal getValue(PlayerData data, LeaderboardType type) {
+    /** Writes all indexes to disk (temp file + atomic rename). */
+    public void saveSnapshot() {
+        if (rebuilding) return;
+        File tmp = new File(snapshotFile.getPath() + ".tmp");
+        try (DataOutputStream out = new DataOutputStream(new BufferedOutputStream(new FileOutputStream(tmp)))) {
+            out.writeInt(SNAPSHOT_MAGIC);
+            out.writeInt(SNAPSHOT_VERSION);
+            out.writeUTF(plugin.getDataManager().getStore().getName());
+            for (LeaderboardType type : LeaderboardType.values()) {
+                RankIndex index = indexes.get(type);
+                List<RankIndex.Entry> entries = index.range(0, index.size());
+                out.writeUTF(type.name());
+                out.writeInt(entries.size());
+                for (RankIndex.Entry e : entries) {
+                    out.writeLong(e.getUuid().getMostSignificantBits());
+                    out.writeLong(e.getUuid().getLeastSignificantBits());
+                    out.writeUTF(e.getValue().toString());
+                }
+            }
+        } catch (IOException e) {
+            plugin.getLogger().warning("Could not save leaderboard index: " + e.getMessage());
+            return;
+        }
+        try {
+            Files.move(tmp.toPath(), snapshotFile.toPath(), StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        } catch (IOException e) {
+            plugin.getLogger().warning("Could not save leaderboard index: " + e.getMessage());
+        }
+    }
+
+    /** Folds in the final state of cached players and persists the indexes. */
+    public void shutdown() {
+        for (PlayerData data : plugin.getDataManager().getCachedPlayerData()) updatePlayer(data);
+        saveSnapshot();
+    }
+
+    // ── Queries ───────────────────────────────────────────────────────────────
+
+    public static BigDecimal getValue(PlayerData data, LeaderboardType type) {
         return switch (type) {
             case SAND      -> data.getSand();
             case GEMS      -> data.getGems();
@@ -50,30 +198,76 @@ public class LeaderboardManager {
         return new ArrayList<>(leaderboards.getOrDefault(type, new ArrayList<>()));
     }
 
+    /** 1-based rank of any stored player in O(log n), or -1 if unranked. */
     public int getPlayerRank(UUID uuid, LeaderboardType type) {
-        List<LeaderboardEntry> lb = leaderboards.get(type);
-        if (lb == null) return -1;
-        for (int i = 0; i < lb.size(); i++) {
-            if (lb.get(i).getUuid().equals(uuid)) return i + 1;
+        return indexes.get(type).getRank(uuid);
+    }
+
+    /** Number of ranked players for the given type. */
+    public int getRankedCount(LeaderboardType type) {
+        return indexes.get(type).size();
+    }
+
+    /**
+     * Share of ranked players at or above this player, in percent
+     * (rank 1 of 200 → 0.5, i.e. "top 0.5%"), or -1 if unranked.
+     */
+    public double getPercentile(UUID uuid, LeaderboardType type) {
+        RankIndex index = indexes.get(type);
+        int rank = index.getRank(uuid);
+        int size = index.size();
+        if (rank < 1 || size == 0) return -1;
+        return rank * 100.0 / size;
+    }
+
+    /**
+     * Ranked window starting at 1-based {@code fromRank}, e.g. ranks 500–519
+     * for {@code (500, 20)}. Costs O(log n + count).
+     */
+    public List<LeaderboardEntry> getRange(LeaderboardType type, int fromRank, int count) {
+        List<LeaderboardEntry> out = new ArrayList<>(Math.max(0, count));
+        if (fromRank < 1 || count <= 0) return out;
+        int rank = fromRank;
+        for (RankIndex.Entry e : indexes.get(type).range(fromRank - 1, count)) {
+            out.add(new LeaderboardEntry(e.getUuid(),
+                    Bukkit.getOfflinePlayer(e.getUuid()).getName(), e.getValue(), rank++));
         }
-        return -1;
+        return out;
     }
 
     public enum LeaderboardType { SAND, GEMS, SANDBUCKS, REBIRTHS }
 
+    private static final class IndexedState {
+        final PlayerData record;
+        final long version;
+
+        IndexedState(PlayerData record, long version) {
+            this.record  = record;
+            this.version = version;
+        }
+    }
+
     public static class LeaderboardEntry {
         private final UUID uuid;
         private final String playerName;
         private final BigDecimal value;
+        private final int rank;
 
         public LeaderboardEntry(UUID uuid, String playerName, BigDecimal value) {
+            this(uuid, playerName, value, -1);
+        }
+
+        public LeaderboardEntry(UUID uuid, String playerName, BigDecimal value, int rank) {
             this.uuid       = uuid;
             this.playerName = playerName;
             this.value      = value;
+            this.rank       = rank;
         }
 
         public UUID getUuid()          { return uuid; }
         public String getPlayerName()  { return playerName != null ? playerName : "Unknown"; }
         public BigDecimal getValue()   { return value; }
+        /** 1-based rank, or -1 if the entry was not built from the index. */
+        public int getRank()           { return rank; }
     }
-}
\ No newline at end of file
+}
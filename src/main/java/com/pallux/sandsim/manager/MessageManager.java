@@ -1,57 +1,82 @@
 package com.pallux.sandsim.manager;
 
 import com.pallux.sandsim.SandSimPlugin;
-import com.pallux.sandsim.utils.ColorUtils;
+import com.pallux.sandsim.utils.MessageTemplate;
 import org.bukkit.command.CommandSender;
 import org.bukkit.entity.Player;
 
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Sends messages from messages.yml. Each path is compiled into a
+ * {@link MessageTemplate} the first time it is used and kept until
+ * {@link #reload()}, so sending only splices placeholder values in.
+ */
 public class MessageManager {
 
     private final SandSimPlugin plugin;
+    /** Chat templates, prefix included. */
+    private final Map<String, MessageTemplate> chatTemplates   = new ConcurrentHashMap<>();
+    /** Action bar templates, without prefix. */
+    private final Map<String, MessageTemplate> actionTemplates = new ConcurrentHashMap<>();
+    private volatile String prefix;
 
     public MessageManager(SandSimPlugin plugin) {
         this.plugin = plugin;
+        reload();
+    }
+
+    /** Drops all compiled templates; call after messages.yml or config.yml is reloaded. */
+    public void reload() {
+        prefix = plugin.getConfigManager().getMainConfig().getString("plugin.prefix", "&#FFD700&l[SandSim]&r ");
+        chatTemplates.clear();
+        actionTemplates.clear();
+    }
+
+    private MessageTemplate chat(String path) {
+        return chatTemplates.computeIfAbsent(path, p -> {
+            String message = plugin.getConfigManager().getMessagesConfig().getString(p, "");
+            return message.isEmpty() ? MessageTemplate.EMPTY : MessageTemplate.compile(prefix + message);
+        });
+    }
+
+    private MessageTemplate actionBar(String path) {
+        return actionTemplates.computeIfAbsent(path, p -> {
+            String message = plugin.getConfigManager().getMessagesConfig().getString(p, "");
+            return message.isEmpty() ? MessageTemplate.EMPTY : MessageTemplate.compile(message);
+        });
     }
 
     public String getMessage(String path) {
-        String prefix  = plugin.getConfigManager().getMainConfig().getString("plugin.prefix", "&#FFD700&l[SandSim]&r ");
-        String message = plugin.getConfigManager().getMessagesConfig().getString(path, "");
-        if (!message.isEmpty()) return prefix + message;
-        return message;
+        return chat(path).raw();
     }
 
     public String getMessage(String path, String... replacements) {
-        String message = getMessage(path);
-        for (int i = 0; i < replacements.length - 1; i += 2) {
-            message = message.replace(replacements[i], replacements[i + 1]);
-        }
-        return message;
+        return chat(path).raw(replacements);
     }
 
     public void sendMessage(CommandSender sender, String path) {
-        String message = getMessage(path);
-        if (!message.isEmpty()) sender.sendMessage(ColorUtils.colorize(message));
+        MessageTemplate template = chat(path);
+        if (!template.isEmpty()) sender.sendMessage(template.render());
     }
 
     public void sendMessage(CommandSender sender, String path, String... replacements) {
-        String message = getMessage(path, replacements);
-        if (!message.isEmpty()) sender.sendMessage(ColorUtils.colorize(message));
+        MessageTemplate template = chat(path);
+        if (!template.isEmpty()) sender.sendMessage(template.render(replacements));
     }
 
     public void sendActionBar(Player player, String path) {
-        String message = plugin.getConfigManager().getMessagesConfig().getString(path, "");
-        if (!message.isEmpty()) player.sendActionBar(ColorUtils.toComponent(message));
+        MessageTemplate template = actionBar(path);
+        if (!template.isEmpty()) player.sendActionBar(template.renderComponent());
     }
 
     public void sendActionBar(Player player, String path, String... replacements) {
-        String message = plugin.getConfigManager().getMessagesConfig().getString(path, "");
-        for (int i = 0; i < replacements.length - 1; i += 2) {
-            message = message.replace(replacements[i], replacements[i + 1]);
-        }
-        if (!message.isEmpty()) player.sendActionBar(ColorUtils.toComponent(message));
+        MessageTemplate template = actionBar(path);
+        if (!template.isEmpty()) player.sendActionBar(template.renderComponent(replacements));
     }
 
     public String getPrefix() {
-        return plugin.getConfigManager().getMainConfig().getString("plugin.prefix", "&#FFD700&l[SandSim]&r ");
+        return prefix;
     }
 }
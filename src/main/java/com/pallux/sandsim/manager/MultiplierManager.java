@@ -0,0 +1,86 @@
+package com.pallux.sandsim.manager;
+
+import com.pallux.sandsim.SandSimPlugin;
+import com.pallux.sandsim.data.MultiplierSnapshot;
+import com.pallux.sandsim.data.PlayerData;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Hands out cached {@link MultiplierSnapshot}s so hot paths (block breaks,
+ * factory ticks, placeholders) do not recompute every bonus per call.
+ *
+ * A snapshot is rebuilt when:
+ *  - the player's multiplier revision changes (upgrade, rebirth, skill,
+ *    augment, finished research), or
+ *  - the global epoch is bumped (event start/end, config reload).
+ */
+public class MultiplierManager {
+
+    /** Factory cycles never run faster than this, whatever the bonuses. */
+    private static final double MIN_FACTORY_SECONDS = 0.05;
+
+    private final SandSimPlugin plugin;
+    private final AtomicLong epoch = new AtomicLong();
+
+    public MultiplierManager(SandSimPlugin plugin) {
+        this.plugin = plugin;
+    }
+
+    /** Current snapshot for the player, rebuilt first if stale. */
+    public MultiplierSnapshot get(PlayerData data) {
+        MultiplierSnapshot snapshot = data.getMultiplierSnapshot();
+        long currentEpoch = epoch.get();
+        if (snapshot != null && snapshot.isCurrent(data.getMultiplierRevision(), currentEpoch)) {
+            return snapshot;
+        }
+        snapshot = build(data, currentEpoch);
+        data.setMultiplierSnapshot(snapshot);
+        return snapshot;
+    }
+
+    /** Invalidates every player's snapshot. Call when a global input (event, config) changes. */
+    public void invalidateAll() {
+        epoch.incrementAndGet();
+    }
+
+    /** Factory cycle length for a base interval in seconds under the given speed bonus. */
+    public static long factoryIntervalMillis(double baseSeconds, double speedBonus) {
+        return (long) (Math.max(MIN_FACTORY_SECONDS, baseSeconds / (1.0 + speedBonus)) * 1000);
+    }
+
+    private MultiplierSnapshot build(PlayerData data, long currentEpoch) {
+        int revision = data.getMultiplierRevision();
+
+        UpgradeManager   upgrades = plugin.getUpgradeManager();
+        EventManager     events   = plugin.getEventManager();
+        AugmentManager   augments = plugin.getAugmentManager();
+        SkillManager     skills   = plugin.getSkillManager();
+
+        double rebirth = plugin.getRebirthManager().getRebirthMultiplier(data);
+        double sand = upgrades.getSandMultiplier(data)
+                * rebirth
+                * (1.0 + events.getSandBonus())
+                * augments.getSandMultiplier(data)
+                * skills.getSandMultiplier(data);
+
+        double gemChance = upgrades.getGemChance(data) + events.getGemChanceBonus() * 100.0;
+        double gems = upgrades.getGemMultiplier(data)
+                * augments.getGemsMultiplier(data)
+                * skills.getGemsMultiplier(data);
+        double sandbucks = augments.getSandbucksMultiplier(data) * skills.getSandbucksMultiplier(data);
+
+        double factoryAmount = upgrades.getFactoryProductionAmount(data)
+                * (1.0 + events.getFactoryProductionBonus())
+                * sandbucks;
+
+        return new MultiplierSnapshot(revision, currentEpoch,
+                sand, rebirth,
+                gemChance, gems, sandbucks,
+                1L + (long) events.getXpBonus(),
+                upgrades.getSandExplosionChance(data), upgrades.getSandExplosionRadius(data),
+                upgrades.getSandJackpotChance(data), upgrades.getGemJackpotChance(data),
+                factoryAmount,
+                factoryIntervalMillis(upgrades.getFactoryProductionSpeed(data), events.getFactorySpeedBonus()));
+    }
+}
@@ -0,0 +1,218 @@
+package com.pallux.sandsim.manager;
+
+import com.pallux.sandsim.SandSimPlugin;
+import com.pallux.sandsim.utils.LatencyHistogram;
+import org.bukkit.Bukkit;
+import org.bukkit.configuration.file.FileConfiguration;
+import org.bukkit.scheduler.BukkitTask;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+
+/**
+ * In-process timers and counters for the plugin's hot paths, shown by
+ * {@code /sandsim perf} and optionally dumped to {@code perf.prom} in the
+ * Prometheus text format for a node-exporter textfile collector or similar.
+ *
+ * Call sites bracket their work with {@link #start()} and
+ * {@link #stop(Metric, long)}; while {@code perf.enabled} is off, {@code start}
+ * returns 0 and {@code stop} ignores it, so the cost is one volatile read.
+ */
+public class PerfManager {
+
+    public enum Unit { NANOS, COUNT, BYTES }
+
+    public enum Metric {
+        BLOCK_BREAK        ("block_break",         Unit.NANOS, "Sand block break handling"),
+        EXPLOSION          ("explosion",           Unit.NANOS, "Sand explosion"),
+        EXPLOSION_BLOCKS   ("explosion_blocks",    Unit.COUNT, "Blocks caught per sand explosion"),
+        REGEN_TICK         ("regen_tick",          Unit.NANOS, "Cooldown regeneration tick"),
+        REGEN_RESTORES     ("regen_restores",      Unit.COUNT, "Blocks restored per regeneration tick"),
+        FACTORY_TICK       ("factory_tick",        Unit.NANOS, "Factory production pass"),
+        AUTOSAVE           ("autosave",            Unit.NANOS, "Autosave batch write"),
+        AUTOSAVE_BYTES     ("autosave_bytes",      Unit.BYTES, "Bytes written per autosave batch"),
+        LEADERBOARD_REFRESH("leaderboard_refresh", Unit.NANOS, "Leaderboard re-index and rebuild"),
+        GUI_RENDER         ("gui_render",          Unit.NANOS, "GUI contents render"),
+        GUI_OPEN           ("gui_open",            Unit.NANOS, "GUI render and open"),
+        PLACEHOLDER        ("placeholder",         Unit.NANOS, "PlaceholderAPI request");
+
+        private final String key;
+        private final Unit unit;
+        private final String description;
+
+        Metric(String key, Unit unit, String description) {
+            this.key         = key;
+            this.unit        = unit;
+            this.description = description;
+        }
+
+        public String getKey()         { return key; }
+        public Unit getUnit()          { return unit; }
+        public String getDescription() { return description; }
+    }
+
+    private static final String DUMP_FILE = "perf.prom";
+
+    private final SandSimPlugin plugin;
+    private final LatencyHistogram[] histograms = new LatencyHistogram[Metric.values().length];
+    private volatile boolean enabled;
+    /** Start of the current measuring window, for per-second rates. */
+    private volatile long windowStart = System.nanoTime();
+    private BukkitTask dumpTask;
+
+    public PerfManager(SandSimPlugin plugin) {
+        this.plugin = plugin;
+        for (int i = 0; i < histograms.length; i++) histograms[i] = new LatencyHistogram();
+        loadConfig();
+    }
+
+    public void loadConfig() {
+        FileConfiguration config = plugin.getConfigManager().getMainConfig();
+        enabled = config.getBoolean("perf.enabled", true);
+
+        if (dumpTask != null) {
+            dumpTask.cancel();
+            dumpTask = null;
+        }
+        long interval = config.getLong("perf.dump-interval-seconds", 0L) * 20L;
+        if (enabled && interval > 0) {
+            dumpTask = Bukkit.getScheduler().runTaskTimerAsynchronously(plugin, this::dump, interval, interval);
+        }
+    }
+
+    public void shutdown() {
+        if (dumpTask != null) {
+            dumpTask.cancel();
+            dumpTask = null;
+        }
+    }
+
+    // ── Recording ─────────────────────────────────────────────────────────────
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    /** Timestamp to pass to {@link #stop(Metric, long)}, or 0 while disabled. */
+    public long start() {
+        return enabled ? System.nanoTime() : 0L;
+    }
+
+    /** Records the time elapsed since {@code start}; ignored if it came from a disabled start. */
+    public void stop(Metric metric, long start) {
+        if (start != 0L) histograms[metric.ordinal()].record(System.nanoTime() - start);
+    }
+
+    /** Records a count or size sample, e.g. blocks per explosion. */
+    public void record(Metric metric, long value) {
+        if (enabled) histograms[metric.ordinal()].record(value);
+    }
+
+    public LatencyHistogram get(Metric metric) {
+        return histograms[metric.ordinal()];
+    }
+
+    public void reset() {
+        for (LatencyHistogram histogram : histograms) histogram.reset();
+        windowStart = System.nanoTime();
+    }
+
+    /** Seconds since startup or the last {@link #reset()}. */
+    public double getWindowSeconds() {
+        return Math.max(1e-9, (System.nanoTime() - windowStart) / 1e9);
+    }
+
+    // ── Reporting ─────────────────────────────────────────────────────────────
+
+    /** One chat line per metric that has samples, in {@code &}-colour codes. */
+    public List<String> report() {
+        double seconds = getWindowSeconds();
+        List<String> lines = new ArrayList<>();
+        for (Metric metric : Metric.values()) {
+            LatencyHistogram h = get(metric);
+            long count = h.getCount();
+            if (count == 0) continue;
+            lines.add(String.format(Locale.ROOT,
+                    "&e%s &7n=&f%d &7(%s/s) p50=&f%s &7p99=&f%s &7max=&f%s",
+                    metric.getKey(), count, rate(count / seconds),
+                    format(metric.getUnit(), h.getPercentile(50)),
+                    format(metric.getUnit(), h.getPercentile(99)),
+                    format(metric.getUnit(), h.getMax())));
+        }
+        return lines;
+    }
+
+    /**
+     * Every metric as a Prometheus summary: quantiles, {@code _sum},
+     * {@code _count} and {@code _max}. Times are exported in seconds.
+     */
+    public String exposition() {
+        StringBuilder out = new StringBuilder(4096);
+        for (Metric metric : Metric.values()) {
+            LatencyHistogram h = get(metric);
+            String name  = "sandsim_" + metric.getKey() + suffix(metric.getUnit());
+            double scale = metric.getUnit() == Unit.NANOS ? 1e-9 : 1.0;
+
+            out.append("# HELP ").append(name).append(' ').append(metric.getDescription()).append('\n');
+            out.append("# TYPE ").append(name).append(" summary\n");
+            for (double q : new double[]{0.5, 0.9, 0.99, 0.999}) {
+                out.append(name).append("{quantile=\"").append(q).append("\"} ")
+                   .append(h.getPercentile(q * 100) * scale).append('\n');
+            }
+            out.append(name).append("_sum ").append(h.getSum() * scale).append('\n');
+            out.append(name).append("_count ").append(h.getCount()).append('\n');
+            out.append(name).append("_max ").append(h.getMax() * scale).append('\n');
+        }
+        out.append("# HELP sandsim_perf_window_seconds Seconds covered by the metrics above\n");
+        out.append("# TYPE sandsim_perf_window_seconds gauge\n");
+        out.append("sandsim_perf_window_seconds ").append(getWindowSeconds()).append('\n');
+        return out.toString();
+    }
+
+    /** Writes {@link #exposition()} to {@code perf.prom}, swapping the file in atomically. */
+    public File dump() {
+        File target = new File(plugin.getDataFolder(), DUMP_FILE);
+        Path tmp    = new File(plugin.getDataFolder(), DUMP_FILE + ".tmp").toPath();
+        try {
+            Files.writeString(tmp, exposition(), StandardCharsets.UTF_8);
+            try {
+                Files.move(tmp, target.toPath(), StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+            } catch (AtomicMoveNotSupportedException e) {
+                Files.move(tmp, target.toPath(), StandardCopyOption.REPLACE_EXISTING);
+            }
+        } catch (IOException e) {
+            plugin.getLogger().warning("Could not write " + DUMP_FILE + ": " + e.getMessage());
+        }
+        return target;
+    }
+
+    private static String suffix(Unit unit) {
+        return switch (unit) {
+            case NANOS -> "_seconds";
+            case BYTES -> "_bytes";
+            case COUNT -> "";
+        };
+    }
+
+    private static String format(Unit unit, long value) {
+        return switch (unit) {
+            case NANOS -> value >= 1_000_000L ? String.format(Locale.ROOT, "%.2fms", value / 1e6)
+                                              : String.format(Locale.ROOT, "%.1fµs", value / 1e3);
+            case BYTES -> value >= 1024L ? String.format(Locale.ROOT, "%.1fKiB", value / 1024.0) : value + "B";
+            case COUNT -> String.valueOf(value);
+        };
+    }
+
+    private static String rate(double perSecond) {
+        return perSecond >= 10 ? String.format(Locale.ROOT, "%.0f", perSecond)
+                               : String.format(Locale.ROOT, "%.2f", perSecond);
+    }
+}
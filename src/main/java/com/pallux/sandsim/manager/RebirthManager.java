@@ -52,11 +52,7 @@ public class RebirthManager {
     public boolean performRebirth(PlayerData data, long amount) {
         if (amount <= 0) return false;
         BigDecimal totalCost = rebirthCost.multiply(BigDecimal.valueOf(amount));
-        if (data.getSand().compareTo(totalCost) < 0) return false;
-        data.removeSand(totalCost);
-        data.resetUpgrades();
-        data.addRebirths(amount);
-        return true;
+        return data.tryRebirth(totalCost, amount);
     }
 
     public double getRebirthMultiplier(long rebirths) {
@@ -2,19 +2,16 @@ package com.pallux.sandsim.manager;
 
 import com.pallux.sandsim.SandSimPlugin;
 import com.pallux.sandsim.data.PlayerData;
-import org.bukkit.Bukkit;
 import org.bukkit.Location;
 import org.bukkit.Material;
 import org.bukkit.block.Block;
 import org.bukkit.configuration.file.FileConfiguration;
 
-import java.util.Map;
-import java.util.concurrent.ConcurrentHashMap;
-
 public class SandBlockManager {
 
     private final SandSimPlugin plugin;
-    private final Map<Location, Long> cooldowns;
+    private final BlockRegenEngine regenEngine;
+    private final SandExplosionExecutor explosionExecutor;
     private Material sandMaterial;
     private Material redSandMaterial;
     private Material soulSoilMaterial;
@@ -24,8 +21,10 @@ public class SandBlockManager {
 
     public SandBlockManager(SandSimPlugin plugin) {
         this.plugin = plugin;
-        this.cooldowns = new ConcurrentHashMap<>();
+        this.regenEngine = new BlockRegenEngine(plugin);
+        this.explosionExecutor = new SandExplosionExecutor(this::classify, regenEngine);
         loadConfig();
+        regenEngine.start();
     }
 
     private void loadConfig() {
@@ -77,33 +76,60 @@ public class SandBlockManager {
         return 1.0;
     }
 
+    /**
+     * Maps a material to its {@link SandExplosionExecutor} count index
+     * (normal, red, soul), or -1 if it is not mineable.
+     */
+    public int classify(Material type) {
+        if (type == sandMaterial)     return SandExplosionExecutor.NORMAL;
+        if (type == redSandMaterial)  return SandExplosionExecutor.RED;
+        if (type == soulSoilMaterial) return SandExplosionExecutor.SOUL;
+        return -1;
+    }
+
+    /**
+     * Puts every sand block within {@code radius} of {@code center} on the
+     * player's cooldown. Returns [normalCount, redCount, soulCount].
+     */
+    public int[] explode(Block center, int radius, PlayerData data) {
+        PerfManager perf = plugin.getPerfManager();
+        long start = perf.start();
+        double cooldownSeconds = plugin.getUpgradeManager().getSandCooldown(data);
+        int[] counts = explosionExecutor.explode(center, radius, cooldownMaterial, (long) (cooldownSeconds * 20));
+        perf.stop(PerfManager.Metric.EXPLOSION, start);
+        perf.record(PerfManager.Metric.EXPLOSION_BLOCKS, counts[0] + counts[1] + counts[2]);
+        return counts;
+    }
+
+    public boolean isOnCooldown(Block block) {
+        return regenEngine.isRegenerating(block);
+    }
+
     public boolean isOnCooldown(Location location) {
-        Long cooldownEnd = cooldowns.get(location);
-        if (cooldownEnd == null) return false;
-        if (System.currentTimeMillis() >= cooldownEnd) { cooldowns.remove(location); return false; }
-        return true;
+        return isOnCooldown(location.getBlock());
     }
 
-    public void setCooldown(Location location, PlayerData data) {
+    /**
+     * Puts a mined block on cooldown: it shows the cooldown material from the
+     * next tick and reverts to its current type (sand, red sand or soul soil)
+     * once the player's cooldown has passed.
+     */
+    public void setCooldown(Block block, PlayerData data) {
         double cooldownSeconds = plugin.getUpgradeManager().getSandCooldown(data);
-        long cooldownMillis    = (long) (cooldownSeconds * 1000);
-        long cooldownEnd       = System.currentTimeMillis() + cooldownMillis;
-
-        cooldowns.put(location.clone(), cooldownEnd);
-
-        Block block = location.getBlock();
-        // Remember which material to restore (sand, red sand, or soul soil)
-        Material originalMaterial = block.getType();
-        Bukkit.getScheduler().runTask(plugin, () -> block.setType(cooldownMaterial));
-        Bukkit.getScheduler().runTaskLater(plugin, () -> {
-            if (cooldowns.remove(location.clone()) != null) block.setType(originalMaterial);
-        }, (long) (cooldownSeconds * 20));
+        regenEngine.schedule(block, cooldownMaterial, (long) (cooldownSeconds * 20));
+    }
+
+    public void setCooldown(Location location, PlayerData data) {
+        setCooldown(location.getBlock(), data);
     }
 
     public long getRemainingCooldown(Location location) {
-        Long cooldownEnd = cooldowns.get(location);
-        if (cooldownEnd == null) return 0;
-        return Math.max(0, cooldownEnd - System.currentTimeMillis());
+        return regenEngine.getRemainingMillis(location.getBlock());
+    }
+
+    /** Restores every block still on cooldown. Called on disable. */
+    public void shutdown() {
+        regenEngine.shutdown();
     }
 
     public Material getSandMaterial()        { return sandMaterial; }
@@ -18,36 +18,54 @@ import org.bukkit.configuration.file.FileConfiguration;
  */
 public class SkillManager {
 
+    private static final SkillType[] SKILLS = SkillType.values();
+
     private final SandSimPlugin plugin;
 
+    // Compiled from skills.yml, indexed by SkillType ordinal; 0 for skills of other tracks
+    private final int[]    cost           = new int[SKILLS.length];
+    private final double[] sandBonus      = new double[SKILLS.length];
+    private final double[] gemsBonus      = new double[SKILLS.length];
+    private final double[] sandbucksBonus = new double[SKILLS.length];
+
     public SkillManager(SandSimPlugin plugin) {
         this.plugin = plugin;
+        loadConfig();
     }
 
-    // ── Config helpers ────────────────────────────────────────────────────────
+    // ── Config ────────────────────────────────────────────────────────────────
 
-    private FileConfiguration cfg() {
-        return plugin.getConfigManager().getSkillsConfig();
+    /** Compiles skill costs and bonuses from skills.yml. Call again on reload. */
+    public void loadConfig() {
+        FileConfiguration cfg = plugin.getConfigManager().getSkillsConfig();
+        for (SkillType skill : SKILLS) {
+            String path = "skills." + skill.getTrack() + ".tier-" + skill.getTier();
+            int i = skill.ordinal();
+            cost[i]           = cfg.getInt(path + ".cost", 1);
+            sandBonus[i]      = skill.getTrack().equals("sand")      ? cfg.getDouble(path + ".bonus", defaultSandBonus(skill))      : 0.0;
+            gemsBonus[i]      = skill.getTrack().equals("gems")      ? cfg.getDouble(path + ".bonus", defaultGemsBonus(skill))      : 0.0;
+            sandbucksBonus[i] = skill.getTrack().equals("sandbucks") ? cfg.getDouble(path + ".bonus", defaultSandbucksBonus(skill)) : 0.0;
+        }
     }
 
     /** Cost in skill points to purchase a given skill (default 1). */
     public int getSkillCost(SkillType skill) {
-        return cfg().getInt("skills." + skill.getTrack() + ".tier-" + skill.getTier() + ".cost", 1);
+        return cost[skill.ordinal()];
     }
 
     /** Sand bonus percentage granted by a given sand skill (e.g. 100 = +100%). */
     public double getSkillSandBonus(SkillType skill) {
-        return cfg().getDouble("skills.sand.tier-" + skill.getTier() + ".bonus", defaultSandBonus(skill));
+        return sandBonus[skill.ordinal()];
     }
 
     /** Gems bonus percentage granted by a given gem skill. */
     public double getSkillGemsBonus(SkillType skill) {
-        return cfg().getDouble("skills.gems.tier-" + skill.getTier() + ".bonus", defaultGemsBonus(skill));
+        return gemsBonus[skill.ordinal()];
     }
 
     /** Sandbucks bonus percentage granted by a given sandbucks skill. */
     public double getSkillSandbucksBonus(SkillType skill) {
-        return cfg().getDouble("skills.sandbucks.tier-" + skill.getTier() + ".bonus", defaultSandbucksBonus(skill));
+        return sandbucksBonus[skill.ordinal()];
     }
 
     // ── Default bonuses (used when config key is absent) ─────────────────────
@@ -96,17 +114,14 @@ public class SkillManager {
     // ── Purchase ──────────────────────────────────────────────────────────────
 
     /**
-     * Attempts to purchase the given skill for the player.
+     * Attempts to purchase the given skill for the player. Ownership,
+     * prerequisite and points are checked under the record's lock, so two
+     * concurrent clicks cannot both spend the same points.
      *
      * @return true if purchase succeeded.
      */
-    public boolean purchaseSkill(PlayerData data, SkillType skill) {
-        if (data.hasSkill(skill))              return false; // already owned
-        if (!hasPrerequisite(data, skill))     return false; // locked
-        int cost = getSkillCost(skill);
-        if (data.getAvailableSkillPoints() < cost) return false; // can't afford
-        data.purchaseSkill(skill, cost);
-        return true;
+    public boolean tryPurchaseSkill(PlayerData data, SkillType skill) {
+        return data.tryPurchaseSkill(skill, getSkillCost(skill));
     }
 
     // ── Multiplier queries ────────────────────────────────────────────────────
@@ -117,36 +132,31 @@ public class SkillManager {
      * The bonuses are ADDITIVE (each tier adds its own bonus to the base).
      */
     public double getSandMultiplier(PlayerData data) {
-        double bonus = 0.0;
-        for (SkillType skill : SkillType.values()) {
-            if (!skill.getTrack().equals("sand")) continue;
-            if (data.hasSkill(skill)) bonus += getSkillSandBonus(skill);
-        }
-        return 1.0 + (bonus / 100.0);
+        return 1.0 + sumBonus(sandBonus, data.getPurchasedSkillMask()) / 100.0;
     }
 
     /**
      * Total gems bonus from all purchased gem skills as a decimal multiplier.
      */
     public double getGemsMultiplier(PlayerData data) {
-        double bonus = 0.0;
-        for (SkillType skill : SkillType.values()) {
-            if (!skill.getTrack().equals("gems")) continue;
-            if (data.hasSkill(skill)) bonus += getSkillGemsBonus(skill);
-        }
-        return 1.0 + (bonus / 100.0);
+        return 1.0 + sumBonus(gemsBonus, data.getPurchasedSkillMask()) / 100.0;
     }
 
     /**
      * Total sandbucks bonus from all purchased sandbucks skills as a decimal multiplier.
      */
     public double getSandbucksMultiplier(PlayerData data) {
-        double bonus = 0.0;
-        for (SkillType skill : SkillType.values()) {
-            if (!skill.getTrack().equals("sandbucks")) continue;
-            if (data.hasSkill(skill)) bonus += getSkillSandbucksBonus(skill);
+        return 1.0 + sumBonus(sandbucksBonus, data.getPurchasedSkillMask()) / 100.0;
+    }
+
+    /** Sums {@code bonus} over the set bits of {@code mask}. */
+    private static double sumBonus(double[] bonus, int mask) {
+        double total = 0.0;
+        while (mask != 0) {
+            total += bonus[Integer.numberOfTrailingZeros(mask)];
+            mask &= mask - 1;
         }
-        return 1.0 + (bonus / 100.0);
+        return total;
     }
 
     // ── Skill point sync ──────────────────────────────────────────────────────
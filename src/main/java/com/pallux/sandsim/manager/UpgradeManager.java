@@ -6,25 +6,38 @@ import com.pallux.sandsim.data.PlayerData.UpgradeType;
 import org.bukkit.configuration.file.FileConfiguration;
 
 import java.math.BigDecimal;
-import java.util.HashMap;
+import java.math.BigInteger;
+import java.math.MathContext;
+import java.math.RoundingMode;
+import java.util.EnumMap;
 import java.util.Map;
 
+/**
+ * Upgrade prices and effects. Each {@link UpgradeType} is compiled on load
+ * into an {@link UpgradeTable} holding its per-level cost and value, so the
+ * GUIs, affordability checks and placeholders only index arrays.
+ */
 public class UpgradeManager {
 
+    /** Precision of the cost math; totals are rounded up to whole units afterwards. */
+    private static final MathContext COST_MATH = MathContext.DECIMAL128;
+
     private final SandSimPlugin plugin;
-    private final Map<UpgradeType, UpgradeInfo> upgradeInfoMap;
+    /** Swapped whole on reload, so readers on any thread see one consistent set. */
+    private volatile Map<UpgradeType, UpgradeTable> tables = new EnumMap<>(UpgradeType.class);
 
     public UpgradeManager(SandSimPlugin plugin) {
         this.plugin = plugin;
-        this.upgradeInfoMap = new HashMap<>();
-        loadUpgradeInfo();
+        loadConfig();
     }
 
-    private void loadUpgradeInfo() {
+    /** Rebuilds every upgrade table from {@code upgrades-gui.yml}. */
+    public void loadConfig() {
         FileConfiguration config = plugin.getConfigManager().getUpgradesConfig();
+        Map<UpgradeType, UpgradeInfo> upgradeInfoMap = new EnumMap<>(UpgradeType.class);
 
         upgradeInfoMap.put(UpgradeType.SAND_MULTIPLIER, new UpgradeInfo(
-                1, 100, 1,
+                1, 101, 1,
                 config.getDouble("upgrades.sand-multiplier.base-cost", 100),
                 config.getDouble("upgrades.sand-multiplier.cost-multiplier", 1.15),
                 Currency.SAND));
@@ -36,7 +49,7 @@ public class UpgradeManager {
                 Currency.SAND));
 
         upgradeInfoMap.put(UpgradeType.SAND_EXPLOSION_RADIUS, new UpgradeInfo(
-                1, 10, 1,
+                1, 11, 1,
                 config.getDouble("upgrades.sand-explosion-radius.base-cost", 1000),
                 config.getDouble("upgrades.sand-explosion-radius.cost-multiplier", 1.25),
                 Currency.SAND));
@@ -54,7 +67,7 @@ public class UpgradeManager {
                 Currency.SAND));
 
         upgradeInfoMap.put(UpgradeType.GEM_MULTIPLIER, new UpgradeInfo(
-                1, 10, 1,
+                1, 11, 1,
                 config.getDouble("upgrades.gem-multiplier.base-cost", 2000),
                 config.getDouble("upgrades.gem-multiplier.cost-multiplier", 1.3),
                 Currency.SAND));
@@ -92,57 +105,175 @@ public class UpgradeManager {
                 Currency.SANDBUCKS));
 
         upgradeInfoMap.put(UpgradeType.FACTORY_PRODUCTION_AMOUNT, new UpgradeInfo(
-                1, 1000, 1,
+                1, 1001, 1,
                 config.getDouble("upgrades.factory-production-amount.base-cost", 150),
                 config.getDouble("upgrades.factory-production-amount.cost-multiplier", 1.12),
                 Currency.SANDBUCKS));
+
+        Map<UpgradeType, UpgradeTable> compiled = new EnumMap<>(UpgradeType.class);
+        for (Map.Entry<UpgradeType, UpgradeInfo> entry : upgradeInfoMap.entrySet()) {
+            UpgradeType type = entry.getKey();
+            int maxLevel = config.getInt("upgrades." + configKey(type) + ".max-level", defaultMaxLevel(type));
+            compiled.put(type, new UpgradeTable(entry.getValue(), Math.max(0, maxLevel)));
+        }
+        tables = compiled;
     }
 
-    public UpgradeInfo getUpgradeInfo(UpgradeType type) { return upgradeInfoMap.get(type); }
+    private static String configKey(UpgradeType type) {
+        return type.name().toLowerCase().replace('_', '-');
+    }
+
+    public UpgradeTable getUpgradeTable(UpgradeType type) { return tables.get(type); }
+
+    public UpgradeInfo getUpgradeInfo(UpgradeType type) {
+        UpgradeTable table = tables.get(type);
+        return table == null ? null : table.info;
+    }
 
     public double getUpgradeValue(UpgradeType type, int level) {
-        UpgradeInfo info = upgradeInfoMap.get(type);
-        if (info == null) return 0;
-        return info.baseValue + (level * info.valuePerLevel);
+        UpgradeTable table = tables.get(type);
+        return table == null ? 0 : table.getValue(level);
     }
 
     public BigDecimal getUpgradeCost(UpgradeType type, int currentLevel) {
-        UpgradeInfo info = upgradeInfoMap.get(type);
-        if (info == null) return BigDecimal.ZERO;
-        double cost = info.baseCost * Math.pow(info.costMultiplier, currentLevel);
-        return BigDecimal.valueOf(cost).setScale(0, java.math.RoundingMode.CEILING);
+        return getUpgradeCost(type, currentLevel, 1);
+    }
+
+    /**
+     * Total price of {@code levels} consecutive levels starting at
+     * {@code fromLevel}, summed in closed form as the geometric series
+     * {@code base·m^L·(m^n − 1)/(m − 1)} and rounded up once.
+     */
+    public BigDecimal getUpgradeCost(UpgradeType type, int fromLevel, int levels) {
+        UpgradeTable table = tables.get(type);
+        if (table == null || levels <= 0) return BigDecimal.ZERO;
+        return levels == 1 ? table.getCost(fromLevel) : seriesCost(table.info, fromLevel, levels);
+    }
+
+    /**
+     * {@link #getUpgradeCost(UpgradeType, int, int)} for one upgrade. Totals of
+     * up to about 30 digits are exact; larger ones are within
+     * {@link #COST_MATH}'s relative precision.
+     */
+    static BigDecimal seriesCost(UpgradeInfo info, int fromLevel, int levels) {
+        BigDecimal base = BigDecimal.valueOf(info.baseCost);
+        BigDecimal m    = BigDecimal.valueOf(info.costMultiplier);
+        BigDecimal sum;
+        if (m.compareTo(BigDecimal.ONE) == 0) {
+            sum = base.multiply(BigDecimal.valueOf(levels));
+        } else {
+            BigDecimal first = base.multiply(m.pow(fromLevel, COST_MATH), COST_MATH);
+            sum = first.multiply(m.pow(levels, COST_MATH).subtract(BigDecimal.ONE), COST_MATH)
+                       .divide(m.subtract(BigDecimal.ONE), COST_MATH);
+        }
+        return sum.setScale(0, RoundingMode.CEILING);
+    }
+
+    /**
+     * How many levels from {@code fromLevel} on, at most {@code limit}, a
+     * balance of {@code budget} pays for. The series is inverted with
+     * logarithms for an estimate, which exact cost checks then correct.
+     */
+    public int getAffordableLevels(UpgradeType type, int fromLevel, BigDecimal budget, int limit) {
+        UpgradeTable table = tables.get(type);
+        return table == null ? 0 : affordableLevels(table.info, fromLevel, budget, limit);
+    }
+
+    /** {@link #getAffordableLevels} for one upgrade. */
+    static int affordableLevels(UpgradeInfo info, int fromLevel, BigDecimal budget, int limit) {
+        if (limit <= 0) return 0;
+        int n = Math.min(limit, estimateLevels(info, fromLevel, budget));
+        while (n > 0 && seriesCost(info, fromLevel, n).compareTo(budget) > 0) n--;
+        while (n < limit && seriesCost(info, fromLevel, n + 1).compareTo(budget) <= 0) n++;
+        return n;
+    }
+
+    /** Solves {@code budget = cost(fromLevel, n)} for n, in doubles and log space. */
+    private static int estimateLevels(UpgradeInfo info, int fromLevel, BigDecimal budget) {
+        if (budget.signum() <= 0) return 0;
+        if (info.baseCost <= 0) return Integer.MAX_VALUE;
+        double m = info.costMultiplier;
+        double n;
+        if (m == 1.0) {
+            n = Math.exp(ln(budget) - Math.log(info.baseCost));
+        } else {
+            // r = budget·(m − 1) / (base·m^L); n = ln(1 + r) / ln m
+            double lnR = ln(budget) + Math.log(Math.abs(m - 1))
+                       - Math.log(info.baseCost) - fromLevel * Math.log(m);
+            if (m > 1) {
+                n = (lnR > 700 ? lnR : Math.log1p(Math.exp(lnR))) / Math.log(m);
+            } else {
+                // A shrinking series converges; past its limit every level is affordable
+                if (lnR >= 0) return Integer.MAX_VALUE;
+                n = Math.log1p(-Math.exp(lnR)) / Math.log(m);
+            }
+        }
+        if (Double.isNaN(n) || n <= 0) return 0;
+        return n >= Integer.MAX_VALUE ? Integer.MAX_VALUE : (int) n;
+    }
+
+    /** Natural log of a positive value of any size, to double precision. */
+    private static double ln(BigDecimal value) {
+        BigInteger unscaled = value.unscaledValue();
+        int shift = Math.max(0, unscaled.bitLength() - 62);
+        return Math.log(unscaled.shiftRight(shift).doubleValue())
+                + shift * Math.log(2) - value.scale() * Math.log(10);
     }
 
     /** Returns which currency this upgrade requires. */
     public Currency getUpgradeCurrency(UpgradeType type) {
-        UpgradeInfo info = upgradeInfoMap.get(type);
-        return info == null ? Currency.SAND : info.currency;
+        UpgradeTable table = tables.get(type);
+        return table == null ? Currency.SAND : table.info.currency;
+    }
+
+    /** The player's balance in {@code currency}. */
+    public BigDecimal getBalance(PlayerData data, Currency currency) {
+        return switch (currency) {
+            case SAND      -> data.getSand();
+            case SANDBUCKS -> data.getSandbucks();
+            case GEMS      -> data.getGems();
+        };
     }
 
     public boolean canUpgrade(PlayerData data, UpgradeType type) {
         int currentLevel = data.getUpgradeLevel(type);
         if (currentLevel >= getMaxLevel(type)) return false;
         BigDecimal cost = getUpgradeCost(type, currentLevel);
-        return switch (getUpgradeCurrency(type)) {
-            case SAND      -> data.getSand().compareTo(cost) >= 0;
-            case SANDBUCKS -> data.getSandbucks().compareTo(cost) >= 0;
-            case GEMS      -> data.getGems().compareTo(cost) >= 0;
-        };
+        return getBalance(data, getUpgradeCurrency(type)).compareTo(cost) >= 0;
     }
 
     public boolean purchaseUpgrade(PlayerData data, UpgradeType type) {
-        if (!canUpgrade(data, type)) return false;
-        BigDecimal cost = getUpgradeCost(type, data.getUpgradeLevel(type));
-        switch (getUpgradeCurrency(type)) {
-            case SAND      -> data.removeSand(cost);
-            case SANDBUCKS -> data.removeSandbucks(cost);
-            case GEMS      -> data.removeGems(cost);
-        }
-        data.upgradeLevel(type, 1);
-        return true;
+        return purchaseUpgrades(data, type, 1) == 1;
+    }
+
+    /**
+     * Buys as many levels of {@code type} as the player can afford, up to
+     * {@code maxLevels} and the level cap, paying the series total in one
+     * atomic step. Returns the number of levels bought, 0 if none.
+     */
+    public int purchaseUpgrades(PlayerData data, UpgradeType type, int maxLevels) {
+        int level = data.getUpgradeLevel(type);
+        int limit = Math.min(maxLevels, getMaxLevel(type) - level);
+        if (limit <= 0) return 0;
+        Currency currency = getUpgradeCurrency(type);
+        int levels = getAffordableLevels(type, level, getBalance(data, currency), limit);
+        if (levels == 0) return 0;
+        BigDecimal cost = getUpgradeCost(type, level, levels);
+        boolean paid = switch (currency) {
+            case SAND      -> data.tryBuyUpgradeWithSand(type, level, levels, cost);
+            case SANDBUCKS -> data.tryBuyUpgradeWithSandbucks(type, level, levels, cost);
+            case GEMS      -> data.tryBuyUpgradeWithGems(type, level, levels, cost);
+        };
+        return paid ? levels : 0;
     }
 
     public int getMaxLevel(UpgradeType type) {
+        UpgradeTable table = tables.get(type);
+        return table == null ? defaultMaxLevel(type) : table.maxLevel;
+    }
+
+    /** Used when {@code upgrades.<type>.max-level} is not configured. */
+    private static int defaultMaxLevel(UpgradeType type) {
         return switch (type) {
             case SAND_MULTIPLIER           -> 100;
             case SAND_EXPLOSION_CHANCE     -> 100;
@@ -214,6 +345,46 @@ public class UpgradeManager {
 
     public enum Currency { SAND, SANDBUCKS, GEMS }
 
+    // ── UpgradeTable ──────────────────────────────────────────────────────────
+
+    /**
+     * An upgrade compiled for one config load: the price of every level below
+     * the cap and the value at every level up to it. Values are held within
+     * {@link UpgradeInfo#maxValue}; levels past the cap (an admin-set level or
+     * a lowered {@code max-level}) get the capped value.
+     */
+    public static class UpgradeTable {
+        private final UpgradeInfo  info;
+        private final int          maxLevel;
+        /** {@code costs[L]} is the price of going from level L to L + 1. */
+        private final BigDecimal[] costs;
+        private final double[]     values;
+
+        UpgradeTable(UpgradeInfo info, int maxLevel) {
+            this.info     = info;
+            this.maxLevel = maxLevel;
+            this.costs    = new BigDecimal[maxLevel];
+            this.values   = new double[maxLevel + 1];
+            for (int level = 0; level < maxLevel; level++) costs[level] = seriesCost(info, level, 1);
+            for (int level = 0; level <= maxLevel; level++) {
+                double value = info.baseValue + level * info.valuePerLevel;
+                values[level] = info.valuePerLevel >= 0 ? Math.min(value, info.maxValue)
+                                                        : Math.max(value, info.maxValue);
+            }
+        }
+
+        public UpgradeInfo getInfo() { return info; }
+        public int getMaxLevel()     { return maxLevel; }
+
+        public BigDecimal getCost(int level) {
+            return level >= 0 && level < maxLevel ? costs[level] : seriesCost(info, level, 1);
+        }
+
+        public double getValue(int level) {
+            return values[Math.max(0, Math.min(level, maxLevel))];
+        }
+    }
+
     // ── UpgradeInfo ───────────────────────────────────────────────────────────
 
     public static class UpgradeInfo {
@@ -0,0 +1,82 @@
+package com.pallux.sandsim.utils;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.PriorityQueue;
+
+/**
+ * Keys ordered by the time they are next due. Scheduling a key that is already
+ * queued replaces its due time; the old heap entry is left behind and skipped
+ * when it surfaces. Scheduling and removal are O(log n), and
+ * {@link #pollDue(long)} only touches entries that are actually due.
+ *
+ * <p>Keys are compared with {@code equals}. Thread-safe: every method
+ * synchronizes on the queue.
+ */
+public class DueQueue<K> {
+
+    private static final class Entry<K> {
+        final K key;
+        final long dueAt;
+
+        Entry(K key, long dueAt) {
+            this.key   = key;
+            this.dueAt = dueAt;
+        }
+    }
+
+    private final PriorityQueue<Entry<K>> heap = new PriorityQueue<>((a, b) -> Long.compare(a.dueAt, b.dueAt));
+    /** Live entry per key; heap entries not in here are stale. */
+    private final Map<K, Entry<K>> live = new HashMap<>();
+
+    /** Queues {@code key} for {@code dueAt}, replacing any earlier schedule. */
+    public synchronized void schedule(K key, long dueAt) {
+        Entry<K> entry = new Entry<>(key, dueAt);
+        live.put(key, entry);
+        heap.add(entry);
+        // Rebuild once stale entries dominate so rescheduling never grows the heap unbounded
+        if (heap.size() > 2 * live.size() + 64) compact();
+    }
+
+    public synchronized void remove(K key) {
+        live.remove(key);
+    }
+
+    public synchronized boolean contains(K key) {
+        return live.containsKey(key);
+    }
+
+    /** Removes and returns every key due at or before {@code now}, earliest first. */
+    public synchronized List<K> pollDue(long now) {
+        List<K> due = new ArrayList<>();
+        Entry<K> head;
+        while ((head = heap.peek()) != null && head.dueAt <= now) {
+            heap.poll();
+            if (live.get(head.key) != head) continue; // rescheduled or removed
+            live.remove(head.key);
+            due.add(head.key);
+        }
+        return due;
+    }
+
+    /** Snapshot of the queued keys, in no particular order. */
+    public synchronized List<K> keys() {
+        return new ArrayList<>(live.keySet());
+    }
+
+    public synchronized int size() {
+        return live.size();
+    }
+
+    public synchronized void clear() {
+        live.clear();
+        heap.clear();
+    }
+
+    private void compact() {
+        heap.clear();
+        heap.addAll(live.values());
+    }
+}
@@ -0,0 +1,92 @@
+package com.pallux.sandsim.utils;
+
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.LongAccumulator;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Fixed-size log-linear histogram in the style of HdrHistogram: values below
+ * {@value #SUB_BUCKETS} get their own bucket, larger ones share a power-of-two
+ * range split into {@value #HALF} linear buckets, so any recorded value is
+ * reported within about 3% of its true size. Covers the whole non-negative
+ * {@code long} range in 16 KB.
+ *
+ * Recording is lock-free and safe from any thread. Reads are not atomic with
+ * respect to concurrent recording, which is fine for reporting.
+ */
+public class LatencyHistogram {
+
+    private static final int SUB_BITS    = 6;
+    private static final int SUB_BUCKETS = 1 << SUB_BITS;   // 64
+    private static final int HALF        = SUB_BUCKETS / 2; // 32
+    private static final int BUCKETS     = (64 - SUB_BITS + 1) * HALF + HALF;
+
+    private final AtomicLongArray counts = new AtomicLongArray(BUCKETS);
+    private final LongAdder total = new LongAdder();
+    private final LongAdder sum   = new LongAdder();
+    private final LongAccumulator max = new LongAccumulator(Math::max, 0L);
+
+    public void record(long value) {
+        if (value < 0) value = 0;
+        counts.incrementAndGet(index(value));
+        total.increment();
+        sum.add(value);
+        max.accumulate(value);
+    }
+
+    public long getCount() {
+        return total.sum();
+    }
+
+    public long getSum() {
+        return sum.sum();
+    }
+
+    public long getMax() {
+        return max.get();
+    }
+
+    public double getMean() {
+        long n = getCount();
+        return n == 0 ? 0.0 : (double) getSum() / n;
+    }
+
+    /**
+     * Smallest bucket value at or below which {@code percentile} percent of
+     * the recorded values fall, reported as the bucket's upper bound.
+     */
+    public long getPercentile(double percentile) {
+        long n = getCount();
+        if (n == 0) return 0L;
+        long rank = Math.max(1L, (long) Math.ceil(percentile / 100.0 * n));
+        long seen = 0;
+        for (int i = 0; i < BUCKETS; i++) {
+            seen += counts.get(i);
+            if (seen >= rank) return Math.min(upperBound(i), getMax());
+        }
+        return getMax();
+    }
+
+    public void reset() {
+        for (int i = 0; i < BUCKETS; i++) counts.set(i, 0L);
+        total.reset();
+        sum.reset();
+        max.reset();
+    }
+
+    // ── Bucket math ───────────────────────────────────────────────────────────
+
+    static int index(long value) {
+        if (value < SUB_BUCKETS) return (int) value;
+        int shift = 63 - Long.numberOfLeadingZeros(value) - (SUB_BITS - 1);
+        // value >> shift lies in [HALF, SUB_BUCKETS)
+        return shift * HALF + (int) (value >>> shift);
+    }
+
+    static long upperBound(int index) {
+        if (index < SUB_BUCKETS) return index;
+        int shift = index / HALF - 1;
+        long sub  = index % HALF + HALF;
+        return ((sub + 1) << shift) - 1;
+    }
+}
@@ -0,0 +1,120 @@
+package com.pallux.sandsim.utils;
+
+import net.kyori.adventure.text.Component;
+import net.kyori.adventure.text.serializer.legacy.LegacyComponentSerializer;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * A message compiled once from its config string: literal segments are
+ * colorized up front and {@code %placeholder%} tokens become slots, so
+ * rendering only splices values in. Messages without placeholders cache
+ * their final string and component outright.
+ *
+ * Rendering is equivalent to replacing the placeholders in the raw string
+ * and colorizing the result.
+ */
+public class MessageTemplate {
+
+    public static final MessageTemplate EMPTY = compile("");
+
+    private static final LegacyComponentSerializer LEGACY_SERIALIZER = LegacyComponentSerializer.legacyAmpersand();
+
+    private final String raw;
+    /** Colorized literal text; {@code literals[i]} precedes {@code slots[i]}. One more literal than slots. */
+    private final String[] literals;
+    /** Placeholder tokens including the percent signs, e.g. {@code %amount%}. */
+    private final String[] slots;
+    private final String constantText;
+    private final Component constantComponent;
+
+    private MessageTemplate(String raw, String[] literals, String[] slots) {
+        this.raw      = raw;
+        this.literals = literals;
+        this.slots    = slots;
+        this.constantText      = slots.length == 0 ? literals[0] : null;
+        this.constantComponent = slots.length == 0 ? LEGACY_SERIALIZER.deserialize(literals[0]) : null;
+    }
+
+    /** Splits {@code raw} on {@code %name%} tokens (letters, digits, '_' and '-'). */
+    public static MessageTemplate compile(String raw) {
+        List<String> literals = new ArrayList<>();
+        List<String> slots    = new ArrayList<>();
+        int start = 0;
+        int i = 0;
+        while (i < raw.length()) {
+            int end = raw.charAt(i) == '%' ? tokenEnd(raw, i) : -1;
+            if (end < 0) {
+                i++;
+                continue;
+            }
+            literals.add(raw.substring(start, i));
+            slots.add(raw.substring(i, end + 1));
+            start = i = end + 1;
+        }
+        literals.add(raw.substring(start));
+
+        String[] colored = new String[literals.size()];
+        for (int k = 0; k < colored.length; k++) {
+            colored[k] = ColorUtils.colorize(literals.get(k));
+        }
+        return new MessageTemplate(raw, colored, slots.toArray(new String[0]));
+    }
+
+    /** Index of the closing '%' of a token starting at {@code from}, or -1. */
+    private static int tokenEnd(String raw, int from) {
+        for (int j = from + 1; j < raw.length(); j++) {
+            char c = raw.charAt(j);
+            if (c == '%') return j > from + 1 ? j : -1;
+            if (!Character.isLetterOrDigit(c) && c != '_' && c != '-') return -1;
+        }
+        return -1;
+    }
+
+    public boolean isEmpty() {
+        return raw.isEmpty();
+    }
+
+    /** {@code true} if the message has no placeholders, so every render is the same. */
+    public boolean isConstant() {
+        return slots.length == 0;
+    }
+
+    /** The uncolored config string with placeholders replaced. */
+    public String raw(String... replacements) {
+        if (slots.length == 0 || replacements.length < 2) return raw;
+        String message = raw;
+        for (int i = 0; i < replacements.length - 1; i += 2) {
+            message = message.replace(replacements[i], replacements[i + 1]);
+        }
+        return message;
+    }
+
+    /** Colorized text with {@code replacements} given as placeholder/value pairs. */
+    public String render(String... replacements) {
+        if (constantText != null) return constantText;
+        StringBuilder sb = new StringBuilder(raw.length() + 16);
+        for (int i = 0; i < slots.length; i++) {
+            sb.append(literals[i]).append(value(slots[i], replacements));
+        }
+        return sb.append(literals[slots.length]).toString();
+    }
+
+    public Component renderComponent(String... replacements) {
+        if (constantComponent != null) return constantComponent;
+        return LEGACY_SERIALIZER.deserialize(render(replacements));
+    }
+
+    /** Value for a slot; unknown slots render as the token itself, like a missed replace. */
+    private static String value(String slot, String[] replacements) {
+        for (int i = 0; i < replacements.length - 1; i += 2) {
+            if (slot.equals(replacements[i])) {
+                String v = replacements[i + 1];
+                // Values rarely carry color codes; only then pay for colorizing
+                return v.indexOf('&') >= 0 ? ColorUtils.colorize(v) : v;
+            }
+        }
+        return slot;
+    }
+}
@@ -3,37 +3,129 @@ package com.pallux.sandsim.utils;
 import java.math.BigDecimal;
 import java.math.RoundingMode;
 
+/**
+ * Formats amounts for chat, GUIs and placeholders. Below 1,000 the whole part
+ * is shown; above it the value is divided down to the largest suffix on the
+ * ladder and truncated (not rounded) to two decimals, e.g. 1234567 → "1.23M".
+ * Past the last suffix amounts are written as "4.5e66".
+ *
+ * The suffix is picked from the number's decimal exponent, and {@code long}
+ * and {@code double} amounts below 2^53 are formatted with long arithmetic
+ * alone. {@link BigDecimal} results go through a small cache, since the same
+ * balances are shown over and over by GUIs and placeholders. Safe from any
+ * thread.
+ */
 public class NumberFormatter {
 
+    /** {@code SUFFIXES[i]} stands for 1000^(i + 1). */
+    private static final String[] SUFFIXES = {
+            "K", "M", "B", "T", "Qa", "Qi", "Sx", "Sp", "Oc", "No",
+            "Dc", "Ud", "Dd", "Td", "Qad", "Qid", "Sxd", "Spd", "Ocd", "Nod", "Vg"};
+
+    /** {@code POW10[i]} = 10^i, for every power that fits in a long. */
+    private static final long[] POW10 = new long[19];
+    static {
+        POW10[0] = 1L;
+        for (int i = 1; i < POW10.length; i++) POW10[i] = POW10[i - 1] * 10L;
+    }
+
+    /** Below this a double's whole part is exact, so long math matches the BigDecimal result. */
+    private static final double MAX_EXACT_DOUBLE = 0x1p53;
+
+    // ── Cache ─────────────────────────────────────────────────────────────────
+
+    /** Direct-mapped: the newest value in a slot evicts the old one. Power of two. */
+    private static final int CACHE_SIZE = 256;
+    /**
+     * Entries are immutable, so a racing reader sees either a whole entry or
+     * an older one, which at worst is a miss.
+     */
+    private static final CacheEntry[] CACHE = new CacheEntry[CACHE_SIZE];
+
+    private static final class CacheEntry {
+        final BigDecimal number;
+        final String     text;
+
+        CacheEntry(BigDecimal number, String text) {
+            this.number = number;
+            this.text   = text;
+        }
+    }
+
+    // ── Formatting ────────────────────────────────────────────────────────────
+
     public static String format(BigDecimal number) {
         if (number == null) return "0";
-        boolean isNegative = number.compareTo(BigDecimal.ZERO) < 0;
-        BigDecimal absNumber = number.abs();
-        String result;
-
-        if (absNumber.compareTo(BigDecimal.valueOf(1_000_000_000_000_000L)) >= 0) {
-            result = formatWithSuffix(absNumber, BigDecimal.valueOf(1_000_000_000_000_000L), "Qa");
-        } else if (absNumber.compareTo(BigDecimal.valueOf(1_000_000_000_000L)) >= 0) {
-            result = formatWithSuffix(absNumber, BigDecimal.valueOf(1_000_000_000_000L), "T");
-        } else if (absNumber.compareTo(BigDecimal.valueOf(1_000_000_000)) >= 0) {
-            result = formatWithSuffix(absNumber, BigDecimal.valueOf(1_000_000_000), "B");
-        } else if (absNumber.compareTo(BigDecimal.valueOf(1_000_000)) >= 0) {
-            result = formatWithSuffix(absNumber, BigDecimal.valueOf(1_000_000), "M");
-        } else if (absNumber.compareTo(BigDecimal.valueOf(1_000)) >= 0) {
-            result = formatWithSuffix(absNumber, BigDecimal.valueOf(1_000), "K");
+        int hash = number.hashCode();
+        int slot = (hash ^ (hash >>> 16)) & (CACHE_SIZE - 1);
+        CacheEntry entry = CACHE[slot];
+        if (entry != null && (entry.number == number || entry.number.equals(number))) return entry.text;
+
+        String text = formatUncached(number);
+        CACHE[slot] = new CacheEntry(number, text);
+        return text;
+    }
+
+    public static String format(double number) {
+        if (Double.isNaN(number)) return "0";
+        if (Double.isInfinite(number)) return number > 0 ? "∞" : "-∞";
+        double abs = Math.abs(number);
+        if (abs >= MAX_EXACT_DOUBLE) return format(BigDecimal.valueOf(number));
+        return signed(number < 0, formatWhole((long) abs));
+    }
+
+    public static String format(int number) { return format((long) number); }
+
+    public static String format(long number) {
+        if (number == Long.MIN_VALUE) return format(BigDecimal.valueOf(number));
+        return signed(number < 0, formatWhole(Math.abs(number)));
+    }
+
+    private static String formatUncached(BigDecimal number) {
+        int sign = number.signum();
+        if (sign == 0) return "0";
+        BigDecimal abs = sign < 0 ? number.negate() : number;
+
+        // Digits before the decimal point; zero or less for pure fractions
+        int digits = abs.precision() - abs.scale();
+        String text;
+        if (digits < POW10.length) {
+            // Truncating to hundredths of a suffix only ever looks at the whole part
+            text = formatWhole(abs.setScale(0, RoundingMode.DOWN).longValue());
         } else {
-            result = absNumber.setScale(0, RoundingMode.DOWN).toPlainString();
+            int tier = (digits - 1) / 3;
+            if (tier <= SUFFIXES.length) {
+                long hundredths = abs.movePointLeft(3 * tier - 2).setScale(0, RoundingMode.DOWN).longValue();
+                text = withDecimals(hundredths, SUFFIXES[tier - 1]);
+            } else {
+                long hundredths = abs.movePointLeft(digits - 3).setScale(0, RoundingMode.DOWN).longValue();
+                text = withDecimals(hundredths, "e" + (digits - 1));
+            }
         }
+        return signed(sign < 0, text);
+    }
 
-        return isNegative ? "-" + result : result;
+    /** Formats a non-negative whole amount. */
+    private static String formatWhole(long number) {
+        if (number < 1000L) return Long.toString(number);
+        int digits = 4;
+        while (digits < POW10.length && number >= POW10[digits]) digits++;
+        int tier = (digits - 1) / 3;
+        return withDecimals(number / POW10[3 * tier - 2], SUFFIXES[tier - 1]);
     }
 
-    private static String formatWithSuffix(BigDecimal number, BigDecimal divisor, String suffix) {
-        BigDecimal divided = number.divide(divisor, 2, RoundingMode.DOWN);
-        return divided.stripTrailingZeros().toPlainString() + suffix;
+    /** {@code hundredths} as a decimal with trailing zeros dropped, then {@code suffix}. */
+    private static String withDecimals(long hundredths, String suffix) {
+        StringBuilder out = new StringBuilder(12).append(hundredths / 100);
+        int fraction = (int) (hundredths % 100);
+        if (fraction != 0) {
+            out.append('.').append(fraction / 10);
+            if (fraction % 10 != 0) out.append(fraction % 10);
+        }
+        return out.append(suffix).toString();
     }
 
-    public static String format(double number) { return format(BigDecimal.valueOf(number)); }
-    public static String format(int number)    { return format(BigDecimal.valueOf(number)); }
-    public static String format(long number)   { return format(BigDecimal.valueOf(number)); }
+    private static String signed(boolean negative, String text) {
+        return negative && !"0".equals(text) ? "-" + text : text;
+    }
 }
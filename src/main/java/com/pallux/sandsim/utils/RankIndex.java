@@ -0,0 +1,235 @@
+package com.pallux.sandsim.utils;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.SplittableRandom;
+import java.util.UUID;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * Order-statistic tree (a treap with subtree sizes) ranking players by value,
+ * highest first; ties are broken by UUID so every player has a unique rank.
+ * Updates, removals, rank lookups and k-th selection are all O(log n).
+ *
+ * <p>Ordering uses the value as a {@code double}; the exact {@link BigDecimal}
+ * is kept alongside for display. Thread-safe: readers share a read lock,
+ * updates take the write lock.
+ */
+public class RankIndex {
+
+    /** One ranked player, as returned by {@link #range(int, int)}. */
+    public static final class Entry {
+        private final UUID uuid;
+        private final BigDecimal value;
+
+        Entry(UUID uuid, BigDecimal value) {
+            this.uuid  = uuid;
+            this.value = value;
+        }
+
+        public UUID getUuid()        { return uuid; }
+        public BigDecimal getValue() { return value; }
+    }
+
+    private static final class Node {
+        final UUID uuid;
+        final double score;
+        final BigDecimal value;
+        final int priority;
+        Node left, right;
+        int size = 1;
+
+        Node(UUID uuid, BigDecimal value, int priority) {
+            this.uuid     = uuid;
+            this.value    = value;
+            this.score    = value.doubleValue();
+            this.priority = priority;
+        }
+    }
+
+    private final Map<UUID, Node> nodes = new HashMap<>();
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+    private final SplittableRandom random = new SplittableRandom();
+    private Node root;
+
+    // ── Updates ───────────────────────────────────────────────────────────────
+
+    /** Inserts the player or moves them to their new position. */
+    public void update(UUID uuid, BigDecimal value) {
+        lock.writeLock().lock();
+        try {
+            Node old = nodes.get(uuid);
+            if (old != null) {
+                if (old.value.compareTo(value) == 0) return;
+                root = remove(root, old);
+            }
+            Node node = new Node(uuid, value, random.nextInt());
+            nodes.put(uuid, node);
+            root = insert(root, node);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public void remove(UUID uuid) {
+        lock.writeLock().lock();
+        try {
+            Node old = nodes.remove(uuid);
+            if (old != null) root = remove(root, old);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public void clear() {
+        lock.writeLock().lock();
+        try {
+            nodes.clear();
+            root = null;
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    // ── Queries ───────────────────────────────────────────────────────────────
+
+    public int size() {
+        lock.readLock().lock();
+        try {
+            return nodes.size();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /** 1-based rank of the player, or -1 if they are not indexed. */
+    public int getRank(UUID uuid) {
+        lock.readLock().lock();
+        try {
+            Node target = nodes.get(uuid);
+            if (target == null) return -1;
+            int before = 0;
+            Node t = root;
+            while (t != null) {
+                int c = compare(target, t);
+                if (c < 0) {
+                    t = t.left;
+                } else if (c > 0) {
+                    before += size(t.left) + 1;
+                    t = t.right;
+                } else {
+                    before += size(t.left);
+                    break;
+                }
+            }
+            return before + 1;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /** The player's indexed value, or {@code null} if they are not indexed. */
+    public BigDecimal getValue(UUID uuid) {
+        lock.readLock().lock();
+        try {
+            Node node = nodes.get(uuid);
+            return node != null ? node.value : null;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /** Up to {@code limit} entries starting at 0-based position {@code offset}, best first. */
+    public List<Entry> range(int offset, int limit) {
+        lock.readLock().lock();
+        try {
+            List<Entry> out = new ArrayList<>(Math.max(0, Math.min(limit, nodes.size() - offset)));
+            if (offset < 0 || limit <= 0) return out;
+            collect(root, offset, offset + limit, 0, out);
+            return out;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    // ── Treap internals ───────────────────────────────────────────────────────
+
+    /** In-order walk of positions [from, to), skipping whole subtrees outside it. */
+    private static void collect(Node t, int from, int to, int base, List<Entry> out) {
+        if (t == null || base >= to || base + t.size <= from) return;
+        collect(t.left, from, to, base, out);
+        int pos = base + size(t.left);
+        if (pos >= from && pos < to) out.add(new Entry(t.uuid, t.value));
+        collect(t.right, from, to, pos + 1, out);
+    }
+
+    private static Node insert(Node t, Node node) {
+        if (t == null) return node;
+        if (node.priority > t.priority) {
+            Node[] parts = split(t, node);
+            node.left  = parts[0];
+            node.right = parts[1];
+            pull(node);
+            return node;
+        }
+        if (compare(node, t) < 0) t.left = insert(t.left, node);
+        else                      t.right = insert(t.right, node);
+        pull(t);
+        return t;
+    }
+
+    private static Node remove(Node t, Node target) {
+        if (t == null) return null;
+        if (t == target) return merge(t.left, t.right);
+        if (compare(target, t) < 0) t.left = remove(t.left, target);
+        else                        t.right = remove(t.right, target);
+        pull(t);
+        return t;
+    }
+
+    /** Splits into nodes ordered before {@code key} and the rest. */
+    private static Node[] split(Node t, Node key) {
+        if (t == null) return new Node[]{null, null};
+        if (compare(t, key) < 0) {
+            Node[] parts = split(t.right, key);
+            t.right = parts[0];
+            pull(t);
+            return new Node[]{t, parts[1]};
+        }
+        Node[] parts = split(t.left, key);
+        t.left = parts[1];
+        pull(t);
+        return new Node[]{parts[0], t};
+    }
+
+    private static Node merge(Node a, Node b) {
+        if (a == null) return b;
+        if (b == null) return a;
+        if (a.priority > b.priority) {
+            a.right = merge(a.right, b);
+            pull(a);
+            return a;
+        }
+        b.left = merge(a, b.left);
+        pull(b);
+        return b;
+    }
+
+    /** Highest value first, then UUID for a total order. */
+    private static int compare(Node a, Node b) {
+        int c = Double.compare(b.score, a.score);
+        return c != 0 ? c : a.uuid.compareTo(b.uuid);
+    }
+
+    private static int size(Node t) {
+        return t == null ? 0 : t.size;
+    }
+
+    private static void pull(Node t) {
+        t.size = 1 + size(t.left) + size(t.right);
+    }
+}
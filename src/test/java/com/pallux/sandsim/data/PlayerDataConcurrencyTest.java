@@ -0,0 +1,142 @@
+package com.pallux.sandsim.data;
+
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Hammers a single {@link PlayerData} from several threads the way the
+ * server does (factory credits, purchases, mining credits with tick commits,
+ * async saves) and checks that no credit is lost and no spend overdraws.
+ */
+class PlayerDataConcurrencyTest {
+
+    private static final int THREADS    = 4;
+    private static final int ITERATIONS = 20_000;
+
+    @Test
+    void balancesEqualCreditsMinusSuccessfulSpends() throws Exception {
+        PlayerData data = new PlayerData(UUID.randomUUID());
+        BigDecimal sandCost      = BigDecimal.valueOf(2);
+        BigDecimal sandbucksCost = BigDecimal.valueOf(3);
+        AtomicInteger sandSpends      = new AtomicInteger();
+        AtomicInteger sandbucksSpends = new AtomicInteger();
+        AtomicBoolean running         = new AtomicBoolean(true);
+        AtomicBoolean sawNegative     = new AtomicBoolean();
+
+        List<Runnable> workers = new ArrayList<>();
+        for (int t = 0; t < THREADS; t++) {
+            // Factory output, normally settled off the main thread
+            workers.add(() -> { for (int i = 0; i < ITERATIONS; i++) data.addSandbucks(1.0); });
+            // Mining rewards, credited lock-free
+            workers.add(() -> { for (int i = 0; i < ITERATIONS; i++) data.creditSand(1.0); });
+            // Purchases
+            workers.add(() -> {
+                for (int i = 0; i < ITERATIONS; i++) {
+                    if (data.trySpendSandbucks(sandbucksCost)) sandbucksSpends.incrementAndGet();
+                    if (data.trySpendSand(sandCost))           sandSpends.incrementAndGet();
+                }
+            });
+        }
+
+        ExecutorService pool = Executors.newFixedThreadPool(workers.size() + 2);
+        try {
+            // Tick loop folding mining credits into the balance
+            Future<?> ticker = pool.submit(() -> { while (running.get()) data.commitPending(); });
+            // Async saves
+            Future<?> saver = pool.submit(() -> {
+                while (running.get()) {
+                    Object sand      = data.serialize().get("sand");
+                    Object sandbucks = data.serialize().get("sandbucks");
+                    if (new BigDecimal(sand.toString()).signum() < 0
+                            || new BigDecimal(sandbucks.toString()).signum() < 0) {
+                        sawNegative.set(true);
+                    }
+                }
+            });
+
+            CountDownLatch start = new CountDownLatch(1);
+            List<Future<?>> futures = new ArrayList<>();
+            for (Runnable worker : workers) {
+                futures.add(pool.submit(() -> {
+                    start.await();
+                    worker.run();
+                    return null;
+                }));
+            }
+            start.countDown();
+            for (Future<?> future : futures) future.get(60, TimeUnit.SECONDS);
+
+            running.set(false);
+            ticker.get(10, TimeUnit.SECONDS);
+            saver.get(10, TimeUnit.SECONDS);
+        } finally {
+            pool.shutdownNow();
+        }
+        data.commitPending();
+
+        BigDecimal credited = BigDecimal.valueOf((long) THREADS * ITERATIONS);
+        assertEquals(0, credited.subtract(sandCost.multiply(BigDecimal.valueOf(sandSpends.get())))
+                .compareTo(data.getSand()), "sand = credits - spends");
+        assertEquals(0, credited.subtract(sandbucksCost.multiply(BigDecimal.valueOf(sandbucksSpends.get())))
+                .compareTo(data.getSandbucks()), "sandbucks = credits - spends");
+        assertFalse(sawNegative.get(), "a save observed a negative balance");
+    }
+
+    @Test
+    void concurrentSkillPurchasesSpendEachPointOnce() throws Exception {
+        PlayerData data = new PlayerData(UUID.randomUUID());
+        data.setSkillPointsEarned(1);
+        SkillType[] tierOne = {SkillType.SAND_SKILL_1, SkillType.GEM_SKILL_1, SkillType.SANDBUCKS_SKILL_1};
+        AtomicInteger purchases = new AtomicInteger();
+
+        ExecutorService pool = Executors.newFixedThreadPool(tierOne.length * 2);
+        try {
+            CountDownLatch start = new CountDownLatch(1);
+            List<Future<?>> futures = new ArrayList<>();
+            for (int t = 0; t < tierOne.length * 2; t++) {
+                SkillType skill = tierOne[t % tierOne.length];
+                futures.add(pool.submit(() -> {
+                    start.await();
+                    if (data.tryPurchaseSkill(skill, 1)) purchases.incrementAndGet();
+                    return null;
+                }));
+            }
+            start.countDown();
+            for (Future<?> future : futures) future.get(10, TimeUnit.SECONDS);
+        } finally {
+            pool.shutdownNow();
+        }
+
+        assertEquals(1, purchases.get());
+        assertEquals(1, data.getSkillPointsSpent());
+        assertEquals(1, data.getPurchasedSkills().size());
+        assertEquals(0, data.getAvailableSkillPoints());
+    }
+
+    @Test
+    void skillPurchaseRequiresPreviousTier() {
+        PlayerData data = new PlayerData(UUID.randomUUID());
+        data.setSkillPointsEarned(2);
+
+        assertFalse(data.tryPurchaseSkill(SkillType.SAND_SKILL_2, 1));
+        assertTrue(data.tryPurchaseSkill(SkillType.SAND_SKILL_1, 1));
+        assertTrue(data.tryPurchaseSkill(SkillType.SAND_SKILL_2, 1));
+        assertFalse(data.tryPurchaseSkill(SkillType.SAND_SKILL_2, 1));
+        assertEquals(0, data.getAvailableSkillPoints());
+    }
+}
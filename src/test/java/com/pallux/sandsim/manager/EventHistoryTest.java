@@ -0,0 +1,82 @@
+package com.pallux.sandsim.manager;
+
+import com.pallux.sandsim.manager.EventManager.EventType;
+import com.pallux.sandsim.manager.EventManager.EventWindow;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/** Reloading {@code event-history.yml} after a crash left an event window open. */
+class EventHistoryTest {
+
+    private static final long MINUTE = 60_000L;
+
+    @TempDir
+    Path dir;
+
+    @Test
+    void openWindowIsClosedAtLastHeartbeat() throws IOException {
+        long start = 1_000_000_000_000L;
+        File file = write(
+                window(0, EventType.BONUS_SAND, start - 30 * MINUTE, start - 25 * MINUTE)
+                + window(1, EventType.BONUS_FACTORY_PRODUCTION, start, Long.MAX_VALUE));
+        assertTrue(file.setLastModified(start + 2 * MINUTE));
+
+        List<EventWindow> windows = EventManager.readHistory(file, 5 * MINUTE);
+
+        assertEquals(2, windows.size());
+        assertEquals(start - 25 * MINUTE, windows.get(0).end);
+        assertEquals(EventType.BONUS_FACTORY_PRODUCTION, windows.get(1).type);
+        assertEquals(start + 2 * MINUTE, windows.get(1).end);
+    }
+
+    @Test
+    void openWindowNeverOutlastsEventDuration() throws IOException {
+        long start = 1_000_000_000_000L;
+        File file = write(window(0, EventType.BONUS_FACTORY_SPEED, start, Long.MAX_VALUE));
+        // Server stayed down for a day after the file was last touched
+        assertTrue(file.setLastModified(start + 24 * 60 * MINUTE));
+
+        List<EventWindow> windows = EventManager.readHistory(file, 5 * MINUTE);
+
+        assertEquals(1, windows.size());
+        assertEquals(start + 5 * MINUTE, windows.get(0).end);
+    }
+
+    @Test
+    void openWindowWithoutHeartbeatIsDropped() throws IOException {
+        long start = 1_000_000_000_000L;
+        File file = write(window(0, EventType.BONUS_SAND, start, Long.MAX_VALUE));
+        // Crashed before the first heartbeat: the file is as old as the window
+        assertTrue(file.setLastModified(start));
+
+        assertTrue(EventManager.readHistory(file, 5 * MINUTE).isEmpty());
+    }
+
+    @Test
+    void missingFileIsEmpty() {
+        assertTrue(EventManager.readHistory(dir.resolve("absent.yml").toFile(), 5 * MINUTE).isEmpty());
+    }
+
+    private File write(String windows) throws IOException {
+        Path path = dir.resolve("event-history.yml");
+        Files.writeString(path, "windows:\n" + windows, StandardCharsets.UTF_8);
+        return path.toFile();
+    }
+
+    private static String window(int index, EventType type, long start, long end) {
+        return "  '" + index + "':\n"
+                + "    type: " + type.name() + "\n"
+                + "    start: " + start + "\n"
+                + "    end: " + end + "\n";
+    }
+}
@@ -0,0 +1,154 @@
+package com.pallux.sandsim.manager;
+
+import com.pallux.sandsim.manager.UpgradeManager.Currency;
+import com.pallux.sandsim.manager.UpgradeManager.UpgradeInfo;
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.math.MathContext;
+import java.math.RoundingMode;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Checks the closed-form series cost and the log-based affordable-level
+ * estimate against a plain level-by-level loop.
+ */
+class UpgradeCostTest {
+
+    /** Cost curves of the shipped upgrades, plus flat and shrinking ones. */
+    private static final List<UpgradeInfo> CURVES = List.of(
+            info(100,   1.15),   // sand multiplier
+            info(500,   1.2),    // sand explosion chance
+            info(1000,  1.25),   // sand explosion radius, jackpots
+            info(250,   1.18),   // sand cooldown
+            info(750,   1.22),   // gem chance
+            info(2000,  1.3),    // gem multiplier
+            info(500,   3.0),    // efficiency
+            info(50000, 5.0),    // speed
+            info(150,   1.12),   // factory production amount
+            info(10,    1.0),
+            info(1000,  0.9));
+
+    private static final int[] FROM_LEVELS = {0, 1, 7, 50, 200};
+
+    @Test
+    void seriesCostMatchesLevelByLevelSum() {
+        for (UpgradeInfo info : CURVES) {
+            for (int from : FROM_LEVELS) {
+                BigDecimal exact = BigDecimal.ZERO;
+                for (int n = 1; n <= 80; n++) {
+                    exact = exact.add(levelCost(info, from + n - 1));
+                    BigDecimal expected = exact.setScale(0, RoundingMode.CEILING);
+                    BigDecimal actual   = UpgradeManager.seriesCost(info, from, n);
+                    if (expected.precision() <= 30) {
+                        assertEquals(expected, actual, describe(info, from, n));
+                    } else {
+                        // Past DECIMAL128's precision only the relative error is bounded
+                        BigDecimal error = actual.subtract(expected).abs().divide(expected, MathContext.DECIMAL64);
+                        assertTrue(error.compareTo(new BigDecimal("1e-32")) <= 0, describe(info, from, n) + " error " + error);
+                    }
+                }
+            }
+        }
+    }
+
+    @Test
+    void zeroBalanceAffordsNothing() {
+        for (UpgradeInfo info : CURVES) {
+            for (int from : FROM_LEVELS) {
+                assertEquals(0, UpgradeManager.affordableLevels(info, from, BigDecimal.ZERO, 1000));
+            }
+        }
+    }
+
+    @Test
+    void exactCostBalancesMatchLoop() {
+        for (UpgradeInfo info : CURVES) {
+            for (int from : FROM_LEVELS) {
+                BigDecimal exact = BigDecimal.ZERO;
+                for (int k = 1; k <= 40; k++) {
+                    exact = exact.add(levelCost(info, from + k - 1));
+                    BigDecimal cost = exact.setScale(0, RoundingMode.CEILING);
+                    if (cost.precision() > 30) break;
+                    for (BigDecimal budget : List.of(cost.subtract(BigDecimal.ONE), cost, cost.add(BigDecimal.ONE))) {
+                        assertEquals(loopLevels(info, from, budget, 1000),
+                                UpgradeManager.affordableLevels(info, from, budget, 1000),
+                                describe(info, from, k) + " budget " + budget);
+                    }
+                    // Exactly k, unless the next level is so cheap it rounds to the same total
+                    if (UpgradeManager.seriesCost(info, from, k + 1).compareTo(cost) > 0) {
+                        assertEquals(k, UpgradeManager.affordableLevels(info, from, cost, 1000), describe(info, from, k));
+                    }
+                }
+            }
+        }
+    }
+
+    @Test
+    void maxLevelClampsAffordableLevels() {
+        BigDecimal rich = new BigDecimal("1e400");
+        for (UpgradeInfo info : CURVES) {
+            assertEquals(100, UpgradeManager.affordableLevels(info, 0, rich, 100));
+            assertEquals(1,   UpgradeManager.affordableLevels(info, 99, rich, 1));
+            assertEquals(0,   UpgradeManager.affordableLevels(info, 100, rich, 0));
+        }
+        // A shrinking series converges, so a finite balance can cover every level up to the cap
+        assertEquals(5000, UpgradeManager.affordableLevels(info(1000, 0.9), 0, new BigDecimal("10000"), 5000));
+    }
+
+    @Test
+    void veryLargeBalancesMatchLoop() {
+        List<BigDecimal> budgets = List.of(
+                new BigDecimal("1e20"), new BigDecimal("1e100"), new BigDecimal("1.7976931348623157e308"),
+                new BigDecimal("1e309"), new BigDecimal("1e2000"));
+        for (UpgradeInfo info : CURVES) {
+            for (int from : FROM_LEVELS) {
+                for (BigDecimal budget : budgets) {
+                    int limit = 20_000;
+                    int actual = UpgradeManager.affordableLevels(info, from, budget, limit);
+                    assertEquals(bracketLevels(info, from, budget, limit, actual), actual,
+                            describe(info, from, actual) + " budget " + budget);
+                }
+            }
+        }
+        for (BigDecimal budget : budgets.subList(0, 3)) {
+            UpgradeInfo info = info(150, 1.12);
+            assertEquals(loopLevels(info, 0, budget, 20_000), UpgradeManager.affordableLevels(info, 0, budget, 20_000));
+        }
+    }
+
+    // ── Reference implementations ─────────────────────────────────────────────
+
+    /** Price of one level, exactly. */
+    private static BigDecimal levelCost(UpgradeInfo info, int level) {
+        return BigDecimal.valueOf(info.baseCost).multiply(BigDecimal.valueOf(info.costMultiplier).pow(level));
+    }
+
+    /** Buys one level at a time, as long as the running total stays affordable. */
+    private static int loopLevels(UpgradeInfo info, int from, BigDecimal budget, int limit) {
+        int n = 0;
+        while (n < limit && UpgradeManager.seriesCost(info, from, n + 1).compareTo(budget) <= 0) n++;
+        return n;
+    }
+
+    /**
+     * The loop's answer, checked only around {@code guess}: costs rise with
+     * every level, so n is the answer iff n levels fit and n + 1 do not.
+     */
+    private static int bracketLevels(UpgradeInfo info, int from, BigDecimal budget, int limit, int guess) {
+        boolean fits     = guess == 0 || UpgradeManager.seriesCost(info, from, guess).compareTo(budget) <= 0;
+        boolean nextFits = guess < limit && UpgradeManager.seriesCost(info, from, guess + 1).compareTo(budget) <= 0;
+        return fits && !nextFits ? guess : loopLevels(info, from, budget, limit);
+    }
+
+    private static UpgradeInfo info(double baseCost, double costMultiplier) {
+        return new UpgradeInfo(0, 100, 1, baseCost, costMultiplier, Currency.SAND);
+    }
+
+    private static String describe(UpgradeInfo info, int from, int levels) {
+        return info.baseCost + " x" + info.costMultiplier + " from " + from + " for " + levels;
+    }
+}